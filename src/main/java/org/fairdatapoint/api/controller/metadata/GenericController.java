@@ -30,18 +30,19 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
 import org.fairdatapoint.database.rdf.repository.generic.GenericMetadataRepository;
 import org.fairdatapoint.entity.exception.ForbiddenException;
-import org.fairdatapoint.entity.exception.ValidationException;
+import org.fairdatapoint.entity.metadata.MetadataChildrenPage;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.entity.resource.ResourceDefinitionChild;
 import org.fairdatapoint.entity.user.UserAccount;
 import org.fairdatapoint.service.metadata.common.MetadataService;
 import org.fairdatapoint.service.metadata.enhance.MetadataEnhancer;
+import org.fairdatapoint.service.metadata.etag.MetadataETagService;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
 import org.fairdatapoint.service.metadata.factory.MetadataServiceFactory;
-import org.fairdatapoint.service.metadata.state.MetadataStateService;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.fairdatapoint.service.metadata.render.RenderedModel;
 import org.fairdatapoint.service.resource.ResourceDefinitionService;
 import org.fairdatapoint.service.schema.MetadataSchemaService;
-import org.fairdatapoint.service.search.SearchFilterCache;
 import org.fairdatapoint.service.user.CurrentUserService;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
@@ -55,14 +56,15 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
 import static org.fairdatapoint.util.HttpUtil.*;
 import static org.fairdatapoint.util.RdfIOUtil.changeBaseUri;
 import static org.fairdatapoint.util.RdfIOUtil.read;
@@ -89,17 +91,21 @@ public class GenericController {
 
     private final GenericMetadataRepository metadataRepository;
 
-    private final MetadataStateService metadataStateService;
+    private final MetadataETagService metadataETagService;
 
-    private final SearchFilterCache searchFilterCache;
+    private final MetadataResponseCache metadataResponseCache;
 
     @Operation(hidden = true)
     @GetMapping(path = {"/spec", "{oUrlPrefix:[^.]+}/spec"}, produces = "!application/json")
     public Model getFormMetadata(
-            @PathVariable final Optional<String> oUrlPrefix
+            @PathVariable final Optional<String> oUrlPrefix,
+            ServletWebRequest webRequest
     ) {
         final String urlPrefix = oUrlPrefix.orElse("");
         final ResourceDefinition rd = resourceDefinitionService.getByUrlPrefix(urlPrefix);
+        if (isNotModified(webRequest, Optional.of(metadataETagService.getSpecETag(rd, getVariant(webRequest))))) {
+            return null;
+        }
         return metadataSchemaService.getShaclFromSchemaUsages(rd.getMetadataSchemaUsages());
     }
 
@@ -110,8 +116,9 @@ public class GenericController {
     )
     public Model getMetaDataExpanded(
             @PathVariable final Optional<String> oUrlPrefix,
-            @PathVariable final Optional<String> oRecordId
-    ) throws MetadataServiceException {
+            @PathVariable final Optional<String> oRecordId,
+            ServletWebRequest webRequest
+    ) throws MetadataServiceException, MetadataRepositoryException {
         // 1. Init
         final Model resultRdf = new LinkedHashModel();
         final String urlPrefix = oUrlPrefix.orElse("");
@@ -122,6 +129,10 @@ public class GenericController {
         // 2. Get entity (from repository based on permissions)
         final Optional<UserAccount> oCurrentUser = currentUserService.getCurrentUser();
         IRI entityUri = getMetadataIRI(persistentUrl, urlPrefix, recordId);
+        if (oCurrentUser.isEmpty() && isNotModified(webRequest,
+                metadataETagService.getExpandedMetadataETag(entityUri, rd, getVariant(webRequest)))) {
+            return null;
+        }
         final RepositoryMode mode = oCurrentUser.isEmpty() ? RepositoryMode.MAIN : RepositoryMode.COMBINED;
         Model entity = metadataService.retrieve(entityUri, mode);
         resultRdf.addAll(entity);
@@ -153,10 +164,10 @@ public class GenericController {
     public Model getMetaData(
             @PathVariable final Optional<String> oUrlPrefix,
             @PathVariable final Optional<String> oRecordId,
-            HttpServletResponse response
-    ) throws MetadataServiceException {
+            HttpServletResponse response,
+            ServletWebRequest webRequest
+    ) throws MetadataServiceException, MetadataRepositoryException {
         // 1. Init
-        final Model resultRdf = new LinkedHashModel();
         final String urlPrefix = oUrlPrefix.orElse("");
         final String recordId = oRecordId.orElse("");
         final MetadataService metadataService = metadataServiceFactory.getMetadataServiceByUrlPrefix(urlPrefix);
@@ -164,20 +175,40 @@ public class GenericController {
         // 2. Get resource definition
         final ResourceDefinition rd = resourceDefinitionService.getByUrlPrefix(urlPrefix);
 
-        // 3. Get entity (from repository based on permissions)
+        // 3. Answer public requests from response cache
         final Optional<UserAccount> oCurrentUser = currentUserService.getCurrentUser();
         final IRI entityUri = getMetadataIRI(persistentUrl, urlPrefix, recordId);
         final RepositoryMode mode = oCurrentUser.isEmpty() ? RepositoryMode.MAIN : RepositoryMode.COMBINED;
+        if (oCurrentUser.isEmpty()) {
+            final Optional<RenderedModel> oCached = metadataResponseCache.get(entityUri, mode);
+            final Optional<String> etag = oCached.isPresent()
+                    ? metadataETagService.getMetadataETag(entityUri, oCached.get(), rd, getVariant(webRequest))
+                    : metadataETagService.getMetadataETag(entityUri, rd, getVariant(webRequest));
+            if (isNotModified(webRequest, etag)) {
+                return null;
+            }
+            if (oCached.isPresent()) {
+                enhanceWithSignposting(response, entityUri, oCached.get());
+                return oCached.get();
+            }
+        }
+
+        // 4. Get entity (from repository based on permissions)
+        final long cacheStamp = metadataResponseCache.getStamp();
+        final Model resultRdf = oCurrentUser.isEmpty() ? new RenderedModel() : new LinkedHashModel();
         final Model entity = metadataService.retrieve(entityUri, mode);
         resultRdf.addAll(entity);
 
-        // 4. Add links
+        // 5. Add links
         metadataEnhancer.enhanceWithLinks(entityUri, entity, rd, persistentUrl, resultRdf);
         metadataEnhancer.enhanceWithResourceDefinition(entityUri, rd, resultRdf);
 
         enhanceWithSignposting(response, entityUri, resultRdf);
 
         // 6. Create response
+        if (resultRdf instanceof RenderedModel renderedModel) {
+            metadataResponseCache.put(entityUri, mode, renderedModel, cacheStamp);
+        }
         return resultRdf;
     }
 
@@ -213,10 +244,7 @@ public class GenericController {
         // 5. Store metadata
         final Model metadata = metadataService.store(reqDto, uri, rd);
 
-        // 6. Invalidate search filters cache
-        searchFilterCache.clearCache();
-
-        // 7. Create response
+        // 6. Create response
         return ResponseEntity
                 .created(URI.create(uri.stringValue()))
                 .body(metadata);
@@ -255,10 +283,7 @@ public class GenericController {
         // 4. Store metadata
         final Model metadata = metadataService.update(reqDto, uri, rd, true);
 
-        // 5. Invalidate search filters cache
-        searchFilterCache.clearCache();
-
-        // 6. Create response
+        // 5. Create response
         return ResponseEntity
                 .ok(metadata);
     }
@@ -286,10 +311,7 @@ public class GenericController {
         // 4. Store metadata
         metadataService.delete(uri, rd);
 
-        // 5. Invalidate search filters cache
-        searchFilterCache.clearCache();
-
-        // 6. Create response
+        // 5. Create response
         return ResponseEntity.noContent().build();
     }
 
@@ -315,7 +337,7 @@ public class GenericController {
         final Optional<UserAccount> oCurrentUser = currentUserService.getCurrentUser();
         final IRI entityUri = getMetadataIRI(persistentUrl, urlPrefix, recordId);
         final RepositoryMode mode = oCurrentUser.isEmpty() ? RepositoryMode.MAIN : RepositoryMode.COMBINED;
-        final Model entity = metadataService.retrieve(entityUri, mode);
+        metadataService.retrieve(entityUri, mode);
 
         // 3. Get Children
         final ResourceDefinition rd = resourceDefinitionService.getByUrlPrefix(urlPrefix);
@@ -326,41 +348,16 @@ public class GenericController {
             if (rdChild.getTarget().getUuid().equals(currentChildRd.getUuid())) {
                 final IRI relationUri = i(rdChild.getRelationUri());
 
-                // 3.1 Get all titles for sort
-                final Map<String, String> titles =
-                        metadataRepository.findChildTitles(entityUri, relationUri, RepositoryMode.COMBINED);
-
-                // 3.2 Get all children sorted
-                final List<Value> children = getObjectsBy(entity, entityUri, relationUri)
-                        .stream()
-                        .filter(childUri -> getResourceNameForChild(childUri.toString()).equals(childPrefix))
-                        .filter(childUri -> {
-                            try {
-                                return oCurrentUser.isPresent()
-                                        || metadataStateService.isPublished(i(childUri.stringValue()));
-                            }
-                            catch (MetadataServiceException exc) {
-                                return false;
-                            }
-                        })
-                        .sorted((value1, value2) -> {
-                            final String title1 = titles.get(value1.toString());
-                            final String title2 = titles.get(value2.toString());
-                            if (title1 == null) {
-                                return -1;
-                            }
-                            return title1.compareTo(title2);
-                        })
-                        .toList();
-
-                // 3.3 Retrieve children metadata only for requested page
-                final int childrenCount = children.size();
-                children.stream().skip((long) page * size).limit(size)
-                        .map(childUri -> retrieveChildModel(childMetadataService, childUri))
-                        .flatMap(Optional::stream)
-                        .forEach(resultRdf::addAll);
-
-                // 3.4 Set Link headers and send response
+                // 3.1 Get requested page of children (sorted and filtered by state in repository)
+                final MetadataChildrenPage childrenPage = metadataRepository.findChildrenPage(
+                        entityUri, relationUri, format("%s/%s/", persistentUrl, childPrefix), mode, page, size
+                );
+
+                // 3.2 Retrieve children metadata only for requested page
+                childMetadataService.retrieve(childrenPage.getChildren(), mode).forEach(resultRdf::addAll);
+                final int childrenCount = (int) childrenPage.getTotalCount();
+
+                // 3.3 Set Link headers and send response
                 final HttpHeaders responseHeaders = new HttpHeaders();
                 responseHeaders.set(
                         "Link",
@@ -374,21 +371,14 @@ public class GenericController {
         return ResponseEntity.ok(resultRdf);
     }
 
-    private String getResourceNameForChild(String url) {
-        final String[] parts = url
-                .replace(persistentUrl, "")
-                .split("/");
-
-        if (parts.length < 2) {
-            throw new ValidationException("Unsupported URL");
-        }
-
-        // If URL is a repository -> return empty string
-        if (parts[1].equals("page")) {
-            return "";
-        }
+    private boolean isNotModified(ServletWebRequest webRequest, Optional<String> etag) {
+        // Representation depends on negotiated RDF format
+        ofNullable(webRequest.getResponse()).ifPresent(resp -> resp.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        return etag.map(webRequest::checkNotModified).orElse(false);
+    }
 
-        return parts[1];
+    private static String getVariant(ServletWebRequest webRequest) {
+        return ofNullable(webRequest.getHeader(HttpHeaders.ACCEPT)).orElse("");
     }
 
     private String createLinkHeader(String entityUrl, String childPrefix, int childrenCount, int page, int size) {
@@ -409,16 +399,6 @@ public class GenericController {
         return String.join(", ", links);
     }
 
-    private Optional<Model> retrieveChildModel(MetadataService childMetadataService, Value childUri) {
-        try {
-            final Model childModel = childMetadataService.retrieve(i(childUri.stringValue()));
-            return Optional.of(childModel);
-        }
-        catch (MetadataServiceException exception) {
-            return Optional.empty();
-        }
-    }
-
     private String createLink(String entityUrl, String childPrefix, int page, int size, String rel) {
         return format("<%s/page/%s?page=%d&size=%d>; rel=\"%s\"", entityUrl, childPrefix, page, size, rel);
     }
@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.api.controller.metadata;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.fairdatapoint.api.dto.metadata.MetaImportDTO;
+import org.fairdatapoint.entity.exception.ForbiddenException;
+import org.fairdatapoint.entity.user.UserAccount;
+import org.fairdatapoint.service.metadata.bulk.MetadataBulkImportService;
+import org.fairdatapoint.service.user.CurrentUserService;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@Tag(name = "Metadata")
+@RestController
+@RequiredArgsConstructor
+public class GenericImportController {
+
+    private final MetadataBulkImportService metadataBulkImportService;
+
+    private final CurrentUserService currentUserService;
+
+    @Operation(hidden = true)
+    @PostMapping(
+            path = "{urlPrefix:[^.]+}/import",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public MetaImportDTO importMetadata(
+            @PathVariable final String urlPrefix,
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        // 1. Check if user is authenticated
+        final Optional<UserAccount> oUser = currentUserService.getCurrentUser();
+        if (oUser.isEmpty()) {
+            throw new ForbiddenException("You have to be login at first");
+        }
+
+        // 2. Import records
+        final RDFFormat format = Optional.ofNullable(contentType)
+                .map(MediaType::parseMediaType)
+                .flatMap(type -> Rio.getParserFormatForMIMEType(type.getType() + "/" + type.getSubtype()))
+                .orElse(null);
+        return metadataBulkImportService.importMetadata(urlPrefix, request.getInputStream(), format);
+    }
+}
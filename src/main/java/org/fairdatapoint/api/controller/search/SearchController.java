@@ -55,6 +55,17 @@ public class SearchController {
         return ResponseEntity.ok(searchService.search(reqDto));
     }
 
+    @PostMapping(
+            path = "/facets",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<List<SearchFilterDTO>> searchFacets(
+            @RequestBody @Valid SearchQueryDTO reqDto
+    ) throws MetadataRepositoryException {
+        return ResponseEntity.ok(searchService.getSearchFacets(reqDto));
+    }
+
     @GetMapping(
             path = "/query",
             produces = MediaType.APPLICATION_JSON_VALUE
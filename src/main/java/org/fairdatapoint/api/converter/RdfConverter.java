@@ -27,10 +27,12 @@
  */
 package org.fairdatapoint.api.converter;
 
+import org.fairdatapoint.service.metadata.render.RenderedModel;
 import org.fairdatapoint.util.RdfIOUtil;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -39,6 +41,7 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 public class RdfConverter extends AbstractHttpMessageConverter<Model> {
@@ -64,8 +67,28 @@ public class RdfConverter extends AbstractHttpMessageConverter<Model> {
     @Override
     protected void writeInternal(Model model, HttpOutputMessage outputMessage)
             throws IOException, HttpMessageNotWritableException {
-        final String rdf = RdfIOUtil.write(model, format);
-        outputMessage.getBody().write(rdf.getBytes());
+        try {
+            if (model instanceof RenderedModel renderedModel) {
+                writeRendered(renderedModel, outputMessage);
+            }
+            else {
+                RdfIOUtil.write(model, format, outputMessage.getBody());
+            }
+        }
+        catch (RDFHandlerException exception) {
+            throw new HttpMessageNotWritableException(exception.getMessage(), exception);
+        }
+    }
+
+    private void writeRendered(RenderedModel model, HttpOutputMessage outputMessage) throws IOException {
+        byte[] rendering = model.getRendering(format);
+        if (rendering == null) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            RdfIOUtil.write(model, format, out);
+            rendering = out.toByteArray();
+            model.putRendering(format, rendering);
+        }
+        outputMessage.getBody().write(rendering);
     }
 
     private static MediaType[] getMediaTypes(RDFFormat format) {
@@ -69,4 +69,6 @@ public class IndexEntryDetailDTO {
     @NotNull
     private String lastRetrievalTime;
 
+    private IndexEntryHarvestDTO harvest;
+
 }
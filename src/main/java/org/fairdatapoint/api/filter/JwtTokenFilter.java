@@ -32,6 +32,7 @@ import org.fairdatapoint.api.dto.error.ErrorDTO;
 import org.fairdatapoint.entity.exception.UnauthorizedException;
 import org.fairdatapoint.service.apikey.ApiKeyService;
 import org.fairdatapoint.service.jwt.JwtService;
+import org.fairdatapoint.service.security.AuthenticationCache;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
@@ -40,6 +41,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import static org.fairdatapoint.util.HttpUtil.getToken;
 
@@ -51,6 +53,8 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final ApiKeyService apiKeyService;
 
+    private final AuthenticationCache authenticationCache;
+
     private final ObjectMapper objectMapper;
 
     @Override
@@ -60,7 +64,7 @@ public class JwtTokenFilter extends OncePerRequestFilter {
             final FilterChain fc
     ) throws IOException, ServletException {
         final String token = getToken(request);
-        if (tryWithUser(token) || tryWithApiKey(token)) {
+        if (tryWithCache(token) || tryWithUser(token) || tryWithApiKey(token)) {
             fc.doFilter(request, response);
         }
         else {
@@ -71,9 +75,18 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
     }
 
+    private boolean tryWithCache(String token) {
+        if (token == null) {
+            return false;
+        }
+        final Optional<Authentication> auth = authenticationCache.get(token);
+        auth.ifPresent(value -> SecurityContextHolder.getContext().setAuthentication(value));
+        return auth.isPresent();
+    }
+
     private boolean tryWithUser(String token) {
         try {
-            if (token != null && jwtService.validateToken(token)) {
+            if (token != null) {
                 final Authentication auth = jwtService.getAuthentication(token);
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -22,6 +22,8 @@
  */
 package org.fairdatapoint.config;
 
+import org.fairdatapoint.config.cache.BoundedCacheManager;
+import org.fairdatapoint.config.properties.CacheProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -37,11 +39,6 @@ public class CacheConfig {
 
     public static final String CATALOG_THEMES_CACHE = "CATALOG_THEMES_CACHE";
 
-    public static final String RESOURCE_DEFINITION_CACHE = "RESOURCE_DEFINITION_CACHE";
-
-    public static final String RESOURCE_DEFINITION_PARENT_CACHE =
-            "RESOURCE_DEFINITION_PARENT_CACHE";
-
     public static final String RESOURCE_DEFINITION_TARGET_CLASSES_CACHE =
             "RESOURCE_DEFINITION_TARGET_CLASSES_CACHE";
 
@@ -49,23 +46,21 @@ public class CacheConfig {
 
     public static final String SETTINGS_CACHE = "SETTINGS_CACHE";
 
-    public static final String SEARCH_FILTERS_CACHE = "SEARCH_FILTERS_CACHE";
-
     public static final String FORMS_AUTOCOMPLETE_CACHE = "FORMS_AUTOCOMPLETE_CACHE";
 
+    public static final String AUTHENTICATION_CACHE = "AUTHENTICATION_CACHE";
+
     @Bean
-    public ConcurrentMapCacheManager cacheManager() {
-        final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    public ConcurrentMapCacheManager cacheManager(CacheProperties cacheProperties) {
+        final ConcurrentMapCacheManager cacheManager = new BoundedCacheManager(cacheProperties);
         cacheManager.setCacheNames(List.of(
                 ACL_CACHE,
                 CATALOG_THEMES_CACHE,
-                RESOURCE_DEFINITION_CACHE,
-                RESOURCE_DEFINITION_PARENT_CACHE,
                 RESOURCE_DEFINITION_TARGET_CLASSES_CACHE,
                 SETTINGS_CACHE,
-                SEARCH_FILTERS_CACHE,
                 FORMS_AUTOCOMPLETE_CACHE,
-                LABEL_CACHE
+                LABEL_CACHE,
+                AUTHENTICATION_CACHE
         ));
         return cacheManager;
     }
@@ -0,0 +1,110 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.config;
+
+import org.fairdatapoint.config.properties.BulkImportProperties;
+import org.fairdatapoint.config.properties.HarvesterProperties;
+import org.fairdatapoint.config.properties.LabelProperties;
+import org.fairdatapoint.config.properties.RetrievalProperties;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    public static final String HARVESTER_EXECUTOR = "harvesterExecutor";
+
+    public static final String LABEL_EXECUTOR = "labelExecutor";
+
+    public static final String EVENT_QUEUE_EXECUTOR = "eventQueueExecutor";
+
+    public static final String BULK_IMPORT_EXECUTOR = "bulkImportExecutor";
+
+    // Declaring further executors disables the auto-configured one, so it is declared here as the default
+    @Primary
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // Bounded queue, once it is full the crawling thread fetches the node itself
+    @Bean(name = HARVESTER_EXECUTOR)
+    public ThreadPoolTaskExecutor harvesterExecutor(
+            ThreadPoolTaskExecutorBuilder builder, HarvesterProperties harvesterProperties
+    ) {
+        return builder
+                .corePoolSize(harvesterProperties.getConcurrency())
+                .maxPoolSize(harvesterProperties.getConcurrency())
+                .queueCapacity(harvesterProperties.getQueueCapacity())
+                .threadNamePrefix("fdp-harvester-")
+                .additionalCustomizers(executor ->
+                        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()))
+                .build();
+    }
+
+    // Bounded queue, labels that cannot be scheduled are resolved on a later request
+    @Bean(name = LABEL_EXECUTOR)
+    public ThreadPoolTaskExecutor labelExecutor(
+            ThreadPoolTaskExecutorBuilder builder, LabelProperties labelProperties
+    ) {
+        return builder
+                .corePoolSize(labelProperties.getConcurrency())
+                .maxPoolSize(labelProperties.getConcurrency())
+                .queueCapacity(labelProperties.getQueueCapacity())
+                .threadNamePrefix("fdp-label-")
+                .build();
+    }
+
+    // The queue only claims as many items as there are free workers, the queue capacity is a safety margin
+    @Bean(name = EVENT_QUEUE_EXECUTOR)
+    public ThreadPoolTaskExecutor eventQueueExecutor(
+            ThreadPoolTaskExecutorBuilder builder, RetrievalProperties retrievalProperties
+    ) {
+        return builder
+                .corePoolSize(retrievalProperties.getConcurrency())
+                .maxPoolSize(retrievalProperties.getConcurrency())
+                .queueCapacity(retrievalProperties.getConcurrency())
+                .threadNamePrefix("fdp-event-queue-")
+                .build();
+    }
+
+    // Imports validate one batch at a time, once the queue is full the importing request validates itself
+    @Bean(name = BULK_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor bulkImportExecutor(
+            ThreadPoolTaskExecutorBuilder builder, BulkImportProperties bulkImportProperties
+    ) {
+        return builder
+                .corePoolSize(bulkImportProperties.getConcurrency())
+                .maxPoolSize(bulkImportProperties.getConcurrency())
+                .queueCapacity(bulkImportProperties.getBatchSize())
+                .threadNamePrefix("fdp-bulk-import-")
+                .additionalCustomizers(executor ->
+                        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy()))
+                .build();
+    }
+}
@@ -60,6 +60,7 @@ public class SecurityConfig {
                                     .requestMatchers("/tokens").permitAll()
                                     .requestMatchers("/search**").permitAll()
                                     .requestMatchers("/index/admin**").authenticated()
+                                    .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                                     .requestMatchers("/index**").permitAll()
                                     .requestMatchers(HttpMethod.PUT).authenticated()
                                     .anyRequest().permitAll();
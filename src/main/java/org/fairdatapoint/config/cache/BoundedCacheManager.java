@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.fairdatapoint.config.properties.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drop-in replacement of {@link ConcurrentMapCacheManager} backed by Caffeine caches that are bounded
+ * according to {@code cache.*} properties (per cache name with fallback to {@code cache.defaults}).
+ */
+public class BoundedCacheManager extends ConcurrentMapCacheManager {
+
+    private final CacheProperties cacheProperties;
+
+    private final Map<String, CaffeineCache> caches = new ConcurrentHashMap<>();
+
+    public BoundedCacheManager(CacheProperties cacheProperties) {
+        this.cacheProperties = cacheProperties;
+    }
+
+    @Override
+    protected Cache createConcurrentMapCache(String name) {
+        // Keep native cache (and metrics bound to it) when cache is re-declared, just empty it
+        final CaffeineCache cache = caches.computeIfAbsent(name, this::buildCache);
+        cache.clear();
+        return cache;
+    }
+
+    private CaffeineCache buildCache(String name) {
+        final CacheProperties.CacheSpec spec = cacheProperties.getSpec(name);
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (spec.getRefreshAfterWrite() != null) {
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+            return RefreshingCaffeineCache.create(name, builder, isAllowNullValues());
+        }
+        return new CaffeineCache(name, builder.build(), isAllowNullValues());
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caffeine cache with refresh-after-write: value loaders of {@code @Cacheable(sync = true)} methods are
+ * remembered per key and used to reload stale entries in background (entries put directly are kept as is).
+ */
+final class RefreshingCaffeineCache extends CaffeineCache {
+
+    private final Map<Object, Callable<?>> valueLoaders;
+
+    private RefreshingCaffeineCache(
+            String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+            boolean allowNullValues, Map<Object, Callable<?>> valueLoaders
+    ) {
+        super(name, cache, allowNullValues);
+        this.valueLoaders = valueLoaders;
+    }
+
+    static RefreshingCaffeineCache create(String name, Caffeine<Object, Object> builder, boolean allowNullValues) {
+        final Map<Object, Callable<?>> valueLoaders = new ConcurrentHashMap<>();
+        final CacheLoader<Object, Object> loader = new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                return null;
+            }
+
+            @Override
+            public Object reload(Object key, Object oldValue) throws Exception {
+                final Callable<?> valueLoader = valueLoaders.get(key);
+                if (valueLoader == null) {
+                    return oldValue;
+                }
+                final Object value = valueLoader.call();
+                return value == null && allowNullValues ? NullValue.INSTANCE : value;
+            }
+        };
+        final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = builder
+                .removalListener((key, value, cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        valueLoaders.remove(key);
+                    }
+                })
+                .build(loader);
+        return new RefreshingCaffeineCache(name, cache, allowNullValues, valueLoaders);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        valueLoaders.put(key, valueLoader);
+        return super.get(key, valueLoader);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        valueLoaders.clear();
+    }
+}
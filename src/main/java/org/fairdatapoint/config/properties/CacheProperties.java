@@ -0,0 +1,83 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private CacheSpec defaults = new CacheSpec(DEFAULT_MAXIMUM_SIZE, null, null, null);
+
+    private Map<String, CacheSpec> specs = new HashMap<>();
+
+    private ResponseCacheProperties responses = new ResponseCacheProperties();
+
+    public CacheSpec getSpec(String cacheName) {
+        final CacheSpec spec = specs.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+        return new CacheSpec(
+                Optional.ofNullable(spec.getMaximumSize()).orElse(defaults.getMaximumSize()),
+                Optional.ofNullable(spec.getExpireAfterWrite()).orElse(defaults.getExpireAfterWrite()),
+                Optional.ofNullable(spec.getExpireAfterAccess()).orElse(defaults.getExpireAfterAccess()),
+                Optional.ofNullable(spec.getRefreshAfterWrite()).orElse(defaults.getRefreshAfterWrite())
+        );
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        private Long maximumSize;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private Duration refreshAfterWrite;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class ResponseCacheProperties {
+        private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+        private long maxBytes = DEFAULT_MAX_BYTES;
+    }
+}
@@ -38,4 +38,6 @@ public class RepositoryProperties {
     private RepositoryConnectionProperties main;
 
     private RepositoryConnectionProperties drafts;
+
+    private String searchIndexDir = "";
 }
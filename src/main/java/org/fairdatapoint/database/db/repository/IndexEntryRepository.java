@@ -28,6 +28,7 @@ import org.fairdatapoint.entity.index.entry.IndexEntryPermit;
 import org.fairdatapoint.entity.index.entry.IndexEntryState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -51,17 +52,26 @@ public interface IndexEntryRepository extends BaseRepository<IndexEntry> {
     Page<IndexEntry> findAllByStateEqualsAndPermitIn(
             Pageable pageable, IndexEntryState indexEntryState, List<IndexEntryPermit> permit);
 
-    Long countAllByPermitIn(List<IndexEntryPermit> permit);
+    @Query("""
+        SELECT e.state AS state,
+               count(e) AS total,
+               sum(CASE WHEN e.lastRetrievalAt > :validThreshold THEN 1 ELSE 0 END) AS recent,
+               sum(CASE WHEN e.lastRetrievalAt < :validThreshold THEN 1 ELSE 0 END) AS stale
+        FROM IndexEntry e
+        WHERE e.permit IN :permit
+        GROUP BY e.state
+        """)
+    List<StateCounts> countByStateAndPermitIn(Instant validThreshold, List<IndexEntryPermit> permit);
 
-    Long countAllByStateEqualsAndPermitIn(
-            IndexEntryState indexEntryState, List<IndexEntryPermit> permit);
+    Optional<IndexEntry> findByClientUrl(String clientUrl);
 
-    Long countAllByStateEqualsAndLastRetrievalAtAfterAndPermitIn(
-            IndexEntryState indexEntryState, Instant validThreshold, List<IndexEntryPermit> permit);
+    interface StateCounts {
+        IndexEntryState getState();
 
-    Long countAllByStateEqualsAndLastRetrievalAtBeforeAndPermitIn(
-            IndexEntryState indexEntryState, Instant validThreshold, List<IndexEntryPermit> permit);
+        long getTotal();
 
-    Optional<IndexEntry> findByClientUrl(String clientUrl);
+        long getRecent();
 
+        long getStale();
+    }
 }
@@ -0,0 +1,89 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.db.repository;
+
+import org.fairdatapoint.database.db.repository.base.BaseRepository;
+import org.fairdatapoint.entity.index.event.IndexEventQueueItem;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface IndexEventQueueRepository extends BaseRepository<IndexEventQueueItem> {
+
+    List<IndexEventQueueItem> findAllByLockedBy(String lockedBy);
+
+    long countByDeadAtIsNotNull();
+
+    @Transactional
+    @Modifying
+    @Query(
+        nativeQuery = true,
+        value = """
+        UPDATE index_event_queue
+        SET locked_by = :lockedBy, locked_until = :lockedUntil, attempts = attempts + 1, updated_at = now()
+        WHERE uuid IN (
+            SELECT uuid FROM index_event_queue
+            WHERE dead_at IS NULL AND available_at <= now() AND (locked_until IS NULL OR locked_until < now())
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        """
+    )
+    int claim(String lockedBy, int limit, Instant lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query(
+        nativeQuery = true,
+        value = """
+        INSERT INTO index_event_queue (uuid, event_uuid, attempts, available_at, created_at, updated_at)
+        SELECT gen_random_uuid(), e.uuid, 0, now(), now(), now()
+        FROM index_event e
+        WHERE e.finished_at IS NULL AND e.created_at < :createdBefore
+            AND e.type IN ('METADATA_RETRIEVAL', 'WEBHOOK_TRIGGER')
+        ON CONFLICT (event_uuid) DO NOTHING
+        """
+    )
+    int enqueueUnfinished(Instant createdBefore);
+
+    @Transactional
+    @Modifying
+    @Query(
+        nativeQuery = true,
+        value = """
+        INSERT INTO index_event_queue (uuid, event_uuid, attempts, available_at, created_at, updated_at)
+        SELECT gen_random_uuid(), e.uuid, 0, now(), now(), now()
+        FROM index_event e
+        WHERE e.triggered_by = :triggerUuid AND e.finished_at IS NULL AND e.type = 'METADATA_RETRIEVAL'
+        ON CONFLICT (event_uuid) DO NOTHING
+        """
+    )
+    int enqueueTriggeredBy(UUID triggerUuid);
+}
@@ -27,18 +27,57 @@ import org.fairdatapoint.entity.index.entry.IndexEntry;
 import org.fairdatapoint.entity.index.event.IndexEvent;
 import org.fairdatapoint.entity.index.event.IndexEventType;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface IndexEventRepository extends BaseRepository<IndexEvent> {
     Iterable<IndexEvent> getAllByRelatedTo(IndexEntry indexEntry, PageRequest pageRequest);
 
-    List<IndexEvent> findAllByRemoteAddrAndCreatedAtAfter(String remoteAddr, Instant rateLimitSince);
-
     List<IndexEvent> getAllByFinishedAtIsNull();
 
     List<IndexEvent> getAllByType(IndexEventType indexEventType);
+
+    @Query(
+        nativeQuery = true,
+        value = """
+        SELECT count(*) AS total,
+               count(e.finished_at) AS processed,
+               count(*) FILTER (
+                   WHERE e.finished_at IS NOT NULL
+                       AND (e.payload -> 'metadataRetrieval' ->> 'error' IS NOT NULL
+                           OR i.state IN ('INVALID', 'UNREACHABLE'))
+               ) AS failed
+        FROM index_event e
+        LEFT JOIN index_entry i ON i.uuid = e.related_to
+        WHERE e.triggered_by = :triggerUuid AND e.type = 'METADATA_RETRIEVAL'
+        """
+    )
+    RetrievalCounts countRetrievalsTriggeredBy(UUID triggerUuid);
+
+    @Transactional
+    @Modifying
+    @Query(
+        nativeQuery = true,
+        value = """
+        UPDATE index_event
+        SET payload = jsonb_set(payload, '{adminTrigger,progress}', CAST(:progress AS jsonb)), updated_at = now()
+        WHERE uuid = :triggerUuid
+            AND COALESCE(CAST(payload #>> '{adminTrigger,progress,processed}' AS bigint), -1) <= :processed
+        """
+    )
+    int updateRetrievalProgress(UUID triggerUuid, String progress, long processed);
+
+    interface RetrievalCounts {
+        long getTotal();
+
+        long getProcessed();
+
+        long getFailed();
+    }
 }
@@ -0,0 +1,68 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.db.repository;
+
+import org.fairdatapoint.database.db.repository.base.BaseRepository;
+import org.fairdatapoint.entity.index.ping.PingRateLimit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface PingRateLimitRepository extends BaseRepository<PingRateLimit> {
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(
+        nativeQuery = true,
+        value = """
+        WITH hit AS (
+            INSERT INTO ping_rate_limit (uuid, remote_addr, window_start, hits, created_at, updated_at)
+            VALUES (gen_random_uuid(), :remoteAddr, :windowStart, 1, now(), now())
+            ON CONFLICT (remote_addr, window_start) DO UPDATE
+            SET hits = ping_rate_limit.hits + 1, updated_at = now()
+            RETURNING hits
+        )
+        SELECT (SELECT hits FROM hit) AS current,
+               coalesce((
+                   SELECT hits FROM ping_rate_limit
+                   WHERE remote_addr = :remoteAddr AND window_start = :previousWindowStart
+               ), 0) AS previous
+        """
+    )
+    Hits hit(String remoteAddr, Instant windowStart, Instant previousWindowStart);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM ping_rate_limit WHERE window_start < :before")
+    int deleteExpired(Instant before);
+
+    interface Hits {
+        int getCurrent();
+
+        int getPrevious();
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.db.repository;
+
+import org.fairdatapoint.database.db.repository.base.BaseRepository;
+import org.fairdatapoint.entity.label.ResourceLabel;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResourceLabelRepository extends BaseRepository<ResourceLabel> {
+
+    List<ResourceLabel> findAllByLangAndIriIn(String lang, Collection<String> iris);
+
+    @Transactional
+    @Modifying
+    @Query(
+        nativeQuery = true,
+        value = """
+        INSERT INTO resource_label (uuid, iri, lang, label, label_lang, resolved_at, created_at, updated_at)
+        VALUES (gen_random_uuid(), :iri, :lang, :label, :labelLang, :resolvedAt, now(), now())
+        ON CONFLICT (iri, lang) DO UPDATE
+        SET label = EXCLUDED.label, label_lang = EXCLUDED.label_lang, resolved_at = EXCLUDED.resolved_at,
+            updated_at = now()
+        """
+    )
+    void store(String iri, String lang, String label, String labelLang, Instant resolvedAt);
+
+}
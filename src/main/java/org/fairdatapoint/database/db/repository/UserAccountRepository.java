@@ -24,11 +24,16 @@ package org.fairdatapoint.database.db.repository;
 
 import org.fairdatapoint.database.db.repository.base.BaseRepository;
 import org.fairdatapoint.entity.user.UserAccount;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface UserAccountRepository extends BaseRepository<UserAccount> {
     Optional<UserAccount> findByEmail(String email);
+
+    @EntityGraph(attributePaths = {"apiKeys"})
+    Optional<UserAccount> findWithApiKeysByUuid(UUID uuid);
 }
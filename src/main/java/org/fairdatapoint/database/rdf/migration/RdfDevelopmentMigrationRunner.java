@@ -29,6 +29,9 @@ import org.fairdatapoint.database.rdf.migration.development.metadata.RdfMetadata
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
 import org.fairdatapoint.database.rdf.repository.generic.GenericMetadataRepository;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -52,6 +55,15 @@ public class RdfDevelopmentMigrationRunner {
     @Qualifier("genericMetadataRepository")
     private GenericMetadataRepository metadataRepository;
 
+    @Autowired
+    private MetadataStateIndex metadataStateIndex;
+
+    @Autowired
+    private MetadataResponseCache metadataResponseCache;
+
+    @Autowired
+    private MetadataTouchService metadataTouchService;
+
     @PostConstruct
     public void run() {
         rdfMetadataMigration.runMigration();
@@ -64,6 +76,9 @@ public class RdfDevelopmentMigrationRunner {
         try {
             metadataRepository.removeAll(RepositoryMode.MAIN);
             metadataRepository.removeAll(RepositoryMode.DRAFTS);
+            metadataStateIndex.rebuild();
+            metadataResponseCache.clear();
+            metadataTouchService.clear();
         }
         catch (MetadataRepositoryException exc) {
             throw new RuntimeException(exc);
@@ -35,7 +35,10 @@ import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.entity.user.UserAccount;
 import org.fairdatapoint.service.metadata.common.MetadataService;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
 import org.fairdatapoint.service.metadata.state.MetadataStateService;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
 import org.fairdatapoint.service.security.AuthenticationService;
 import org.fairdatapoint.util.KnownUUIDs;
 import org.eclipse.rdf4j.model.IRI;
@@ -83,10 +86,22 @@ public class RdfMetadataMigration implements Migration {
     @Qualifier("genericMetadataRepository")
     private GenericMetadataRepository metadataRepository;
 
+    @Autowired
+    private MetadataStateIndex metadataStateIndex;
+
+    @Autowired
+    private MetadataResponseCache metadataResponseCache;
+
+    @Autowired
+    private MetadataTouchService metadataTouchService;
+
     public void clean() {
         try {
             metadataRepository.removeAll(RepositoryMode.MAIN);
             metadataRepository.removeAll(RepositoryMode.DRAFTS);
+            metadataStateIndex.rebuild();
+            metadataResponseCache.clear();
+            metadataTouchService.clear();
             // TODO: delete acl?
         }
         catch (MetadataRepositoryException exc) {
@@ -28,9 +28,13 @@ import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryExc
 import org.eclipse.rdf4j.model.IRI;
 
 import java.util.List;
+import java.util.Map;
 
 public interface CatalogMetadataRepository extends MetadataRepository {
 
     List<IRI> getDatasetThemesForCatalog(IRI uri, RepositoryMode mode) throws MetadataRepositoryException;
 
+    Map<IRI, List<IRI>> getDatasetThemesForCatalogs(List<IRI> uris, RepositoryMode mode)
+            throws MetadataRepositoryException;
+
 }
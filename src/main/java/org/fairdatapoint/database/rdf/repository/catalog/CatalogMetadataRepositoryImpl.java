@@ -25,13 +25,21 @@ package org.fairdatapoint.database.rdf.repository.catalog;
 import jakarta.annotation.PostConstruct;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.common.AbstractMetadataRepository;
+import org.fairdatapoint.database.rdf.repository.common.SparqlQuery;
+import org.fairdatapoint.database.rdf.repository.common.SparqlQueryRegistry;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
+import org.fairdatapoint.database.rdf.repository.search.MetadataSearchIndex;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.repository.Repository;
 import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,13 +49,19 @@ import static org.fairdatapoint.util.ValueFactoryHelper.i;
 @Service("catalogMetadataRepository")
 public class CatalogMetadataRepositoryImpl extends AbstractMetadataRepository implements CatalogMetadataRepository {
 
-    private static final String GET_DATASET_THEMES_FOR_CATALOG = "getDatasetThemesForCatalog.sparql";
+    private static final String GET_DATASET_THEMES_FOR_CATALOGS = "getDatasetThemesForCatalogs.sparql";
+
+    private static final String FIELD_CATALOG = "catalog";
+
+    private static final String FIELD_THEME = "theme";
 
     private final ConcurrentMapCacheManager cacheManager;
 
     public CatalogMetadataRepositoryImpl(ConcurrentMapCacheManager cacheManager,
-                                         Repository mainRepository, Repository draftsRepository) {
-        super(mainRepository, draftsRepository);
+                                         Repository mainRepository, Repository draftsRepository,
+                                         SparqlQueryRegistry queryRegistry, MetadataSearchIndex searchIndex,
+                                         MetadataFacetIndex facetIndex) {
+        super(mainRepository, draftsRepository, queryRegistry, searchIndex, facetIndex);
         this.cacheManager = cacheManager;
     }
 
@@ -57,20 +71,40 @@ public class CatalogMetadataRepositoryImpl extends AbstractMetadataRepository im
     }
 
     public List<IRI> getDatasetThemesForCatalog(IRI uri, RepositoryMode mode) throws MetadataRepositoryException {
-        List<IRI> result = cache().get(uri.toString(), List.class);
-        if (result != null) {
+        return getDatasetThemesForCatalogs(List.of(uri), mode).get(uri);
+    }
+
+    public Map<IRI, List<IRI>> getDatasetThemesForCatalogs(List<IRI> uris, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        // 1. Take cached catalogs
+        final Map<IRI, List<IRI>> result = new LinkedHashMap<>();
+        final Map<IRI, List<IRI>> missing = new LinkedHashMap<>();
+        for (IRI uri : uris) {
+            final List<IRI> themes = cache().get(uri.toString(), List.class);
+            if (themes != null) {
+                result.put(uri, themes);
+            }
+            else {
+                missing.put(uri, new ArrayList<>());
+            }
+        }
+        if (missing.isEmpty()) {
             return result;
         }
-        result = runSparqlQuery(
-                GET_DATASET_THEMES_FOR_CATALOG,
-                CatalogMetadataRepository.class,
-                Map.of("catalog", uri),
-                mode
-        )
-                .stream()
-                .map(item -> i(item.getValue("theme").stringValue()))
-                .toList();
-        cache().put(uri.toString(), result);
+
+        // 2. Load the remaining ones with a single query
+        final SparqlQuery query = getQuery(GET_DATASET_THEMES_FOR_CATALOGS, CatalogMetadataRepository.class)
+                .substitute(VALUES_PLACEHOLDER, toValuesClause(FIELD_CATALOG, missing.keySet()));
+        for (BindingSet item : runSparqlQuery(query, Collections.emptyMap(), mode)) {
+            missing
+                    .get(i(item.getValue(FIELD_CATALOG).stringValue()))
+                    .add(i(item.getValue(FIELD_THEME).stringValue()));
+        }
+        for (Map.Entry<IRI, List<IRI>> entry : missing.entrySet()) {
+            final List<IRI> themes = List.copyOf(entry.getValue());
+            cache().put(entry.getKey().toString(), themes);
+            result.put(entry.getKey(), themes);
+        }
         return result;
     }
 
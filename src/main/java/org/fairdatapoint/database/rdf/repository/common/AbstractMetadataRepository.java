@@ -22,11 +22,12 @@
  */
 package org.fairdatapoint.database.rdf.repository.common;
 
-import com.google.common.io.Resources;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
-import org.fairdatapoint.entity.search.SearchFilterValue;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
+import org.fairdatapoint.database.rdf.repository.search.MetadataSearchIndex;
 import org.fairdatapoint.entity.search.SearchResult;
 import org.fairdatapoint.entity.search.SearchResultRelation;
 import org.eclipse.rdf4j.model.*;
@@ -36,21 +37,32 @@ import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
+import org.fairdatapoint.entity.metadata.MetadataChildrenPage;
 
-import java.io.IOException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
+import static org.fairdatapoint.util.ValueFactoryHelper.*;
 
 @Slf4j
 public abstract class AbstractMetadataRepository {
 
     private static final String FIND_ENTITY_BY_LITERAL = "findEntityByLiteral.sparql";
     private static final String FIND_CHILD_TITLES = "findChildTitles.sparql";
-    private static final String FIND_OBJECT_FOR_PREDICATE = "findObjectsForPredicate.sparql";
+    private static final String FIND_CHILDREN_PAGE = "findChildrenPage.sparql";
+    private static final String COUNT_CHILDREN = "countChildren.sparql";
+    private static final String FIND_CHILD_GRAPHS_PAGE = "findChildGraphsPage.sparql";
+    private static final String COUNT_CHILD_GRAPHS = "countChildGraphs.sparql";
+    private static final String FIND_GRAPHS = "findGraphs.sparql";
+
+    protected static final String VALUES_PLACEHOLDER = "{{values}}";
 
     private static final String MSG_ERROR_RESOURCE = "Error retrieving resource: ";
     private static final String MSG_ERROR_URI = "Error retrieving repository URI: ";
@@ -58,10 +70,8 @@ public abstract class AbstractMetadataRepository {
     private static final String MSG_ERROR_REMOVE_ALL = "Error remove all: ";
     private static final String MSG_ERROR_EXISTS = "Error check statement existence: ";
     private static final String MSG_ERROR_SAVE = "Error storing statements: ";
-    private static final String MSG_ERROR_SPARQL_LOAD = "Error reading %s.sparql file (error: %s)";
+    private static final String MSG_ERROR_TRANSACTION = "Error in repository transaction: ";
 
-    private static final String FIELD_VALUE = "value";
-    private static final String FIELD_LABEL = "label";
     private static final String FIELD_CHILD = "child";
     private static final String FIELD_TITLE = "title";
     private static final String FIELD_ENTITY = "entity";
@@ -69,14 +79,37 @@ public abstract class AbstractMetadataRepository {
     private static final String FIELD_DESCRIPTION = "description";
     private static final String FIELD_REL_PRED = "relationPredicate";
     private static final String FIELD_REL_OBJ = "relationObject";
+    private static final String FIELD_COUNT = "count";
+    private static final String FIELD_GRAPH = "graph";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_PREDICATE = "predicate";
+    private static final String FIELD_OBJECT = "object";
+
+    private static final ThreadLocal<Map<Repository, RepositoryConnection>> TRANSACTION_CONNECTIONS =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private static final ThreadLocal<List<Runnable>> AFTER_COMMIT_ACTIONS = ThreadLocal.withInitial(ArrayList::new);
+
+    private static final ThreadLocal<Set<IRI>> SEARCH_INDEX_PENDING = ThreadLocal.withInitial(LinkedHashSet::new);
 
     private final Repository mainRepository;
 
     private final Repository draftsRepository;
 
-    public AbstractMetadataRepository(Repository mainRepository, Repository draftsRepository) {
+    private final SparqlQueryRegistry queryRegistry;
+
+    private final MetadataSearchIndex searchIndex;
+
+    private final MetadataFacetIndex facetIndex;
+
+    public AbstractMetadataRepository(Repository mainRepository, Repository draftsRepository,
+                                      SparqlQueryRegistry queryRegistry, MetadataSearchIndex searchIndex,
+                                      MetadataFacetIndex facetIndex) {
         this.mainRepository = mainRepository;
         this.draftsRepository = draftsRepository;
+        this.queryRegistry = queryRegistry;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
     }
 
     protected Repository getMainRepository() {
@@ -97,10 +130,87 @@ public abstract class AbstractMetadataRepository {
         return List.of(getMainRepository(), getDraftsRepository());
     }
 
+    protected RepositoryConnection getConnection(Repository repository) {
+        final RepositoryConnection conn = TRANSACTION_CONNECTIONS.get().get(repository);
+        if (conn == null) {
+            return repository.getConnection();
+        }
+        // Connection is shared within the transaction and closed when it ends
+        return new RepositoryConnectionWrapper(repository, conn) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    public <T, E extends Exception> T inTransaction(RepositoryMode mode, MetadataTransactionCallback<T, E> callback)
+            throws MetadataRepositoryException, E {
+        final Map<Repository, RepositoryConnection> connections = TRANSACTION_CONNECTIONS.get();
+        final boolean outermost = connections.isEmpty();
+        final List<Repository> started = new ArrayList<>();
+        final T result;
+        List<Runnable> actions = List.of();
+        try {
+            // 1. Begin (nested calls join the already running transaction)
+            for (final Repository repo : getRepositories(mode)) {
+                if (!connections.containsKey(repo)) {
+                    final RepositoryConnection conn = repo.getConnection();
+                    connections.put(repo, conn);
+                    started.add(repo);
+                    conn.begin();
+                }
+            }
+
+            // 2. Execute and commit
+            result = callback.execute();
+            for (final Repository repo : started) {
+                connections.get(repo).commit();
+            }
+            if (outermost) {
+                actions = List.copyOf(AFTER_COMMIT_ACTIONS.get());
+            }
+        }
+        catch (RepositoryException exception) {
+            throw new MetadataRepositoryException(MSG_ERROR_TRANSACTION + exception.getMessage());
+        }
+        finally {
+            // 3. Rollback whatever was not committed and release connections
+            for (final Repository repo : started) {
+                try (RepositoryConnection conn = connections.remove(repo)) {
+                    if (conn.isActive()) {
+                        conn.rollback();
+                    }
+                }
+                catch (RepositoryException exception) {
+                    log.warn("Failed to release repository connection: {}", exception.getMessage());
+                }
+            }
+            if (outermost) {
+                TRANSACTION_CONNECTIONS.remove();
+                AFTER_COMMIT_ACTIONS.remove();
+                SEARCH_INDEX_PENDING.remove();
+            }
+        }
+
+        // 4. Run after-commit actions outside the finished transaction (reads use fresh connections
+        //    and actions registered by an action run immediately)
+        actions.forEach(Runnable::run);
+        return result;
+    }
+
+    public void afterCommit(Runnable action) {
+        if (TRANSACTION_CONNECTIONS.get().isEmpty()) {
+            action.run();
+        }
+        else {
+            AFTER_COMMIT_ACTIONS.get().add(action);
+        }
+    }
+
     public List<Resource> findResources(RepositoryMode mode) throws MetadataRepositoryException {
         final List<Resource> result = new ArrayList<>();
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
+            try (RepositoryConnection conn = getConnection(repo)) {
                 result.addAll(conn.getContextIDs().stream().toList());
             }
             catch (RepositoryException exception) {
@@ -111,35 +221,79 @@ public abstract class AbstractMetadataRepository {
     }
 
     public List<Statement> find(IRI context, RepositoryMode mode) throws MetadataRepositoryException {
-        final List<Statement> result = new ArrayList<>();
+        try (Stream<Statement> statements = findStream(context, mode)) {
+            return statements.toList();
+        }
+        catch (RepositoryException exception) {
+            throw new MetadataRepositoryException(MSG_ERROR_RESOURCE + exception.getMessage());
+        }
+    }
+
+    public Stream<Statement> findStream(IRI context, RepositoryMode mode) throws MetadataRepositoryException {
+        return openStream(mode, conn -> conn.getStatements(null, null, null, context).stream(), MSG_ERROR_RESOURCE);
+    }
+
+    public boolean exists(IRI context, RepositoryMode mode) throws MetadataRepositoryException {
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
-                result.addAll(conn.getStatements(null, null, null, context).stream().toList());
+            try (RepositoryConnection conn = getConnection(repo)) {
+                if (conn.hasStatement(null, null, null, false, context)) {
+                    return true;
+                }
             }
             catch (RepositoryException exception) {
-                throw new MetadataRepositoryException(MSG_ERROR_RESOURCE + exception.getMessage());
+                throw new MetadataRepositoryException(MSG_ERROR_EXISTS + exception.getMessage());
             }
         }
-        return result;
+        return false;
+    }
+
+    public List<Statement> findAll(List<IRI> contexts, RepositoryMode mode) throws MetadataRepositoryException {
+        if (contexts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final SparqlQuery query = getQuery(FIND_GRAPHS)
+                .substitute(VALUES_PLACEHOLDER, toValuesClause(FIELD_GRAPH, contexts));
+        return runSparqlQuery(query, Collections.emptyMap(), mode)
+                .stream()
+                .map(item -> s(
+                        (Resource) item.getValue(FIELD_SUBJECT),
+                        (IRI) item.getValue(FIELD_PREDICATE),
+                        item.getValue(FIELD_OBJECT),
+                        (Resource) item.getValue(FIELD_GRAPH)
+                ))
+                .toList();
     }
 
     public List<SearchResult> findByLiteral(Literal query, RepositoryMode mode) throws MetadataRepositoryException {
-        return runSparqlQuery(
+        // Only published metadata is indexed, the full scan remains for other modes
+        if (mode == RepositoryMode.MAIN && searchIndex.isAvailable()) {
+            return searchIndex.search(query.stringValue());
+        }
+        try (Stream<BindingSet> results = runSparqlQueryStream(
                 FIND_ENTITY_BY_LITERAL,
                 AbstractMetadataRepository.class,
                 Map.of("query", query),
                 mode
-        )
-                .stream()
-                .map(item -> toSearchResult(item, true))
-                .toList();
+        )) {
+            return results
+                    .map(item -> toSearchResult(item, true))
+                    .toList();
+        }
+        catch (RepositoryException exception) {
+            throw new MetadataRepositoryException(MSG_ERROR_URI + exception.getMessage());
+        }
     }
 
     public List<SearchResult> findBySparqlQuery(String query, RepositoryMode mode) throws MetadataRepositoryException {
-        return runSparqlQuery(query, mode)
-                .stream()
-                .map(item -> toSearchResult(item, false))
-                .toList();
+        try (Stream<BindingSet> results =
+                     runSparqlQueryStream(queryRegistry.adhoc(query), Collections.emptyMap(), mode)) {
+            return results
+                    .map(item -> toSearchResult(item, false))
+                    .toList();
+        }
+        catch (RepositoryException exception) {
+            throw new MetadataRepositoryException(MSG_ERROR_URI + exception.getMessage());
+        }
     }
 
     private SearchResult toSearchResult(BindingSet item, boolean withRelation) {
@@ -159,29 +313,6 @@ public abstract class AbstractMetadataRepository {
         );
     }
 
-    public List<SearchFilterValue> findByFilterPredicate(IRI predicateUri, RepositoryMode mode)
-            throws MetadataRepositoryException {
-        final Map<String, String> values = new HashMap<>();
-        runSparqlQuery(
-                FIND_OBJECT_FOR_PREDICATE,
-                AbstractMetadataRepository.class,
-                Map.of("predicate", predicateUri),
-                mode
-        ).forEach(entry -> {
-            values.put(
-                    entry.getValue(FIELD_VALUE).stringValue(),
-                    Optional.ofNullable(entry.getValue(FIELD_LABEL))
-                            .map(Value::stringValue)
-                            .orElse(null)
-            );
-        });
-        return values
-                .entrySet()
-                .stream()
-                .map(entry -> new SearchFilterValue(entry.getKey(), entry.getValue()))
-                .toList();
-    }
-
     public Map<String, String> findChildTitles(IRI parent, IRI relation, RepositoryMode mode)
             throws MetadataRepositoryException {
         final Map<String, String> titles = new HashMap<>();
@@ -207,10 +338,73 @@ public abstract class AbstractMetadataRepository {
         return titles;
     }
 
+    public MetadataChildrenPage findChildrenPage(IRI parent, IRI relation, String childIriPrefix,
+                                                 RepositoryMode mode, int page, int size)
+            throws MetadataRepositoryException {
+        final Map<String, Value> bindings = Map.of(
+                "parent", parent,
+                "relation", relation,
+                "childPrefix", l(childIriPrefix)
+        );
+        final long offset = (long) Math.max(page, 0) * Math.max(size, 0);
+
+        // Single repository: filtering, sorting and paging are evaluated by the store
+        if (!mode.equals(RepositoryMode.COMBINED)) {
+            final List<BindingSet> children = findChildrenPage(FIND_CHILDREN_PAGE, bindings, mode, offset, size);
+            return new MetadataChildrenPage(
+                    children.stream().map(item -> i(item.getValue(FIELD_CHILD).stringValue())).toList(),
+                    countChildren(COUNT_CHILDREN, bindings, mode)
+            );
+        }
+
+        // Combined: the parent link and the child can be in different repositories, but every child graph
+        // names its parent, so each repository sorts and cuts its own children and only the heads are merged
+        final List<BindingSet> heads = new ArrayList<>();
+        long totalCount = 0;
+        for (RepositoryMode repositoryMode : List.of(RepositoryMode.MAIN, RepositoryMode.DRAFTS)) {
+            heads.addAll(findChildrenPage(FIND_CHILD_GRAPHS_PAGE, bindings, repositoryMode, 0, offset + size));
+            totalCount += countChildren(COUNT_CHILD_GRAPHS, bindings, repositoryMode);
+        }
+        final List<IRI> pageChildren = heads
+                .stream()
+                .sorted(Comparator
+                        .<BindingSet, String>comparing(
+                                item -> ofNullable(item.getValue(FIELD_TITLE)).map(Value::stringValue).orElse(null),
+                                Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                        .thenComparing(item -> item.getValue(FIELD_CHILD).stringValue()))
+                .skip(offset)
+                .limit(Math.max(size, 0))
+                .map(item -> i(item.getValue(FIELD_CHILD).stringValue()))
+                .toList();
+        return new MetadataChildrenPage(pageChildren, totalCount);
+    }
+
+    private List<BindingSet> findChildrenPage(String queryName, Map<String, Value> bindings, RepositoryMode mode,
+                                              long offset, long limit)
+            throws MetadataRepositoryException {
+        final SparqlQuery query = getQuery(queryName);
+        try (Stream<BindingSet> results =
+                     streamQuery(query, conn -> query.prepare(conn, offset, Math.max(limit, 0)), bindings, mode)) {
+            return results.toList();
+        }
+        catch (RepositoryException exception) {
+            throw new MetadataRepositoryException(MSG_ERROR_URI + exception.getMessage());
+        }
+    }
+
+    private long countChildren(String queryName, Map<String, Value> bindings, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        return runSparqlQuery(queryName, AbstractMetadataRepository.class, bindings, mode)
+                .stream()
+                .findFirst()
+                .map(item -> ((Literal) item.getValue(FIELD_COUNT)).longValue())
+                .orElse(0L);
+    }
+
     public boolean checkExistence(Resource subject, IRI predicate, Value object, RepositoryMode mode)
             throws MetadataRepositoryException {
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
+            try (RepositoryConnection conn = getConnection(repo)) {
                 if (conn.hasStatement(subject, predicate, object, false)) {
                     return true;
                 }
@@ -222,101 +416,205 @@ public abstract class AbstractMetadataRepository {
         return false;
     }
 
+    public Optional<Value> findObject(Resource subject, IRI predicate, IRI context, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        for (final Repository repo : getRepositories(mode)) {
+            try (RepositoryConnection conn = getConnection(repo);
+                 RepositoryResult<Statement> statements = conn.getStatements(subject, predicate, null, context)) {
+                if (statements.hasNext()) {
+                    return Optional.of(statements.next().getObject());
+                }
+            }
+            catch (RepositoryException exception) {
+                throw new MetadataRepositoryException(MSG_ERROR_RESOURCE + exception.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
     public void save(List<Statement> statements, IRI context, RepositoryMode mode) throws MetadataRepositoryException {
         if (mode.equals(RepositoryMode.COMBINED)) {
             throw new MetadataRepositoryException("Save called on COMBINED repository");
         }
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
+            try (RepositoryConnection conn = getConnection(repo)) {
                 conn.add(statements, context);
             }
             catch (RepositoryException exception) {
                 throw new MetadataRepositoryException(MSG_ERROR_SAVE + exception.getMessage());
             }
         }
+        reindexAfterCommit(context, mode);
     }
 
     public void removeAll(RepositoryMode mode) throws MetadataRepositoryException {
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
+            try (RepositoryConnection conn = getConnection(repo)) {
                 conn.clear();
             }
             catch (RepositoryException exception) {
                 throw new MetadataRepositoryException(MSG_ERROR_REMOVE_ALL + exception.getMessage());
             }
         }
+        reindexAfterCommit(null, mode);
     }
 
     public void remove(IRI uri, RepositoryMode mode) throws MetadataRepositoryException {
         removeStatement(null, null, null, uri, mode);
     }
 
-    public void removeStatement(Resource subject, IRI predicate, Value object, IRI context, RepositoryMode mode)
+    public void remove(List<Statement> statements, IRI context, RepositoryMode mode)
             throws MetadataRepositoryException {
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
-                conn.remove(subject, predicate, object, context);
+            try (RepositoryConnection conn = getConnection(repo)) {
+                conn.remove(statements, context);
             }
             catch (RepositoryException exception) {
                 throw new MetadataRepositoryException(MSG_ERROR_REMOVE);
             }
         }
+        reindexAfterCommit(context, mode);
     }
 
-    public List<BindingSet> runSparqlQuery(String queryName, Class repositoryType,
-                                           Map<String, Value> bindings, RepositoryMode mode)
+    public void removeStatement(Resource subject, IRI predicate, Value object, IRI context, RepositoryMode mode)
             throws MetadataRepositoryException {
-        final List<BindingSet> result = new ArrayList<>();
         for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
-                final String queryString = loadSparqlQuery(queryName, repositoryType);
-                final TupleQuery query = conn.prepareTupleQuery(queryString);
-                bindings.forEach(query::setBinding);
-                try (TupleQueryResult repoResult = query.evaluate()) {
-                    result.addAll(repoResult.stream().toList());
-                }
+            try (RepositoryConnection conn = getConnection(repo)) {
+                conn.remove(subject, predicate, object, context);
             }
             catch (RepositoryException exception) {
-                throw new MetadataRepositoryException(MSG_ERROR_URI + exception.getMessage());
-            }
-            catch (IOException exception) {
-                throw new MetadataRepositoryException(format(MSG_ERROR_SPARQL_LOAD, queryName,
-                        exception.getMessage()));
+                throw new MetadataRepositoryException(MSG_ERROR_REMOVE);
             }
         }
-        return result;
+        reindexAfterCommit(context, mode);
+    }
+
+    private void reindexAfterCommit(IRI context, RepositoryMode mode) {
+        if (mode == RepositoryMode.DRAFTS) {
+            return;
+        }
+        if (context == null) {
+            // Unknown set of graphs affected (e.g. clearing the repository)
+            afterCommit(() -> {
+                searchIndex.rebuild();
+                facetIndex.rebuild();
+            });
+            return;
+        }
+        if (TRANSACTION_CONNECTIONS.get().isEmpty()) {
+            searchIndex.update(List.of(context));
+            facetIndex.update(List.of(context));
+            return;
+        }
+        // Graphs touched within one transaction are re-indexed once after it commits
+        final Set<IRI> pending = SEARCH_INDEX_PENDING.get();
+        if (pending.isEmpty()) {
+            afterCommit(() -> {
+                final List<IRI> graphs = List.copyOf(pending);
+                searchIndex.update(graphs);
+                facetIndex.update(graphs);
+            });
+        }
+        pending.add(context);
+    }
+
+    public List<BindingSet> runSparqlQuery(String queryName, Class repositoryType,
+                                           Map<String, Value> bindings, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        return runSparqlQuery(queryRegistry.get(queryName, repositoryType), bindings, mode);
     }
 
     public List<BindingSet> runSparqlQuery(String queryString, RepositoryMode mode) throws MetadataRepositoryException {
-        final List<BindingSet> result = new ArrayList<>();
-        for (final Repository repo : getRepositories(mode)) {
-            try (RepositoryConnection conn = repo.getConnection()) {
-                final TupleQuery query = conn.prepareTupleQuery(queryString);
-                try (TupleQueryResult repoResult = query.evaluate()) {
-                    result.addAll(repoResult.stream().toList());
+        return runSparqlQuery(queryRegistry.adhoc(queryString), Collections.emptyMap(), mode);
+    }
+
+    protected List<BindingSet> runSparqlQuery(SparqlQuery query, Map<String, Value> bindings, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        try (Stream<BindingSet> results = runSparqlQueryStream(query, bindings, mode)) {
+            return results.toList();
+        }
+        catch (RepositoryException exception) {
+            throw new MetadataRepositoryException(MSG_ERROR_URI + exception.getMessage());
+        }
+    }
+
+    public Stream<BindingSet> runSparqlQueryStream(String queryName, Class repositoryType,
+                                                   Map<String, Value> bindings, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        return runSparqlQueryStream(queryRegistry.get(queryName, repositoryType), bindings, mode);
+    }
+
+    protected Stream<BindingSet> runSparqlQueryStream(SparqlQuery query, Map<String, Value> bindings,
+                                                      RepositoryMode mode)
+            throws MetadataRepositoryException {
+        return streamQuery(query, query::prepare, bindings, mode);
+    }
+
+    private Stream<BindingSet> streamQuery(SparqlQuery query, Function<RepositoryConnection, TupleQuery> preparer,
+                                           Map<String, Value> bindings, RepositoryMode mode)
+            throws MetadataRepositoryException {
+        final Timer.Sample sample = Timer.start();
+        return openStream(mode, conn -> {
+            final TupleQuery tupleQuery = preparer.apply(conn);
+            bindings.forEach(tupleQuery::setBinding);
+            return tupleQuery.evaluate().stream();
+        }, MSG_ERROR_URI).onClose(() -> sample.stop(query.getTimer()));
+    }
+
+    private <T> Stream<T> openStream(RepositoryMode mode, Function<RepositoryConnection, Stream<T>> opener,
+                                     String errorMessage)
+            throws MetadataRepositoryException {
+        // Connections stay open until the returned stream is closed
+        Stream<T> result = Stream.empty();
+        try {
+            for (final Repository repo : getRepositories(mode)) {
+                final RepositoryConnection conn = getConnection(repo);
+                try {
+                    result = Stream.concat(result, opener.apply(conn).onClose(conn::close));
+                }
+                catch (RepositoryException exception) {
+                    conn.close();
+                    throw exception;
                 }
             }
-            catch (RepositoryException exception) {
-                throw new MetadataRepositoryException(MSG_ERROR_URI + exception.getMessage());
-            }
+            return result;
+        }
+        catch (RepositoryException exception) {
+            result.close();
+            throw new MetadataRepositoryException(errorMessage + exception.getMessage());
         }
-        return result;
     }
 
-    protected String loadSparqlQuery(String queryName, Class repositoryType) throws IOException {
-        final URL fileURL = repositoryType.getResource(queryName);
-        return Resources.toString(fileURL, StandardCharsets.UTF_8);
+    protected SparqlQuery getQuery(String queryName) throws MetadataRepositoryException {
+        return getQuery(queryName, AbstractMetadataRepository.class);
+    }
+
+    protected SparqlQuery getQuery(String queryName, Class repositoryType) throws MetadataRepositoryException {
+        return queryRegistry.get(queryName, repositoryType);
+    }
+
+    protected static String toValuesClause(String variable, Collection<IRI> iris) {
+        return iris
+                .stream()
+                .map(NTriplesUtil::toNTriplesString)
+                .collect(Collectors.joining(" ", format("VALUES ?%s { ", variable), " }"));
     }
 
     public void moveToMain(IRI context) throws MetadataRepositoryException {
-        final List<Statement> statements = find(context, RepositoryMode.DRAFTS);
-        save(statements, context, RepositoryMode.MAIN);
-        remove(context, RepositoryMode.DRAFTS);
+        inTransaction(RepositoryMode.COMBINED, () -> {
+            final List<Statement> statements = find(context, RepositoryMode.DRAFTS);
+            save(statements, context, RepositoryMode.MAIN);
+            remove(context, RepositoryMode.DRAFTS);
+            return null;
+        });
     }
 
     public void moveToDrafts(IRI context) throws MetadataRepositoryException {
-        final List<Statement> statements = find(context, RepositoryMode.MAIN);
-        save(statements, context, RepositoryMode.DRAFTS);
-        remove(context, RepositoryMode.MAIN);
+        inTransaction(RepositoryMode.COMBINED, () -> {
+            final List<Statement> statements = find(context, RepositoryMode.MAIN);
+            save(statements, context, RepositoryMode.DRAFTS);
+            remove(context, RepositoryMode.MAIN);
+            return null;
+        });
     }
 }
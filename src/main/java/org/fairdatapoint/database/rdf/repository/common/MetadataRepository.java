@@ -29,13 +29,15 @@ package org.fairdatapoint.database.rdf.repository.common;
 
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
-import org.fairdatapoint.entity.search.SearchFilterValue;
+import org.fairdatapoint.entity.metadata.MetadataChildrenPage;
 import org.fairdatapoint.entity.search.SearchResult;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.query.BindingSet;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MetadataRepository {
 
@@ -43,25 +45,37 @@ public interface MetadataRepository {
 
     List<Statement> find(IRI context, RepositoryMode mode) throws MetadataRepositoryException;
 
+    Stream<Statement> findStream(IRI context, RepositoryMode mode) throws MetadataRepositoryException;
+
+    boolean exists(IRI context, RepositoryMode mode) throws MetadataRepositoryException;
+
+    List<Statement> findAll(List<IRI> contexts, RepositoryMode mode) throws MetadataRepositoryException;
+
     List<SearchResult> findByLiteral(Literal query, RepositoryMode mode) throws MetadataRepositoryException;
 
     List<SearchResult> findBySparqlQuery(String query, RepositoryMode mode) throws MetadataRepositoryException;
 
-    List<SearchFilterValue> findByFilterPredicate(IRI predicateUri, RepositoryMode mode)
+    Map<String, String> findChildTitles(IRI parent, IRI relation, RepositoryMode mode)
             throws MetadataRepositoryException;
 
-    Map<String, String> findChildTitles(IRI parent, IRI relation, RepositoryMode mode)
+    MetadataChildrenPage findChildrenPage(IRI parent, IRI relation, String childIriPrefix,
+                                          RepositoryMode mode, int page, int size)
             throws MetadataRepositoryException;
 
     boolean checkExistence(Resource subject, IRI predicate, Value object, RepositoryMode mode)
             throws MetadataRepositoryException;
 
+    Optional<Value> findObject(Resource subject, IRI predicate, IRI context, RepositoryMode mode)
+            throws MetadataRepositoryException;
+
     void save(List<Statement> statements, IRI context, RepositoryMode mode) throws MetadataRepositoryException;
 
     void removeAll(RepositoryMode mode) throws MetadataRepositoryException;
 
     void remove(IRI uri, RepositoryMode mode) throws MetadataRepositoryException;
 
+    void remove(List<Statement> statements, IRI context, RepositoryMode mode) throws MetadataRepositoryException;
+
     void removeStatement(Resource subject, IRI predicate, Value object, IRI context, RepositoryMode mode)
             throws MetadataRepositoryException;
 
@@ -69,6 +83,15 @@ public interface MetadataRepository {
                                     Map<String, Value> bindings, RepositoryMode mode)
             throws MetadataRepositoryException;
 
+    Stream<BindingSet> runSparqlQueryStream(String queryName, Class repositoryType,
+                                            Map<String, Value> bindings, RepositoryMode mode)
+            throws MetadataRepositoryException;
+
+    <T, E extends Exception> T inTransaction(RepositoryMode mode, MetadataTransactionCallback<T, E> callback)
+            throws MetadataRepositoryException, E;
+
+    void afterCommit(Runnable action);
+
     void moveToDrafts(IRI context) throws MetadataRepositoryException;
 
     void moveToMain(IRI context) throws MetadataRepositoryException;
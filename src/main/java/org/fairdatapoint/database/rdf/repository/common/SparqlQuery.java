@@ -0,0 +1,99 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.common;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.algebra.QueryRoot;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.base.RepositoryConnectionWrapper;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
+
+import static java.lang.String.format;
+
+@Getter
+public class SparqlQuery {
+
+    private static final String PAGE_MODIFIERS = "%nLIMIT %d OFFSET %d";
+
+    private final String name;
+
+    private final String queryString;
+
+    private final ParsedTupleQuery parsedQuery;
+
+    private final Timer timer;
+
+    public SparqlQuery(String name, String queryString, ParsedTupleQuery parsedQuery, Timer timer) {
+        this.name = name;
+        this.queryString = queryString;
+        this.parsedQuery = parsedQuery;
+        this.timer = timer;
+    }
+
+    public SparqlQuery substitute(String placeholder, String replacement) {
+        return new SparqlQuery(name, queryString.replace(placeholder, replacement), null, timer);
+    }
+
+    public TupleQuery prepare(RepositoryConnection conn) {
+        final SailRepositoryConnection sailConn = unwrapSail(conn);
+        if (parsedQuery != null && sailConn != null) {
+            return prepareParsed(sailConn, parsedQuery.getTupleExpr().clone());
+        }
+        return conn.prepareTupleQuery(queryString);
+    }
+
+    public TupleQuery prepare(RepositoryConnection conn, long offset, long limit) {
+        final SailRepositoryConnection sailConn = unwrapSail(conn);
+        if (parsedQuery != null && sailConn != null) {
+            TupleExpr tupleExpr = parsedQuery.getTupleExpr().clone();
+            if (tupleExpr instanceof QueryRoot root) {
+                tupleExpr = root.getArg();
+            }
+            return prepareParsed(sailConn, new QueryRoot(new Slice(tupleExpr, offset, limit)));
+        }
+        return conn.prepareTupleQuery(queryString + format(PAGE_MODIFIERS, limit, offset));
+    }
+
+    private TupleQuery prepareParsed(SailRepositoryConnection conn, TupleExpr tupleExpr) {
+        final ParsedTupleQuery query = new ParsedTupleQuery(queryString, tupleExpr);
+        query.setDataset(parsedQuery.getDataset());
+        return new SailTupleQuery(query, conn);
+    }
+
+    private static SailRepositoryConnection unwrapSail(RepositoryConnection conn) {
+        RepositoryConnection current = conn;
+        while (current instanceof RepositoryConnectionWrapper wrapper) {
+            current = wrapper.getDelegate();
+        }
+        if (current instanceof SailRepositoryConnection sailConn) {
+            return sailConn;
+        }
+        return null;
+    }
+}
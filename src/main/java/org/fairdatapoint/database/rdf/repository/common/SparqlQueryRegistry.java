@@ -0,0 +1,127 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.common;
+
+import com.google.common.io.Resources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.String.format;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SparqlQueryRegistry {
+
+    private static final String QUERY_LOCATION = "classpath*:org/fairdatapoint/database/rdf/repository/**/*.sparql";
+
+    private static final String QUERY_ROOT = "org/fairdatapoint/";
+
+    private static final String TEMPLATE_MARK = "{{";
+
+    private static final String ADHOC_QUERY = "adhoc";
+
+    private static final String METRIC_NAME = "fdp.sparql.query";
+
+    private static final String METRIC_TAG = "query";
+
+    private static final String MSG_ERROR_LOAD = "Error reading %s SPARQL query (error: %s)";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, SparqlQuery> queries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        final Resource[] resources = new PathMatchingResourcePatternResolver().getResources(QUERY_LOCATION);
+        for (Resource resource : resources) {
+            final String url = resource.getURL().toString();
+            final String name = url.substring(url.lastIndexOf(QUERY_ROOT));
+            queries.put(name, compile(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+        }
+        log.info("Registered {} SPARQL queries", queries.size());
+    }
+
+    public SparqlQuery get(String queryName, Class repositoryType) throws MetadataRepositoryException {
+        final String name = format("%s/%s", repositoryType.getPackageName().replace('.', '/'), queryName);
+        final SparqlQuery query = queries.get(name);
+        if (query != null) {
+            return query;
+        }
+        // Fallback for queries that were not found by the classpath scan
+        final URL fileURL = repositoryType.getResource(queryName);
+        if (fileURL == null) {
+            throw new MetadataRepositoryException(format(MSG_ERROR_LOAD, name, "not found"));
+        }
+        try {
+            final SparqlQuery loadedQuery = compile(name, Resources.toString(fileURL, StandardCharsets.UTF_8));
+            queries.putIfAbsent(name, loadedQuery);
+            return loadedQuery;
+        }
+        catch (IOException exception) {
+            throw new MetadataRepositoryException(format(MSG_ERROR_LOAD, name, exception.getMessage()));
+        }
+    }
+
+    public SparqlQuery adhoc(String queryString) {
+        return new SparqlQuery(ADHOC_QUERY, queryString, null, timer(ADHOC_QUERY));
+    }
+
+    private SparqlQuery compile(String name, String queryString) {
+        // Templates are completed at runtime, so they can only be parsed afterwards
+        ParsedTupleQuery parsedQuery = null;
+        if (!queryString.contains(TEMPLATE_MARK)) {
+            try {
+                parsedQuery = QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, queryString, null);
+            }
+            catch (MalformedQueryException exception) {
+                throw new IllegalStateException(format("Invalid SPARQL query %s: %s", name, exception.getMessage()));
+            }
+        }
+        return new SparqlQuery(name, queryString, parsedQuery, timer(name));
+    }
+
+    private Timer timer(String name) {
+        return Timer.builder(METRIC_NAME)
+                .description("Execution time of SPARQL queries over metadata repositories")
+                .tag(METRIC_TAG, name.substring(name.lastIndexOf('/') + 1))
+                .register(meterRegistry);
+    }
+}
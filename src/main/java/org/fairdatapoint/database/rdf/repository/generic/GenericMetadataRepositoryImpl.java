@@ -29,7 +29,10 @@ package org.fairdatapoint.database.rdf.repository.generic;
 
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.common.AbstractMetadataRepository;
+import org.fairdatapoint.database.rdf.repository.common.SparqlQueryRegistry;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
+import org.fairdatapoint.database.rdf.repository.search.MetadataSearchIndex;
 import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.repository.Repository;
@@ -48,8 +51,10 @@ public class GenericMetadataRepositoryImpl extends AbstractMetadataRepository im
     @Autowired
     private ConcurrentMapCacheManager cacheManager;
 
-    public GenericMetadataRepositoryImpl(Repository mainRepository, Repository draftsRepository) {
-        super(mainRepository, draftsRepository);
+    public GenericMetadataRepositoryImpl(Repository mainRepository, Repository draftsRepository,
+                                         SparqlQueryRegistry queryRegistry, MetadataSearchIndex searchIndex,
+                                         MetadataFacetIndex facetIndex) {
+        super(mainRepository, draftsRepository, queryRegistry, searchIndex, facetIndex);
     }
 
     @Override
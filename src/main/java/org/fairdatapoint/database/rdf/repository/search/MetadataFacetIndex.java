@@ -0,0 +1,190 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.fairdatapoint.database.db.repository.SettingsSearchFilterRepository;
+import org.fairdatapoint.entity.search.SearchFilterValue;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+
+@Slf4j
+@Component
+public class MetadataFacetIndex {
+
+    private final Repository mainRepository;
+
+    private final SettingsSearchFilterRepository settingsSearchFilterRepository;
+
+    // predicate -> graph -> value -> count
+    private final Map<String, Map<IRI, Map<String, Integer>>> graphCounts = new HashMap<>();
+
+    // predicate -> value -> count
+    private final Map<String, Map<String, Integer>> totals = new HashMap<>();
+
+    private final Map<String, String> labels = new HashMap<>();
+
+    public MetadataFacetIndex(Repository mainRepository,
+                              SettingsSearchFilterRepository settingsSearchFilterRepository) {
+        this.mainRepository = mainRepository;
+        this.settingsSearchFilterRepository = settingsSearchFilterRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        graphCounts.clear();
+        totals.clear();
+        labels.clear();
+        final Set<String> predicates = new LinkedHashSet<>();
+        settingsSearchFilterRepository
+                .findAll()
+                .forEach(filter -> predicates.add(filter.getPredicate()));
+        try (RepositoryConnection conn = mainRepository.getConnection()) {
+            for (String predicate : predicates) {
+                track(conn, predicate);
+            }
+            log.info("Metadata facet index built ({} predicates)", predicates.size());
+        }
+        catch (RepositoryException exception) {
+            log.error("Failed to build metadata facet index: {}", exception.getMessage());
+        }
+    }
+
+    public synchronized void update(Collection<IRI> graphs) {
+        if (totals.isEmpty() || graphs.isEmpty()) {
+            return;
+        }
+        try (RepositoryConnection conn = mainRepository.getConnection()) {
+            for (String predicate : totals.keySet()) {
+                for (IRI graph : graphs) {
+                    // 1. Withdraw what the graph contributed so far
+                    final Map<String, Integer> previous = graphCounts.get(predicate).remove(graph);
+                    if (previous != null) {
+                        previous.forEach((value, count) -> decrement(predicate, value, count));
+                    }
+
+                    // 2. Count its current content
+                    try (RepositoryResult<Statement> statements =
+                                 conn.getStatements(null, i(predicate), null, graph)) {
+                        for (Statement statement : statements) {
+                            add(conn, predicate, graph, statement.getObject());
+                        }
+                    }
+                }
+            }
+        }
+        catch (RepositoryException exception) {
+            log.error("Failed to update metadata facet index: {}", exception.getMessage());
+        }
+    }
+
+    public synchronized List<SearchFilterValue> getValues(String predicate) {
+        if (!ensureTracked(predicate)) {
+            return Collections.emptyList();
+        }
+        return toValues(totals.get(predicate));
+    }
+
+    public synchronized List<SearchFilterValue> getValues(String predicate, Collection<IRI> graphs) {
+        if (!ensureTracked(predicate)) {
+            return Collections.emptyList();
+        }
+        final Map<IRI, Map<String, Integer>> byGraph = graphCounts.get(predicate);
+        final Map<String, Integer> counts = new HashMap<>();
+        for (IRI graph : graphs) {
+            byGraph.getOrDefault(graph, Collections.emptyMap()).forEach((value, count) ->
+                    counts.merge(value, count, Integer::sum));
+        }
+        return toValues(counts);
+    }
+
+    private boolean ensureTracked(String predicate) {
+        if (totals.containsKey(predicate)) {
+            return true;
+        }
+        // Filters configured after the last rebuild are picked up on first use
+        try (RepositoryConnection conn = mainRepository.getConnection()) {
+            track(conn, predicate);
+            return true;
+        }
+        catch (RepositoryException exception) {
+            log.error("Failed to index facet {}: {}", predicate, exception.getMessage());
+            return false;
+        }
+    }
+
+    private void track(RepositoryConnection conn, String predicate) {
+        graphCounts.put(predicate, new HashMap<>());
+        totals.put(predicate, new HashMap<>());
+        try (RepositoryResult<Statement> statements = conn.getStatements(null, i(predicate), null)) {
+            for (Statement statement : statements) {
+                if (statement.getContext() instanceof IRI graph) {
+                    add(conn, predicate, graph, statement.getObject());
+                }
+            }
+        }
+    }
+
+    private void add(RepositoryConnection conn, String predicate, IRI graph, Value value) {
+        final String key = value.stringValue();
+        graphCounts.get(predicate).computeIfAbsent(graph, ignored -> new HashMap<>()).merge(key, 1, Integer::sum);
+        totals.get(predicate).merge(key, 1, Integer::sum);
+        if (value instanceof Resource resource && !labels.containsKey(key)) {
+            labels.put(key, findLabel(conn, resource));
+        }
+    }
+
+    private void decrement(String predicate, String value, int count) {
+        totals.get(predicate).computeIfPresent(value, (key, current) -> current > count ? current - count : null);
+    }
+
+    private String findLabel(RepositoryConnection conn, Resource resource) {
+        try (RepositoryResult<Statement> statements = conn.getStatements(resource, RDFS.LABEL, null)) {
+            return statements.hasNext() ? statements.next().getObject().stringValue() : null;
+        }
+    }
+
+    private List<SearchFilterValue> toValues(Map<String, Integer> counts) {
+        return counts
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new SearchFilterValue(entry.getKey(), labels.get(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,351 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cz.CzechAnalyzer;
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.it.ItalianAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.nl.DutchAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.fairdatapoint.config.properties.RepositoryConnectionProperties;
+import org.fairdatapoint.config.properties.RepositoryProperties;
+import org.fairdatapoint.entity.search.SearchResult;
+import org.fairdatapoint.entity.search.SearchResultRelation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.lang.String.format;
+
+@Slf4j
+@Component
+public class MetadataSearchIndex {
+
+    private static final String FIELD_GRAPH = "graph";
+    private static final String FIELD_ENTITY = "entity";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_PREDICATE = "predicate";
+    private static final String FIELD_VALUE = "value";
+    private static final String FIELD_TEXT = "text";
+
+    private static final String INDEX_DIR_SUFFIX = "-search-index";
+
+    private static final Map<String, Analyzer> LANGUAGE_ANALYZERS = Map.of(
+            "cs", new CzechAnalyzer(),
+            "de", new GermanAnalyzer(),
+            "en", new EnglishAnalyzer(),
+            "es", new SpanishAnalyzer(),
+            "fr", new FrenchAnalyzer(),
+            "it", new ItalianAnalyzer(),
+            "nl", new DutchAnalyzer(),
+            "pt", new PortugueseAnalyzer()
+    );
+
+    private final Repository mainRepository;
+
+    private final RepositoryProperties repositoryProperties;
+
+    private final Analyzer analyzer;
+
+    private final Map<String, Float> queryFields;
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    public MetadataSearchIndex(Repository mainRepository, RepositoryProperties repositoryProperties) {
+        this.mainRepository = mainRepository;
+        this.repositoryProperties = repositoryProperties;
+        final Map<String, Analyzer> fieldAnalyzers = new HashMap<>();
+        final Map<String, Float> fields = new HashMap<>();
+        fields.put(FIELD_TEXT, 1.0f);
+        LANGUAGE_ANALYZERS.forEach((language, languageAnalyzer) -> {
+            fieldAnalyzers.put(languageField(language), languageAnalyzer);
+            fields.put(languageField(language), 1.0f);
+        });
+        this.analyzer = new PerFieldAnalyzerWrapper(new StandardAnalyzer(), fieldAnalyzers);
+        this.queryFields = Collections.unmodifiableMap(fields);
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            directory = openDirectory();
+            final IndexWriterConfig config = new IndexWriterConfig(analyzer);
+            config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            writer = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(writer, null);
+        }
+        catch (IOException exception) {
+            close();
+            log.error("Failed to open metadata search index: {}", exception.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+            if (directory != null) {
+                directory.close();
+            }
+        }
+        catch (IOException exception) {
+            log.warn("Failed to close metadata search index: {}", exception.getMessage());
+        }
+        finally {
+            searcherManager = null;
+            writer = null;
+            directory = null;
+        }
+    }
+
+    public boolean isAvailable() {
+        return searcherManager != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (isAvailable() && writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        if (!isAvailable()) {
+            return;
+        }
+        try (RepositoryConnection conn = mainRepository.getConnection()) {
+            // 1. Drop everything, the repository is the source of truth
+            writer.deleteAll();
+
+            // 2. Index graph by graph
+            int graphs = 0;
+            for (Resource context : Iterations.asList(conn.getContextIDs())) {
+                if (context instanceof IRI graph) {
+                    writer.addDocuments(toDocuments(graph, load(conn, graph)));
+                    graphs++;
+                }
+            }
+
+            // 3. Persist and publish
+            commit();
+            log.info("Metadata search index built ({} graphs, {} entries)", graphs, writer.getDocStats().numDocs);
+        }
+        catch (IOException | RepositoryException exception) {
+            log.error("Failed to build metadata search index: {}", exception.getMessage());
+        }
+    }
+
+    public synchronized void update(Collection<IRI> graphs) {
+        if (!isAvailable() || graphs.isEmpty()) {
+            return;
+        }
+        try (RepositoryConnection conn = mainRepository.getConnection()) {
+            for (IRI graph : graphs) {
+                final Term graphTerm = new Term(FIELD_GRAPH, graph.stringValue());
+                writer.updateDocuments(graphTerm, toDocuments(graph, load(conn, graph)));
+            }
+            commit();
+        }
+        catch (IOException | RepositoryException exception) {
+            log.error("Failed to update metadata search index: {}", exception.getMessage());
+        }
+    }
+
+    public List<SearchResult> search(String queryText) {
+        final SimpleQueryParser parser = new SimpleQueryParser(analyzer, queryFields);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        final Query query = parser.parse(queryText);
+        try {
+            final IndexSearcher searcher = searcherManager.acquire();
+            try {
+                final int count = searcher.count(query);
+                if (count == 0) {
+                    return Collections.emptyList();
+                }
+                // Hits come ordered by relevance, callers keep the order of first occurrence
+                final TopDocs hits = searcher.search(query, count);
+                final List<SearchResult> results = new ArrayList<>();
+                for (ScoreDoc hit : hits.scoreDocs) {
+                    results.addAll(toSearchResults(searcher.doc(hit.doc)));
+                }
+                return results;
+            }
+            finally {
+                searcherManager.release(searcher);
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(format("Failed to search metadata index: %s", exception.getMessage()),
+                    exception);
+        }
+    }
+
+    private Directory openDirectory() throws IOException {
+        final Optional<Path> path = resolveIndexPath();
+        if (path.isPresent()) {
+            log.info("Using persistent metadata search index at {}", path.get());
+            return FSDirectory.open(path.get());
+        }
+        log.info("Using in-memory metadata search index");
+        return new ByteBuffersDirectory();
+    }
+
+    private Optional<Path> resolveIndexPath() {
+        if (!repositoryProperties.getSearchIndexDir().isEmpty()) {
+            return Optional.of(Path.of(repositoryProperties.getSearchIndexDir()));
+        }
+        final RepositoryConnectionProperties main = repositoryProperties.getMain();
+        if (main != null && main.getType() == RepositoryConnectionProperties.TYPE_NATIVE
+                && !main.getDir().isEmpty()) {
+            // Next to the native store so both survive restarts together
+            final Path storeDir = Path.of(main.getDir()).toAbsolutePath().normalize();
+            return Optional.of(storeDir.resolveSibling(storeDir.getFileName() + INDEX_DIR_SUFFIX));
+        }
+        return Optional.empty();
+    }
+
+    private void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private Model load(RepositoryConnection conn, IRI graph) {
+        return QueryResults.asModel(conn.getStatements(null, null, null, graph));
+    }
+
+    private List<Document> toDocuments(IRI graph, Model model) {
+        final List<Document> documents = new ArrayList<>();
+        for (Resource entity : model.subjects()) {
+            final Set<Value> types = model.filter(entity, RDF.TYPE, null).objects();
+            final Optional<Literal> title = Models.objectLiteral(model.filter(entity, DCTERMS.TITLE, null));
+            if (types.isEmpty() || title.isEmpty()) {
+                continue;
+            }
+            final Optional<Literal> description =
+                    Models.objectLiteral(model.filter(entity, DCTERMS.DESCRIPTION, null));
+            for (Statement statement : model.filter(entity, null, null)) {
+                if (statement.getObject() instanceof Literal literal) {
+                    final Document document = new Document();
+                    document.add(new StringField(FIELD_GRAPH, graph.stringValue(), Field.Store.NO));
+                    document.add(new StoredField(FIELD_ENTITY, entity.stringValue()));
+                    types.forEach(type -> document.add(new StoredField(FIELD_TYPE, type.stringValue())));
+                    document.add(new StoredField(FIELD_TITLE, title.get().stringValue()));
+                    description.ifPresent(value ->
+                            document.add(new StoredField(FIELD_DESCRIPTION, value.stringValue())));
+                    document.add(new StoredField(FIELD_PREDICATE, statement.getPredicate().stringValue()));
+                    document.add(new StoredField(FIELD_VALUE, literal.getLabel()));
+                    document.add(new TextField(FIELD_TEXT, literal.getLabel(), Field.Store.NO));
+                    languageOf(literal).ifPresent(language ->
+                            document.add(new TextField(languageField(language), literal.getLabel(), Field.Store.NO)));
+                    documents.add(document);
+                }
+            }
+        }
+        return documents;
+    }
+
+    private List<SearchResult> toSearchResults(Document document) {
+        final SearchResultRelation relation = new SearchResultRelation(
+                document.get(FIELD_PREDICATE),
+                document.get(FIELD_VALUE)
+        );
+        final String description = Optional.ofNullable(document.get(FIELD_DESCRIPTION)).orElse("");
+        return Arrays.stream(document.getValues(FIELD_TYPE))
+                .map(type -> new SearchResult(
+                        document.get(FIELD_ENTITY),
+                        type,
+                        document.get(FIELD_TITLE),
+                        description,
+                        relation
+                ))
+                .toList();
+    }
+
+    private static Optional<String> languageOf(Literal literal) {
+        return literal
+                .getLanguage()
+                .map(tag -> tag.split("-")[0].toLowerCase(Locale.ROOT))
+                .filter(LANGUAGE_ANALYZERS::containsKey);
+    }
+
+    private static String languageField(String language) {
+        return format("%s_%s", FIELD_TEXT, language);
+    }
+}
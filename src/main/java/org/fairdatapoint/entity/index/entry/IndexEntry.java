@@ -74,6 +74,12 @@ public class IndexEntry extends BaseEntity {
     @Column(name = "last_retrieval_at")
     private Instant lastRetrievalAt;
 
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "last_modified")
+    private String lastModified;
+
     @NotNull
     @Type(JsonBinaryType.class)
     @Column(name = "metadata", columnDefinition = "jsonb", nullable = false)
@@ -33,4 +33,5 @@ public class AdminTrigger {
     private String remoteAddr;
     private String tokenName;
     private String clientUrl;
+    private RetrievalProgress progress;
 }
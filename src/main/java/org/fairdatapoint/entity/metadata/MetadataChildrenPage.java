@@ -20,12 +20,13 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package org.fairdatapoint.entity.search;
+package org.fairdatapoint.entity.metadata;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.eclipse.rdf4j.model.IRI;
 
 import java.util.List;
 
@@ -33,7 +34,9 @@ import java.util.List;
 @AllArgsConstructor
 @Getter
 @Setter
-public class SearchFilterCacheContainer {
+public class MetadataChildrenPage {
 
-    private List<SearchFilterValue> values;
+    private List<IRI> children;
+
+    private long totalCount;
 }
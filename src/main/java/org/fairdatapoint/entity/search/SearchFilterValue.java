@@ -36,4 +36,6 @@ public class SearchFilterValue {
     private String value;
 
     private String label;
+
+    private int count;
 }
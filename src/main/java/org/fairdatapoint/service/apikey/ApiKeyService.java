@@ -30,6 +30,7 @@ import org.fairdatapoint.entity.exception.ForbiddenException;
 import org.fairdatapoint.entity.exception.UnauthorizedException;
 import org.fairdatapoint.entity.user.UserAccount;
 import org.fairdatapoint.entity.user.UserRole;
+import org.fairdatapoint.service.security.AuthenticationCache;
 import org.fairdatapoint.service.security.AuthenticationService;
 import org.fairdatapoint.service.user.CurrentUserService;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -57,6 +58,8 @@ public class ApiKeyService {
 
     private final ApiKeyMapper apiKeyMapper;
 
+    private final AuthenticationCache authenticationCache;
+
     public List<ApiKeyDTO> getAll() {
         final Optional<UserAccount> user = currentUserService.getCurrentUser();
         if (user.isEmpty()) {
@@ -92,6 +95,7 @@ public class ApiKeyService {
         if (user.get().getRole().equals(UserRole.ADMIN)
                 || apiKey.get().getUserAccount().equals(user.get())) {
             apiKeyRepository.delete(apiKey.get());
+            authenticationCache.evict(apiKey.get().getToken());
             return true;
         }
         else {
@@ -104,6 +108,9 @@ public class ApiKeyService {
         if (apiKey.isEmpty()) {
             throw new UnauthorizedException("Invalid or non-existing API key");
         }
-        return authenticationService.getAuthentication(apiKey.get().getUserAccount().getUuid().toString());
+        final UUID userUuid = apiKey.get().getUserAccount().getUuid();
+        final Authentication auth = authenticationService.getAuthentication(userUuid.toString());
+        authenticationCache.put(token, userUuid, auth, null);
+        return auth;
     }
 }
@@ -23,6 +23,7 @@
 package org.fairdatapoint.service.form.autocomplete;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.fairdatapoint.api.dto.form.FormAutocompleteItemDTO;
 import org.fairdatapoint.api.dto.form.FormAutocompleteRequestDTO;
 import org.fairdatapoint.entity.forms.RdfEntityCacheContainer;
@@ -31,12 +32,17 @@ import org.fairdatapoint.service.form.autocomplete.retrieval.RdfEntitiesNamespac
 import org.fairdatapoint.service.form.autocomplete.retrieval.RdfEntitiesRetriever;
 import org.fairdatapoint.service.form.autocomplete.retrieval.RdfEntitiesSparqlRetriever;
 import org.fairdatapoint.service.settings.SettingsService;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FormsAutocompleteService {
@@ -49,6 +55,10 @@ public class FormsAutocompleteService {
 
     private final SettingsService settingsService;
 
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Set<String> pendingNamespaces = ConcurrentHashMap.newKeySet();
+
     public List<FormAutocompleteItemDTO> searchItems(FormAutocompleteRequestDTO reqDto) {
         RdfEntityCacheContainer container = cache.get(reqDto.getRdfType());
         if (container == null) {
@@ -57,9 +67,6 @@ public class FormsAutocompleteService {
         if (container == null) {
             return Collections.emptyList();
         }
-        else {
-            cache.set(container);
-        }
         return filterItems(reqDto.getQuery().toLowerCase(), container);
     }
 
@@ -73,16 +80,44 @@ public class FormsAutocompleteService {
 
     public RdfEntityCacheContainer retrieveItems(String rdfType) {
         final Settings settings = settingsService.getOrDefaults();
-        RdfEntityCacheContainer container = null;
         if (settings.getAutocompleteSearchNamespace()) {
-            container = retrieveItems(rdfType, namespaceRetriever);
+            // Namespace is dereferenced in background, local entities are offered meanwhile
+            retrieveNamespaceItems(rdfType);
+            return retrieveItems(rdfType, sparqlRetriever);
         }
-        if (container == null) {
-            container = retrieveItems(rdfType, sparqlRetriever);
+        final RdfEntityCacheContainer container = retrieveItems(rdfType, sparqlRetriever);
+        if (container != null) {
+            cache.set(container);
         }
         return container;
     }
 
+    private void retrieveNamespaceItems(String rdfType) {
+        if (!pendingNamespaces.add(rdfType)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    RdfEntityCacheContainer container = retrieveItems(rdfType, namespaceRetriever);
+                    if (container == null) {
+                        container = retrieveItems(rdfType, sparqlRetriever);
+                    }
+                    if (container != null) {
+                        cache.set(container);
+                    }
+                }
+                finally {
+                    pendingNamespaces.remove(rdfType);
+                }
+            });
+        }
+        catch (TaskRejectedException exception) {
+            pendingNamespaces.remove(rdfType);
+            log.warn("Unable to schedule namespace retrieval for {}: {}", rdfType, exception.getMessage());
+        }
+    }
+
     public RdfEntityCacheContainer retrieveItems(String rdfType, RdfEntitiesRetriever retriever) {
         final Map<String, String> entities = retriever.retrieve(rdfType);
         if (entities == null) {
@@ -24,18 +24,22 @@ package org.fairdatapoint.service.index.entry;
 
 import org.fairdatapoint.api.dto.index.entry.IndexEntryDTO;
 import org.fairdatapoint.api.dto.index.entry.IndexEntryDetailDTO;
+import org.fairdatapoint.api.dto.index.entry.IndexEntryHarvestDTO;
 import org.fairdatapoint.api.dto.index.entry.IndexEntryStateDTO;
 import org.fairdatapoint.entity.index.entry.IndexEntry;
 import org.fairdatapoint.entity.index.entry.IndexEntryState;
 import org.fairdatapoint.entity.index.entry.RepositoryMetadata;
 import org.fairdatapoint.entity.index.event.IndexEvent;
 import org.fairdatapoint.service.index.event.EventMapper;
+import org.fairdatapoint.service.index.harvester.HarvestProgress;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.stream.StreamSupport;
 
+import static java.util.Optional.ofNullable;
+
 @Service
 public class IndexEntryMapper {
 
@@ -56,7 +60,8 @@ public class IndexEntryMapper {
     }
 
     public IndexEntryDetailDTO toDetailDTO(
-            IndexEntry indexEntry, Iterable<IndexEvent> events, Instant validThreshold
+            IndexEntry indexEntry, Iterable<IndexEvent> events, Instant validThreshold,
+            HarvestProgress harvestProgress
     ) {
         return new IndexEntryDetailDTO(
                 indexEntry.getUuid(),
@@ -71,7 +76,22 @@ public class IndexEntryMapper {
                         .toList(),
                 indexEntry.getCreatedAt().toString(),
                 indexEntry.getUpdatedAt().toString(),
-                indexEntry.getLastRetrievalAt().toString()
+                indexEntry.getLastRetrievalAt().toString(),
+                ofNullable(harvestProgress).map(this::toHarvestDTO).orElse(null)
+        );
+    }
+
+    public IndexEntryHarvestDTO toHarvestDTO(HarvestProgress progress) {
+        return new IndexEntryHarvestDTO(
+                progress.isRunning(),
+                progress.getDiscovered().get(),
+                progress.getFetched().get(),
+                progress.getNotModified().get(),
+                progress.getFailed().get(),
+                progress.getStoredStatements().get(),
+                progress.getRemovedStatements().get(),
+                progress.getStartedAt().toString(),
+                ofNullable(progress.getFinishedAt()).map(Instant::toString).orElse(null)
         );
     }
 
@@ -43,6 +43,7 @@ import org.fairdatapoint.service.index.harvester.HarvesterService;
 import org.fairdatapoint.service.index.settings.IndexSettingsService;
 import org.fairdatapoint.service.user.CurrentUserService;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.impl.TreeModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -55,6 +56,7 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static org.fairdatapoint.api.dto.index.entry.IndexEntryStateDTO.*;
@@ -177,7 +179,8 @@ public class IndexEntryService {
         return getEntry(uuid)
                 .map(entry -> {
                     return mapper.toDetailDTO(
-                            entry, getEvents(entry.getUuid()), validThreshold
+                            entry, getEvents(entry.getUuid()), validThreshold,
+                            harvesterService.getProgress(entry.getClientUrl()).orElse(null)
                     );
                 });
     }
@@ -198,34 +201,21 @@ public class IndexEntryService {
         final List<IndexEntryPermit> permit = getPermits(permitQuery);
         final Instant validThreshold = getValidThreshold();
         final Map<String, Long> entriesCount = new HashMap<>();
-        entriesCount.put(
-                FILTER_ALL,
-                repository.countAllByPermitIn(permit)
-        );
-        entriesCount.put(
-                UNKNOWN.name(),
-                repository.countAllByStateEqualsAndPermitIn(IndexEntryState.UNKNOWN, permit)
-        );
-        entriesCount.put(
-                ACTIVE.name(),
-                repository.countAllByStateEqualsAndLastRetrievalAtAfterAndPermitIn(
-                        IndexEntryState.VALID, validThreshold, permit
-                )
-        );
-        entriesCount.put(
-                INACTIVE.name(),
-                repository.countAllByStateEqualsAndLastRetrievalAtBeforeAndPermitIn(
-                        IndexEntryState.VALID, validThreshold, permit
-                )
-        );
-        entriesCount.put(
-                UNREACHABLE.name(),
-                repository.countAllByStateEqualsAndPermitIn(IndexEntryState.UNREACHABLE, permit)
-        );
-        entriesCount.put(
-                INVALID.name(),
-                repository.countAllByStateEqualsAndPermitIn(IndexEntryState.INVALID, permit)
-        );
+        Stream.of(FILTER_ALL, UNKNOWN.name(), ACTIVE.name(), INACTIVE.name(), UNREACHABLE.name(), INVALID.name())
+                .forEach(bucket -> entriesCount.put(bucket, 0L));
+        for (IndexEntryRepository.StateCounts counts : repository.countByStateAndPermitIn(validThreshold, permit)) {
+            entriesCount.merge(FILTER_ALL, counts.getTotal(), Long::sum);
+            switch (counts.getState()) {
+                case VALID -> {
+                    entriesCount.put(ACTIVE.name(), counts.getRecent());
+                    entriesCount.put(INACTIVE.name(), counts.getStale());
+                }
+                case UNKNOWN -> entriesCount.put(UNKNOWN.name(), counts.getTotal());
+                case UNREACHABLE -> entriesCount.put(UNREACHABLE.name(), counts.getTotal());
+                case INVALID -> entriesCount.put(INVALID.name(), counts.getTotal());
+                default -> log.warn("Unexpected index entry state {}", counts.getState());
+            }
+        }
         return new IndexEntryInfoDTO(entriesCount);
     }
 
@@ -289,7 +279,10 @@ public class IndexEntryService {
                 .findByUuid(uuid)
                 .orElseThrow(() -> new ResourceNotFoundException(MSG_NOT_FOUND));
         final Model model = new TreeModel();
-        model.addAll(genericMetadataRepository.find(i(entry.getClientUrl()), RepositoryMode.MAIN));
+        try (Stream<Statement> statements =
+                     genericMetadataRepository.findStream(i(entry.getClientUrl()), RepositoryMode.MAIN)) {
+            statements.forEach(model::add);
+        }
         return model;
     }
 
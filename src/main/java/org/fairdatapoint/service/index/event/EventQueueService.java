@@ -0,0 +1,174 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.event;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.config.ExecutorConfig;
+import org.fairdatapoint.config.properties.EventQueueProperties;
+import org.fairdatapoint.config.properties.InstanceProperties;
+import org.fairdatapoint.config.properties.RetrievalProperties;
+import org.fairdatapoint.database.db.repository.IndexEventQueueRepository;
+import org.fairdatapoint.entity.index.event.IndexEvent;
+import org.fairdatapoint.entity.index.event.IndexEventQueueItem;
+import org.fairdatapoint.entity.index.event.IndexEventType;
+import org.fairdatapoint.util.HttpUtil;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import static java.util.Optional.ofNullable;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventQueueService {
+
+    private static final int MAX_BACKOFF_EXPONENT = 20;
+
+    private final IndexEventQueueRepository queueRepository;
+
+    private final EventService eventService;
+
+    private final InstanceProperties instanceProperties;
+
+    private final RetrievalProperties retrievalProperties;
+
+    private final EventQueueProperties queueProperties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Qualifier(ExecutorConfig.EVENT_QUEUE_EXECUTOR)
+    private final ThreadPoolTaskExecutor workers;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(retrievalProperties.getConcurrency());
+        // Events left unfinished by an earlier version or a lost enqueue are picked up again; anything
+        // younger than a lease may still be processed by another node
+        final int recovered = queueRepository.enqueueUnfinished(Instant.now().minus(queueProperties.getLease()));
+        if (recovered > 0) {
+            log.info("Enqueued {} unfinished index events", recovered);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${event-queue.poll-interval:PT1S}",
+            fixedDelayString = "${event-queue.poll-interval:PT1S}"
+    )
+    public void poll() {
+        final int free = permits.availablePermits();
+        if (!instanceProperties.isIndex() || free == 0) {
+            return;
+        }
+        // 1. Claim at most as many items as there are free workers, the rest waits in the queue
+        final String claim = nodeId + ":" + UUID.randomUUID();
+        final Instant lockedUntil = Instant.now().plus(queueProperties.getLease());
+        if (queueRepository.claim(claim, free, lockedUntil) == 0) {
+            return;
+        }
+        // 2. Dispatch claimed items to workers
+        for (IndexEventQueueItem item : queueRepository.findAllByLockedBy(claim)) {
+            permits.acquireUninterruptibly();
+            workers.execute(() -> process(item));
+        }
+    }
+
+    private void process(IndexEventQueueItem item) {
+        final IndexEvent event = item.getEvent();
+        try {
+            if (event.getType() == IndexEventType.METADATA_RETRIEVAL) {
+                processPerHost(event);
+            }
+            else {
+                eventService.processQueuedEvent(event);
+            }
+            queueRepository.delete(item);
+        }
+        catch (Exception exception) {
+            fail(item, exception);
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    private void processPerHost(IndexEvent event) throws InterruptedException {
+        final Semaphore hostPermit = hostPermits.computeIfAbsent(
+                HttpUtil.getHost(event.getRelatedTo().getClientUrl()),
+                host -> new Semaphore(retrievalProperties.getHostConcurrency())
+        );
+        hostPermit.acquire();
+        try {
+            eventService.processQueuedEvent(event);
+        }
+        finally {
+            hostPermit.release();
+        }
+    }
+
+    private void fail(IndexEventQueueItem item, Exception exception) {
+        final String error = ofNullable(exception.getMessage()).orElse(exception.getClass().getSimpleName());
+        item.setLockedBy(null);
+        item.setLockedUntil(null);
+        item.setLastError(error);
+        if (item.getAttempts() >= queueProperties.getMaxAttempts()) {
+            log.warn("Index event {} failed {} times, giving up: {}",
+                    item.getEvent().getUuid(), item.getAttempts(), error);
+            item.setDeadAt(Instant.now());
+            try {
+                eventService.abandonQueuedEvent(item.getEvent(), error);
+            }
+            catch (Exception abandonException) {
+                log.error("Failed to abandon index event {}: {}",
+                        item.getEvent().getUuid(), abandonException.getMessage());
+            }
+        }
+        else {
+            final Duration delay = backoff(item.getAttempts(), queueProperties);
+            log.info("Index event {} failed (attempt {}), retrying in {}: {}",
+                    item.getEvent().getUuid(), item.getAttempts(), delay, error);
+            item.setAvailableAt(Instant.now().plus(delay));
+        }
+        queueRepository.save(item);
+    }
+
+    public static Duration backoff(int attempts, EventQueueProperties properties) {
+        final int exponent = Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_EXPONENT);
+        final Duration delay = properties.getBackoff().multipliedBy(1L << exponent);
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+}
@@ -23,21 +23,25 @@
 package org.fairdatapoint.service.index.event;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatapoint.api.dto.index.ping.PingDTO;
+import org.fairdatapoint.config.properties.RetrievalProperties;
 import org.fairdatapoint.database.db.repository.IndexEntryRepository;
+import org.fairdatapoint.database.db.repository.IndexEventQueueRepository;
 import org.fairdatapoint.database.db.repository.IndexEventRepository;
 import org.fairdatapoint.entity.index.entry.IndexEntry;
 import org.fairdatapoint.entity.index.entry.IndexEntryState;
 import org.fairdatapoint.entity.index.entry.RepositoryMetadata;
 import org.fairdatapoint.entity.index.event.IndexEvent;
 import org.fairdatapoint.entity.index.event.IndexEventType;
+import org.fairdatapoint.entity.index.event.payload.AdminTrigger;
+import org.fairdatapoint.entity.index.event.payload.RetrievalProgress;
 import org.fairdatapoint.entity.index.exception.IncorrectPingFormatException;
+import org.fairdatapoint.entity.index.exception.MetadataRetrievalException;
 import org.fairdatapoint.entity.index.exception.PingDeniedException;
 import org.fairdatapoint.entity.index.exception.RateLimitException;
 import org.fairdatapoint.entity.index.http.Exchange;
@@ -52,12 +56,11 @@ import org.fairdatapoint.service.index.webhook.WebhookService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
@@ -73,8 +76,6 @@ public class EventService {
 
     private final ObjectMapper objectMapper;
 
-    private final ThreadPoolTaskExecutor executor;
-
     private final IndexEventRepository eventRepository;
 
     private final IndexEntryRepository indexEntryRepository;
@@ -91,6 +92,12 @@ public class EventService {
 
     private final IndexSettingsService indexSettingsService;
 
+    private final RetrievalProperties retrievalProperties;
+
+    private final PingRateLimiter pingRateLimiter;
+
+    private final IndexEventQueueRepository queueRepository;
+
     public Iterable<IndexEvent> getEvents(IndexEntry indexEntry) {
         // TODO: make events pagination in the future
         return eventRepository.getAllByRelatedTo(indexEntry,
@@ -109,6 +116,10 @@ public class EventService {
     @SneakyThrows
     public IndexEvent acceptIncomingPing(PingDTO reqDto, HttpServletRequest request) {
         final String remoteAddr = utilityService.getRemoteAddr(request);
+        final Optional<PingRateLimiter.Block> block = pingRateLimiter.getBlock(remoteAddr);
+        if (block.isPresent()) {
+            throw rateLimitReached(remoteAddr, block.get().hits(), block.get().window());
+        }
         final SettingsIndexPing pingSettings = indexSettingsService.getOrDefaults().getPing();
 
         if (indexSettingsService.isPingDenied(reqDto)) {
@@ -116,17 +127,8 @@ public class EventService {
             throw new PingDeniedException(reqDto.getClientUrl());
         }
 
-        final Instant rateLimitSince = Instant.now().minus(pingSettings.getRateLimitDuration());
-        final List<IndexEvent> previousPings =
-                eventRepository.findAllByRemoteAddrAndCreatedAtAfter(
-                        remoteAddr, rateLimitSince
-                );
-        if (previousPings.size() > pingSettings.getRateLimitHits()) {
-            log.warn("Rate limit for PING reached by {}", remoteAddr);
-            throw new RateLimitException(String.format(
-                    "Rate limit reached for %s (max. %d per %s) - PING ignored",
-                    remoteAddr, pingSettings.getRateLimitHits(), pingSettings.getRateLimitDuration().toString())
-            );
+        if (!pingRateLimiter.tryAcquire(remoteAddr, pingSettings)) {
+            throw rateLimitReached(remoteAddr, pingSettings.getRateLimitHits(), pingSettings.getRateLimitDuration());
         }
 
         final IndexEvent event = incomingPingUtils.prepareEvent(reqDto, request, remoteAddr);
@@ -157,6 +159,14 @@ public class EventService {
         return eventRepository.save(event);
     }
 
+    private static RateLimitException rateLimitReached(String remoteAddr, int hits, Duration window) {
+        log.warn("Rate limit for PING reached by {}", remoteAddr);
+        return new RateLimitException(String.format(
+                "Rate limit reached for %s (max. %d per %s) - PING ignored",
+                remoteAddr, hits, window.toString())
+        );
+    }
+
     private void processMetadataRetrieval(IndexEvent event) {
         final SettingsIndexRetrieval retrievalSettings = indexSettingsService.getOrDefaults().getRetrieval();
         final String clientUrl = event.getRelatedTo().getClientUrl();
@@ -168,7 +178,11 @@ public class EventService {
             log.info("Retrieving metadata for {}", clientUrl);
             MetadataRetrievalUtils.retrieveRepositoryMetadata(event, retrievalSettings.getTimeout());
             final Exchange exchange = event.getPayload().getMetadataRetrieval().getExchange();
-            if (exchange.getState() == ExchangeState.Retrieved) {
+            if (MetadataRetrievalUtils.isNotModified(exchange)) {
+                log.info("Metadata not modified for {}", clientUrl);
+            }
+            else if (exchange.getState() == ExchangeState.Retrieved) {
+                MetadataRetrievalUtils.updateValidators(event.getRelatedTo(), exchange);
                 try {
                     log.info("Parsing metadata for {}", clientUrl);
                     final Optional<RepositoryMetadata> metadata =
@@ -195,6 +209,10 @@ public class EventService {
             else {
                 event.getRelatedTo().setState(IndexEntryState.UNREACHABLE);
                 log.info("Cannot retrieve metadata for {}: {}", clientUrl, exchange.getError());
+                // Unreachable or timed out, keep the event open so that the queue retries it
+                indexEntryRepository.save(event.getRelatedTo());
+                eventRepository.save(event);
+                throw new MetadataRetrievalException(clientUrl, exchange.getError());
             }
         }
         else {
@@ -208,50 +226,67 @@ public class EventService {
         webhookService.triggerWebhooks(newEvent);
     }
 
-    @Async
+    @Transactional
     @RequiredEnabledIndexFeature
     public void triggerMetadataRetrieval(IndexEvent triggerEvent) {
         log.info("Initiating metadata retrieval triggered by {}", triggerEvent.getUuid());
-        final Iterable<IndexEvent> events = MetadataRetrievalUtils.prepareEvents(triggerEvent, indexEntryService);
-        for (IndexEvent event : events) {
-            log.info("Triggering metadata retrieval for {} as {}", event.getRelatedTo().getClientUrl(),
-                    event.getUuid());
-            try {
-                processMetadataRetrieval(event);
-            }
-            catch (Exception exception) {
-                log.error("Failed to retrieve metadata: {}", exception.getMessage());
-            }
-        }
-        log.info("Finished metadata retrieval triggered by {}", triggerEvent.getUuid());
+        // Events and their queue rows commit together, workers never see a partial trigger
+        eventRepository.saveAll(MetadataRetrievalUtils.prepareEvents(triggerEvent, indexEntryService));
+        eventRepository.flush();
+        final int enqueued = queueRepository.enqueueTriggeredBy(triggerEvent.getUuid());
+        recordRetrievalProgress(triggerEvent);
+        log.info("Enqueued {} metadata retrievals triggered by {}", enqueued, triggerEvent.getUuid());
     }
 
-    private void resumeUnfinishedEvents() {
-        log.info("Resuming unfinished events");
-        for (IndexEvent event : eventRepository.getAllByFinishedAtIsNull()) {
-            log.info("Resuming event {}", event.getUuid());
+    public void processQueuedEvent(IndexEvent event) {
+        if (event.getType() == IndexEventType.METADATA_RETRIEVAL) {
+            processMetadataRetrieval(event);
+            recordRetrievalProgress(event.getTriggeredBy());
+        }
+        else if (event.getType() == IndexEventType.WEBHOOK_TRIGGER) {
+            webhookService.processWebhookTrigger(event);
+        }
+        else {
+            log.warn("Unknown queued event type {} ({})", event.getUuid(), event.getType());
+        }
+    }
 
-            try {
-                if (event.getType() == IndexEventType.METADATA_RETRIEVAL) {
-                    processMetadataRetrieval(event);
-                }
-                else if (event.getType() == IndexEventType.WEBHOOK_TRIGGER) {
-                    webhookService.processWebhookTrigger(event);
-                }
-                else {
-                    log.warn("Unknown event type {} ({})", event.getUuid(), event.getType());
-                }
-            }
-            catch (Exception exception) {
-                log.error("Failed to resume event {}: {}", event.getUuid(), exception.getMessage());
-            }
+    public void abandonQueuedEvent(IndexEvent event, String error) {
+        if (event.getType() == IndexEventType.METADATA_RETRIEVAL) {
+            event.getPayload().getMetadataRetrieval().setError(error);
+        }
+        event.finish();
+        final IndexEvent newEvent = eventRepository.save(event);
+        if (event.getType() == IndexEventType.METADATA_RETRIEVAL) {
+            recordRetrievalProgress(event.getTriggeredBy());
+            webhookService.triggerWebhooks(newEvent);
         }
-        log.info("Finished unfinished events");
     }
 
-    @PostConstruct
-    public void startResumeUnfinishedEvents() {
-        executor.submit(this::resumeUnfinishedEvents);
+    @SneakyThrows
+    private void recordRetrievalProgress(IndexEvent triggerEvent) {
+        if (triggerEvent == null || triggerEvent.getPayload().getAdminTrigger() == null) {
+            return;
+        }
+        final IndexEventRepository.RetrievalCounts counts =
+                eventRepository.countRetrievalsTriggeredBy(triggerEvent.getUuid());
+        final long processed = counts.getProcessed();
+        final boolean finished = processed >= counts.getTotal();
+        if (processed > 0 && !finished && processed % retrievalProperties.getProgressInterval() != 0) {
+            return;
+        }
+        final MetadataRetrievalProgress progress =
+                new MetadataRetrievalProgress(counts.getTotal(), triggerEvent.getCreatedAt());
+        progress.getProcessed().set(processed);
+        progress.getFailed().set(counts.getFailed());
+        if (finished) {
+            progress.finish();
+            log.info("Finished metadata retrieval triggered by {} ({})", triggerEvent.getUuid(), progress);
+        }
+        // Workers hold stale copies of the trigger, so the stored progress is only ever moved forward in place
+        final RetrievalProgress payload = progress.toPayload();
+        eventRepository.updateRetrievalProgress(
+                triggerEvent.getUuid(), objectMapper.writeValueAsString(payload), processed);
     }
 
     @RequiredEnabledIndexFeature
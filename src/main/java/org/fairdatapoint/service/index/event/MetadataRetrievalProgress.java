@@ -0,0 +1,94 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.event;
+
+import lombok.Getter;
+import org.fairdatapoint.entity.index.event.payload.RetrievalProgress;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Optional.ofNullable;
+
+@Getter
+public class MetadataRetrievalProgress {
+
+    private final long total;
+
+    private final Instant startedAt;
+
+    private volatile Instant finishedAt;
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    public MetadataRetrievalProgress(long total) {
+        this(total, Instant.now());
+    }
+
+    public MetadataRetrievalProgress(long total, Instant startedAt) {
+        this.total = total;
+        this.startedAt = startedAt;
+    }
+
+    public boolean isRunning() {
+        return finishedAt == null;
+    }
+
+    public Optional<Instant> getEstimatedFinishAt() {
+        if (!isRunning()) {
+            return Optional.of(finishedAt);
+        }
+        final long done = processed.get();
+        if (done == 0) {
+            return Optional.empty();
+        }
+        final Instant now = Instant.now();
+        final long elapsed = Duration.between(startedAt, now).toMillis();
+        return Optional.of(now.plusMillis(elapsed * (total - done) / done));
+    }
+
+    public RetrievalProgress toPayload() {
+        return new RetrievalProgress(
+                total,
+                processed.get(),
+                failed.get(),
+                startedAt.toString(),
+                Instant.now().toString(),
+                getEstimatedFinishAt().map(Instant::toString).orElse(null),
+                ofNullable(finishedAt).map(Instant::toString).orElse(null)
+        );
+    }
+
+    void finish() {
+        finishedAt = Instant.now();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("total=%d, processed=%d, failed=%d", total, processed.get(), failed.get());
+    }
+}
@@ -22,6 +22,8 @@
  */
 package org.fairdatapoint.service.index.event;
 
+import org.fairdatapoint.entity.index.entry.IndexEntry;
+import org.fairdatapoint.entity.index.entry.IndexEntryState;
 import org.fairdatapoint.entity.index.entry.RepositoryMetadata;
 import org.fairdatapoint.entity.index.event.IndexEvent;
 import org.fairdatapoint.entity.index.event.IndexEventType;
@@ -45,6 +47,7 @@ import org.eclipse.rdf4j.rio.RDFParser;
 import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
 import java.io.StringReader;
@@ -60,6 +63,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static java.util.Optional.ofNullable;
+
 public class MetadataRetrievalUtils {
 
     private static final IndexEventType EVENT_TYPE = IndexEventType.METADATA_RETRIEVAL;
@@ -129,11 +134,19 @@ public class MetadataRetrievalUtils {
         final Exchange ex = new Exchange(ExchangeDirection.OUTGOING);
         event.getPayload().getMetadataRetrieval().setExchange(ex);
         try {
-            final HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(event.getRelatedTo().getClientUrl()))
+            final IndexEntry entry = event.getRelatedTo();
+            final HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                    .uri(URI.create(entry.getClientUrl()))
                     .timeout(timeout)
-                    .header(HttpHeaders.ACCEPT, RDFFormat.TURTLE.getDefaultMIMEType())
-                    .GET().build();
+                    .header(HttpHeaders.ACCEPT, RDFFormat.TURTLE.getDefaultMIMEType());
+            // Conditional request when valid repository metadata has been retrieved before
+            if (entry.getState() == IndexEntryState.VALID) {
+                ofNullable(entry.getEtag())
+                        .ifPresent(etag -> requestBuilder.header(HttpHeaders.IF_NONE_MATCH, etag));
+                ofNullable(entry.getLastModified())
+                        .ifPresent(date -> requestBuilder.header(HttpHeaders.IF_MODIFIED_SINCE, date));
+            }
+            final HttpRequest request = requestBuilder.GET().build();
             ex.getRequest().setFromHttpRequest(request);
             ex.setState(ExchangeState.Requested);
             final HttpResponse<String> response =
@@ -155,6 +168,27 @@ public class MetadataRetrievalUtils {
         }
     }
 
+    public static boolean isNotModified(Exchange exchange) {
+        return exchange.getState() == ExchangeState.Retrieved
+                && exchange.getResponse().getCode() == HttpStatus.NOT_MODIFIED.value();
+    }
+
+    public static void updateValidators(IndexEntry entry, Exchange exchange) {
+        final Map<String, List<String>> headers = exchange.getResponse().getHeaders();
+        entry.setEtag(getHeader(headers, HttpHeaders.ETAG));
+        entry.setLastModified(getHeader(headers, HttpHeaders.LAST_MODIFIED));
+    }
+
+    private static String getHeader(Map<String, List<String>> headers, String name) {
+        return headers
+                .entrySet()
+                .stream()
+                .filter(header -> header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty())
+                .map(header -> header.getValue().get(0))
+                .findFirst()
+                .orElse(null);
+    }
+
     public static Optional<RepositoryMetadata> parseRepositoryMetadata(
             String metadata
     ) throws IOException {
@@ -0,0 +1,104 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.config.properties.InstanceProperties;
+import org.fairdatapoint.database.db.repository.PingRateLimitRepository;
+import org.fairdatapoint.entity.index.settings.SettingsIndexPing;
+import org.fairdatapoint.service.index.settings.IndexSettingsService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PingRateLimiter {
+
+    private static final int RETAINED_WINDOWS = 2;
+
+    private final PingRateLimitRepository rateLimitRepository;
+
+    private final IndexSettingsService indexSettingsService;
+
+    private final InstanceProperties instanceProperties;
+
+    private final Map<String, Block> blocked = new ConcurrentHashMap<>();
+
+    public Optional<Block> getBlock(String remoteAddr) {
+        final Block block = blocked.get(remoteAddr);
+        if (block == null) {
+            return Optional.empty();
+        }
+        if (block.until().isAfter(Instant.now())) {
+            return Optional.of(block);
+        }
+        blocked.remove(remoteAddr, block);
+        return Optional.empty();
+    }
+
+    public boolean tryAcquire(String remoteAddr, SettingsIndexPing settings) {
+        final Duration window = settings.getRateLimitDuration();
+        final long windowMillis = window.toMillis();
+        final long now = System.currentTimeMillis();
+        final long windowStart = now - now % windowMillis;
+        final PingRateLimitRepository.Hits hits = rateLimitRepository.hit(
+                remoteAddr, Instant.ofEpochMilli(windowStart), Instant.ofEpochMilli(windowStart - windowMillis)
+        );
+        final double elapsed = (double) (now - windowStart) / windowMillis;
+        if (estimate(hits.getPrevious(), hits.getCurrent(), elapsed) <= settings.getRateLimitHits()) {
+            return true;
+        }
+        // Further pings are rejected locally until the window is over, without touching the database
+        blocked.put(remoteAddr, new Block(
+                Instant.ofEpochMilli(windowStart + windowMillis), settings.getRateLimitHits(), window
+        ));
+        return false;
+    }
+
+    @Scheduled(initialDelayString = "PT10M", fixedDelayString = "PT10M")
+    public void cleanup() {
+        final Instant now = Instant.now();
+        blocked.values().removeIf(block -> !block.until().isAfter(now));
+        if (!instanceProperties.isIndex()) {
+            return;
+        }
+        final Duration window = indexSettingsService.getOrDefaults().getPing().getRateLimitDuration();
+        final int removed = rateLimitRepository.deleteExpired(now.minus(window.multipliedBy(RETAINED_WINDOWS)));
+        log.debug("Removed {} expired ping rate limit counters", removed);
+    }
+
+    static double estimate(int previousHits, int currentHits, double elapsedFraction) {
+        return previousHits * (1 - elapsedFraction) + currentHits;
+    }
+
+    public record Block(Instant until, int hits, Duration window) {
+    }
+}
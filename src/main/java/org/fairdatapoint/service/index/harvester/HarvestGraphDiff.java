@@ -0,0 +1,114 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.harvester;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+
+import java.util.*;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+
+/**
+ * Difference between the previously harvested graph of an index entry and the nodes harvested now.
+ * Statements of nodes that were not modified are recovered from the previous graph by following
+ * their resources up to the boundary of other harvested nodes.
+ */
+class HarvestGraphDiff {
+
+    private final Model previous;
+
+    private final Set<String> nodeUris;
+
+    private final Model stale;
+
+    private final Set<Statement> added = new HashSet<>();
+
+    HarvestGraphDiff(Model previous, Set<String> nodeUris) {
+        this.previous = previous;
+        this.nodeUris = nodeUris;
+        this.stale = new LinkedHashModel(previous);
+    }
+
+    boolean hasPrevious(String uri) {
+        return previous.contains(i(uri), null, null);
+    }
+
+    Model getPrevious(String uri) {
+        final IRI node = i(uri);
+        final Model result = new LinkedHashModel();
+        final Set<Resource> visited = new HashSet<>();
+        final Deque<Resource> queue = new ArrayDeque<>();
+
+        // 1. Start with the node and resources pointing to it (e.g. LDP containers)
+        queue.add(node);
+        for (Statement statement : previous.filter(null, null, node)) {
+            if (!isOtherNode(statement.getSubject(), node)) {
+                queue.add(statement.getSubject());
+            }
+        }
+
+        // 2. Follow described resources, stopping at other harvested nodes
+        while (!queue.isEmpty()) {
+            final Resource resource = queue.poll();
+            if (!visited.add(resource)) {
+                continue;
+            }
+            for (Statement statement : previous.filter(resource, null, null)) {
+                result.add(statement);
+                final Value object = statement.getObject();
+                if (object instanceof Resource objectResource && !isOtherNode(objectResource, node)) {
+                    queue.add(objectResource);
+                }
+            }
+        }
+        return result;
+    }
+
+    List<Statement> add(Model model) {
+        final List<Statement> result = new ArrayList<>();
+        for (Statement statement : model) {
+            if (stale.remove(statement) || previous.contains(statement) || !added.add(statement)) {
+                continue;
+            }
+            result.add(statement);
+        }
+        return result;
+    }
+
+    void retain(Model model) {
+        stale.removeAll(model);
+    }
+
+    List<Statement> getStale() {
+        return new ArrayList<>(stale);
+    }
+
+    private boolean isOtherNode(Resource resource, IRI node) {
+        return resource instanceof IRI && !resource.equals(node) && nodeUris.contains(resource.stringValue());
+    }
+}
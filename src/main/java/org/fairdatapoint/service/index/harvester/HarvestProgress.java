@@ -0,0 +1,68 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.harvester;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+@RequiredArgsConstructor
+public class HarvestProgress {
+
+    private final String clientUrl;
+
+    private final Instant startedAt = Instant.now();
+
+    private volatile Instant finishedAt;
+
+    private final AtomicLong discovered = new AtomicLong();
+
+    private final AtomicLong fetched = new AtomicLong();
+
+    private final AtomicLong notModified = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong storedStatements = new AtomicLong();
+
+    private final AtomicLong removedStatements = new AtomicLong();
+
+    public boolean isRunning() {
+        return finishedAt == null;
+    }
+
+    void finish() {
+        finishedAt = Instant.now();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "discovered=%d, fetched=%d, notModified=%d, failed=%d, storedStatements=%d, removedStatements=%d",
+                discovered.get(), fetched.get(), notModified.get(), failed.get(), storedStatements.get(),
+                removedStatements.get());
+    }
+}
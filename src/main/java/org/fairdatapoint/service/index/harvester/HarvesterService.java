@@ -24,27 +24,42 @@ package org.fairdatapoint.service.index.harvester;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.config.ExecutorConfig;
+import org.fairdatapoint.config.properties.HarvesterProperties;
+import org.fairdatapoint.database.db.repository.HarvestedNodeRepository;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
 import org.fairdatapoint.database.rdf.repository.generic.GenericMetadataRepository;
+import org.fairdatapoint.entity.index.harvest.HarvestedNode;
+import org.fairdatapoint.entity.metadata.MetadataState;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.vocabulary.LDP;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
 import static org.fairdatapoint.entity.metadata.MetadataGetter.getChildren;
+import static org.fairdatapoint.util.HttpUtil.getHost;
 import static org.fairdatapoint.util.HttpUtil.getRdfContentType;
 import static org.fairdatapoint.util.RdfIOUtil.read;
 import static org.fairdatapoint.util.RdfIOUtil.readFile;
@@ -61,32 +76,69 @@ public class HarvesterService {
 
     private final GenericMetadataRepository genericMetadataRepository;
 
+    private final HarvestedNodeRepository harvestedNodeRepository;
+
     private final RestTemplate restTemplate;
 
+    private final HarvesterProperties harvesterProperties;
+
+    private final MetadataStateIndex metadataStateIndex;
+
+    @Qualifier(ExecutorConfig.HARVESTER_EXECUTOR)
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<String, HarvestProgress> progresses = new ConcurrentHashMap<>();
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
     public void deleteHarvestedData(String clientUrl) throws MetadataRepositoryException {
         genericMetadataRepository.remove(i(clientUrl), RepositoryMode.MAIN);
+        metadataStateIndex.remove(i(clientUrl));
+        harvestedNodeRepository.deleteAllByClientUrl(clientUrl);
+        progresses.remove(clientUrl);
+    }
+
+    public Optional<HarvestProgress> getProgress(String clientUrl) {
+        return ofNullable(progresses.get(clientUrl));
     }
 
     @Async
     public void harvest(String clientUrl) throws MetadataRepositoryException {
         log.info("Start harvesting '{}'", clientUrl);
+        final HarvestProgress progress = new HarvestProgress(clientUrl);
+        progresses.put(clientUrl, progress);
 
-        // 0. Remove previously harvested metadata
-        deleteHarvestedData(clientUrl);
+        // 0. Load previously harvested metadata and validators of its nodes
+        final Map<String, HarvestedNode> nodes = harvestedNodeRepository
+                .findAllByClientUrl(clientUrl)
+                .stream()
+                .collect(Collectors.toMap(HarvestedNode::getUri, Function.identity()));
+        final HarvestGraphDiff diff = new HarvestGraphDiff(loadHarvestedData(clientUrl), Set.copyOf(nodes.keySet()));
 
         // 1. Get navigation relationships
         final List<IRI> navigationRelationships = getNavigationRelationships(clientUrl);
 
-        // 2. Harvest data
-        final Map<String, Model> result = new HashMap<>();
-        visitNode(clientUrl, navigationRelationships, result);
-
-        // 3. Store data
-        for (Map.Entry<String, Model> item : result.entrySet()) {
-            genericMetadataRepository.save(new ArrayList<>(item.getValue()), i(clientUrl), RepositoryMode.MAIN);
+        // 2. Harvest data and store the difference
+        try {
+            final Set<String> visited = crawl(clientUrl, navigationRelationships, diff, nodes, progress);
+            if (visited != null) {
+                removeStale(clientUrl, diff, progress);
+                storeNodes(nodes, visited);
+            }
+        }
+        finally {
+            progress.finish();
         }
 
-        log.info("Harvesting for '{}' completed", clientUrl);
+        log.info("Harvesting for '{}' completed ({})", clientUrl, progress);
+    }
+
+    private Model loadHarvestedData(String clientUrl) throws MetadataRepositoryException {
+        final Model model = new LinkedHashModel();
+        try (Stream<Statement> statements = genericMetadataRepository.findStream(i(clientUrl), RepositoryMode.MAIN)) {
+            statements.forEach(st -> model.add(st.getSubject(), st.getPredicate(), st.getObject()));
+        }
+        return model;
     }
 
     private List<IRI> getNavigationRelationships(String uri) {
@@ -98,51 +150,256 @@ public class HarvesterService {
                 .toList();
     }
 
-    private void visitNode(
-            String uri, List<IRI> relationships, Map<String, Model> nodes
+    private Set<String> crawl(
+            String clientUrl, List<IRI> relationships, HarvestGraphDiff diff,
+            Map<String, HarvestedNode> nodes, HarvestProgress progress
+    ) throws MetadataRepositoryException {
+        final CompletionService<Optional<NodeResponse>> completionService =
+                new ExecutorCompletionService<>(executor);
+        final Map<Future<Optional<NodeResponse>>, String> pending = new HashMap<>();
+        final Map<String, Deque<String>> waiting = new LinkedHashMap<>();
+        final Set<String> visited = ConcurrentHashMap.newKeySet();
+        final List<Statement> batch = new ArrayList<>();
+        int batchNodes = 0;
+
+        visited.add(clientUrl);
+        progress.getDiscovered().incrementAndGet();
+        enqueue(waiting, clientUrl);
+        while (!pending.isEmpty() || !waiting.isEmpty()) {
+            final Future<Optional<NodeResponse>> future;
+            try {
+                submitWaiting(completionService, pending, waiting, diff, nodes);
+                future = completionService.take();
+            }
+            catch (InterruptedException exception) {
+                log.warn("Harvesting for '{}' interrupted", clientUrl);
+                // The executor is shared, only this harvest's requests are cancelled
+                pending.forEach((pendingFuture, pendingUri) -> {
+                    pendingFuture.cancel(true);
+                    getHostPermits(pendingUri).release();
+                });
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            final String uri = pending.remove(future);
+            getHostPermits(uri).release();
+            final Optional<NodeResponse> result;
+            if (future.state() == Future.State.SUCCESS) {
+                result = future.resultNow();
+            }
+            else if (future.state() == Future.State.FAILED) {
+                log.debug("Failed to harvest node {}: {}", uri, future.exceptionNow().getMessage());
+                result = Optional.empty();
+            }
+            else {
+                // exceptionNow() is not available for cancelled tasks
+                log.debug("Harvesting node {} was cancelled", uri);
+                result = Optional.empty();
+            }
+            if (result.isEmpty()) {
+                // Keep the previously harvested statements, the node may be only temporarily unavailable
+                progress.getFailed().incrementAndGet();
+                retainPrevious(uri, relationships, diff, visited);
+                continue;
+            }
+
+            // Reuse previous statements of unchanged nodes and remember validators
+            final NodeResponse response = result.get();
+            final Model model;
+            if (response.model() == null) {
+                progress.getNotModified().incrementAndGet();
+                model = diff.getPrevious(response.uri());
+            }
+            else {
+                progress.getFetched().incrementAndGet();
+                model = response.model();
+            }
+            updateValidator(clientUrl, nodes, response);
+
+            // Buffer new statements and flush full batches to the store
+            batch.addAll(diff.add(model));
+            batchNodes++;
+            if (batchNodes >= harvesterProperties.getBatchSize()) {
+                storeBatch(clientUrl, batch, progress);
+                batchNodes = 0;
+            }
+
+            // Enqueue children that were not visited yet
+            for (String child : getChildNodes(model, relationships)) {
+                if (visited.add(child)) {
+                    progress.getDiscovered().incrementAndGet();
+                    enqueue(waiting, child);
+                }
+            }
+        }
+        storeBatch(clientUrl, batch, progress);
+        return visited;
+    }
+
+    private void enqueue(Map<String, Deque<String>> waiting, String uri) {
+        waiting.computeIfAbsent(getHost(uri), host -> new ArrayDeque<>()).add(uri);
+    }
+
+    private void submitWaiting(
+            CompletionService<Optional<NodeResponse>> completionService,
+            Map<Future<Optional<NodeResponse>>, String> pending, Map<String, Deque<String>> waiting,
+            HarvestGraphDiff diff, Map<String, HarvestedNode> nodes
+    ) throws InterruptedException {
+        // Host permits are taken here rather than in the pool threads, a slow host must not occupy them all
+        final Iterator<Map.Entry<String, Deque<String>>> hosts = waiting.entrySet().iterator();
+        while (hosts.hasNext()) {
+            final Map.Entry<String, Deque<String>> host = hosts.next();
+            final Semaphore permits = getHostPermits(host.getValue().peek());
+            while (!host.getValue().isEmpty() && permits.tryAcquire()) {
+                submit(completionService, pending, host.getValue().poll(), diff, nodes);
+            }
+            if (host.getValue().isEmpty()) {
+                hosts.remove();
+            }
+        }
+        if (pending.isEmpty() && !waiting.isEmpty()) {
+            // Remaining hosts are busy with other harvests, wait for one of their permits
+            final Map.Entry<String, Deque<String>> host = waiting.entrySet().iterator().next();
+            getHostPermits(host.getValue().peek()).acquire();
+            submit(completionService, pending, host.getValue().poll(), diff, nodes);
+            if (host.getValue().isEmpty()) {
+                waiting.remove(host.getKey());
+            }
+        }
+    }
+
+    private void submit(
+            CompletionService<Optional<NodeResponse>> completionService,
+            Map<Future<Optional<NodeResponse>>, String> pending, String uri,
+            HarvestGraphDiff diff, Map<String, HarvestedNode> nodes
     ) {
-        try {
-            final Model model = makeRequest(uri);
-            nodes.put(uri, model);
-
-            final List<Resource> containers = getSubjectsBy(model, RDF.TYPE, LDP.DIRECT_CONTAINER);
-            if (!containers.isEmpty()) {
-                // Get children through LDP links
-                for (Value container : containers) {
-                    for (Value child : getObjectsBy(
-                            model, i(container.stringValue()), LDP.CONTAINS
-                    )) {
-                        if (!nodes.containsKey(child.stringValue())) {
-                            visitNode(child.stringValue(), relationships, nodes);
-                        }
-                    }
+        final HarvestedNode validator = getValidator(uri, diff, nodes);
+        pending.put(completionService.submit(() -> visitNode(uri, validator)), uri);
+    }
+
+    private Semaphore getHostPermits(String uri) {
+        return hostPermits.computeIfAbsent(
+                getHost(uri), host -> new Semaphore(harvesterProperties.getHostConcurrency())
+        );
+    }
+
+    private void retainPrevious(String uri, List<IRI> relationships, HarvestGraphDiff diff, Set<String> visited) {
+        // Descendants reachable only through the failed node were not fetched either
+        final Deque<String> queue = new ArrayDeque<>(List.of(uri));
+        while (!queue.isEmpty()) {
+            final Model model = diff.getPrevious(queue.poll());
+            diff.retain(model);
+            for (String child : getChildNodes(model, relationships)) {
+                if (visited.add(child)) {
+                    queue.add(child);
                 }
             }
-            else {
-                // Get children through default navigation SHACL
-                for (IRI relationship : relationships) {
-                    final List<IRI> children = getChildren(model, relationship);
-                    for (IRI child : children) {
-                        if (!nodes.containsKey(child.stringValue())) {
-                            visitNode(child.stringValue(), relationships, nodes);
-                        }
-                    }
+        }
+    }
+
+    private List<String> getChildNodes(Model model, List<IRI> relationships) {
+        final List<String> children = new ArrayList<>();
+        final List<Resource> containers = getSubjectsBy(model, RDF.TYPE, LDP.DIRECT_CONTAINER);
+        if (!containers.isEmpty()) {
+            // Get children through LDP links
+            for (Value container : containers) {
+                for (Value child : getObjectsBy(model, i(container.stringValue()), LDP.CONTAINS)) {
+                    children.add(child.stringValue());
+                }
+            }
+        }
+        else {
+            // Get children through default navigation SHACL
+            for (IRI relationship : relationships) {
+                for (IRI child : getChildren(model, relationship)) {
+                    children.add(child.stringValue());
                 }
             }
         }
+        return children;
+    }
+
+    private HarvestedNode getValidator(String uri, HarvestGraphDiff diff, Map<String, HarvestedNode> nodes) {
+        // Conditional requests only make sense if the previous content can be reused
+        final HarvestedNode node = nodes.get(uri);
+        if (node == null || !diff.hasPrevious(uri)) {
+            return null;
+        }
+        return node;
+    }
+
+    private void updateValidator(String clientUrl, Map<String, HarvestedNode> nodes, NodeResponse response) {
+        final HarvestedNode node = nodes.computeIfAbsent(response.uri(), uri -> HarvestedNode.builder()
+                .clientUrl(clientUrl)
+                .uri(uri)
+                .build());
+        if (response.model() != null || response.etag() != null) {
+            node.setEtag(response.etag());
+        }
+        if (response.model() != null || response.lastModified() != null) {
+            node.setLastModified(response.lastModified());
+        }
+    }
+
+    private void storeBatch(
+            String clientUrl, List<Statement> batch, HarvestProgress progress
+    ) throws MetadataRepositoryException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        genericMetadataRepository.save(new ArrayList<>(batch), i(clientUrl), RepositoryMode.MAIN);
+        metadataStateIndex.put(i(clientUrl), MetadataState.PUBLISHED);
+        progress.getStoredStatements().addAndGet(batch.size());
+        batch.clear();
+    }
+
+    private void removeStale(
+            String clientUrl, HarvestGraphDiff diff, HarvestProgress progress
+    ) throws MetadataRepositoryException {
+        final List<Statement> stale = diff.getStale();
+        if (stale.isEmpty()) {
+            return;
+        }
+        genericMetadataRepository.remove(stale, i(clientUrl), RepositoryMode.MAIN);
+        progress.getRemovedStatements().addAndGet(stale.size());
+    }
+
+    private void storeNodes(Map<String, HarvestedNode> nodes, Set<String> visited) {
+        final List<HarvestedNode> removed = new ArrayList<>();
+        final List<HarvestedNode> retained = new ArrayList<>();
+        nodes.values().forEach(node -> (visited.contains(node.getUri()) ? retained : removed).add(node));
+        harvestedNodeRepository.deleteAll(removed);
+        harvestedNodeRepository.saveAll(retained);
+    }
+
+    private Optional<NodeResponse> visitNode(String uri, HarvestedNode validator) {
+        try {
+            return Optional.of(makeRequest(uri, validator));
+        }
         catch (HttpClientErrorException exception) {
             log.debug("HttpClientErrorException occurred for {}: {}", uri, exception);
+            return Optional.empty();
         }
     }
 
-    private Model makeRequest(String uri) {
+    private NodeResponse makeRequest(String uri, HarvestedNode validator) {
         log.info("Making request to '{}'", uri);
         final HttpHeaders headers = new HttpHeaders();
         headers.setAccept(List.of(MediaType.parseMediaType(RDFFormat.TURTLE.getDefaultMIMEType())));
+        if (validator != null) {
+            ofNullable(validator.getEtag()).ifPresent(headers::setIfNoneMatch);
+            ofNullable(validator.getLastModified()).ifPresent(date -> headers.set(HttpHeaders.IF_MODIFIED_SINCE, date));
+        }
         final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
         try {
             final ResponseEntity<String> response =
                     restTemplate.exchange(uri, HttpMethod.GET, entity, String.class);
+            final String etag = response.getHeaders().getETag();
+            final String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+            if (validator != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                log.info("Request to '{}' not modified", uri);
+                return new NodeResponse(uri, null, etag, lastModified);
+            }
             if (!response.getStatusCode().is2xxSuccessful()) {
                 log.info("Request to '{}' failed ({})", uri, response.getStatusCode());
                 throw new HttpClientErrorException(response.getStatusCode());
@@ -152,7 +409,7 @@ public class HarvesterService {
             log.info("Request to '{}' successfully received", uri);
             final Model result = read(response.getBody(), uri, rdfContentType);
             log.info("Request to '{}' successfully parsed", uri);
-            return result;
+            return new NodeResponse(uri, result, etag, lastModified);
         }
         catch (RestClientException exception) {
             log.info("Request to '{}' failed: {}", uri, exception.getMessage());
@@ -164,4 +421,7 @@ public class HarvesterService {
         }
     }
 
+    private record NodeResponse(String uri, Model model, String etag, String lastModified) {
+    }
+
 }
@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.webhook;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RequiredArgsConstructor
+public class WebhookCircuitBreaker {
+
+    private final int failureThreshold;
+
+    private final Duration openDuration;
+
+    private int failures;
+
+    private Instant openedAt;
+
+    private boolean probing;
+
+    public synchronized boolean tryAcquire() {
+        if (openedAt == null) {
+            return true;
+        }
+        // Half-open: let a single probe through once the open period is over
+        if (!probing && Instant.now().isAfter(openedAt.plus(openDuration))) {
+            probing = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        failures = 0;
+        openedAt = null;
+        probing = false;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (probing || failures >= failureThreshold) {
+            openedAt = Instant.now();
+            probing = false;
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return openedAt != null;
+    }
+}
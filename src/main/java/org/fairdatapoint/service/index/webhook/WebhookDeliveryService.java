@@ -0,0 +1,255 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.api.dto.index.webhook.WebhookPayloadDTO;
+import org.fairdatapoint.config.properties.EventQueueProperties;
+import org.fairdatapoint.config.properties.WebhookProperties;
+import org.fairdatapoint.database.db.repository.IndexEventQueueRepository;
+import org.fairdatapoint.database.db.repository.IndexEventRepository;
+import org.fairdatapoint.entity.index.event.IndexEvent;
+import org.fairdatapoint.entity.index.event.IndexEventQueueItem;
+import org.fairdatapoint.entity.index.exception.WebhookDeliveryException;
+import org.fairdatapoint.entity.index.http.Exchange;
+import org.fairdatapoint.entity.index.http.ExchangeDirection;
+import org.fairdatapoint.entity.index.http.ExchangeState;
+import org.fairdatapoint.entity.index.webhook.IndexWebhook;
+import org.fairdatapoint.service.index.event.EventQueueService;
+import org.fairdatapoint.service.index.settings.IndexSettingsService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookDeliveryService {
+
+    private static final String SECRET_PLACEHOLDER = "*** HIDDEN ***";
+
+    private final WebhookMapper webhookMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final IndexEventRepository eventRepository;
+
+    private final IndexEventQueueRepository queueRepository;
+
+    private final IndexSettingsService indexSettingsService;
+
+    private final WebhookProperties webhookProperties;
+
+    private final EventQueueProperties queueProperties;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.ALWAYS)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Map<String, WebhookCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final Map<String, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+
+    private final Queue<IndexEvent> pendingSaves = new ConcurrentLinkedQueue<>();
+
+    /**
+     * First delivery attempt, does not block the caller. A retryable failure hands the event over to the
+     * durable event queue, which calls {@link #redeliver(IndexEvent)} for the following attempts.
+     */
+    public void deliver(IndexEvent event) {
+        event.execute();
+        final Optional<HttpRequest> request = prepare(event);
+        if (request.isEmpty()) {
+            complete(event);
+            return;
+        }
+        attempt(event, request.get()).thenAccept(retry -> {
+            if (retry) {
+                enqueueRetry(event);
+            }
+            else {
+                complete(event);
+            }
+        });
+    }
+
+    /**
+     * Repeated delivery attempt from the event queue, throws {@link WebhookDeliveryException} when the
+     * delivery should be retried again.
+     */
+    public void redeliver(IndexEvent event) {
+        event.execute();
+        final Optional<HttpRequest> request = prepare(event);
+        if (request.isPresent() && attempt(event, request.get()).join()) {
+            eventRepository.save(event);
+            throw new WebhookDeliveryException(
+                    request.get().uri().toString(),
+                    event.getPayload().getWebhookTrigger().getExchange().getError()
+            );
+        }
+        event.finish();
+        eventRepository.save(event);
+    }
+
+    private Optional<HttpRequest> prepare(IndexEvent event) {
+        final IndexWebhook webhook = event.getPayload().getWebhookTrigger().getWebhook();
+        try {
+            // 1. Sign the payload with the secret, send it with the placeholder
+            final WebhookPayloadDTO webhookPayload = webhookMapper.toWebhookPayloadDTO(event);
+            webhookPayload.setSecret(webhook.getSecret());
+            final String signature =
+                    WebhookUtils.computeHashSignature(objectMapper.writeValueAsString(webhookPayload));
+            webhookPayload.setSecret(SECRET_PLACEHOLDER);
+            final String payloadWithoutSecret = objectMapper.writeValueAsString(webhookPayload);
+            // 2. Build the request
+            return Optional.of(WebhookUtils.buildRequest(
+                    webhook,
+                    indexSettingsService.getOrDefaults().getRetrieval().getTimeout(),
+                    payloadWithoutSecret,
+                    signature
+            ));
+        }
+        catch (Exception exception) {
+            log.error("Failed to prepare webhook {}: {}", event.getUuid(), exception.getMessage());
+            final Exchange ex = new Exchange(ExchangeDirection.OUTGOING);
+            ex.setState(ExchangeState.Failed);
+            ex.setError("Cannot prepare request: " + exception.getMessage());
+            event.getPayload().getWebhookTrigger().setExchange(ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sends the request once, the result tells whether the delivery should be retried.
+     */
+    private CompletableFuture<Boolean> attempt(IndexEvent event, HttpRequest request) {
+        final String endpoint = request.uri().toString();
+        final Exchange ex = new Exchange(ExchangeDirection.OUTGOING);
+        event.getPayload().getWebhookTrigger().setExchange(ex);
+        ex.getRequest().setFromHttpRequest(request);
+        final Semaphore permits = endpointPermits.computeIfAbsent(
+                endpoint, key -> new Semaphore(webhookProperties.getEndpointConcurrency())
+        );
+        if (!permits.tryAcquire()) {
+            ex.setState(ExchangeState.Failed);
+            ex.setError("Too many concurrent deliveries to " + endpoint);
+            return CompletableFuture.completedFuture(true);
+        }
+        final WebhookCircuitBreaker breaker = breakers.computeIfAbsent(
+                endpoint, key -> new WebhookCircuitBreaker(
+                        webhookProperties.getFailureThreshold(), webhookProperties.getOpenDuration())
+        );
+        if (!breaker.tryAcquire()) {
+            permits.release();
+            ex.setState(ExchangeState.Failed);
+            ex.setError("Circuit open for " + endpoint);
+            return CompletableFuture.completedFuture(true);
+        }
+        ex.setState(ExchangeState.Requested);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    permits.release();
+                    if (error != null) {
+                        breaker.onFailure();
+                        WebhookUtils.recordFailure(ex, error);
+                        return true;
+                    }
+                    ex.getResponse().setFromHttpResponse(response);
+                    ex.setState(ExchangeState.Retrieved);
+                    if (WebhookUtils.isRetryable(response.statusCode())) {
+                        breaker.onFailure();
+                        return true;
+                    }
+                    breaker.onSuccess();
+                    return false;
+                });
+    }
+
+    private void enqueueRetry(IndexEvent event) {
+        final String error = event.getPayload().getWebhookTrigger().getExchange().getError();
+        final IndexEventQueueItem item = new IndexEventQueueItem(event);
+        item.setAttempts(1);
+        item.setAvailableAt(Instant.now().plus(EventQueueService.backoff(1, queueProperties)));
+        item.setLastError(error);
+        log.debug("Webhook {} failed, retrying through the event queue: {}", event.getUuid(), error);
+        try {
+            item.setEvent(eventRepository.save(event));
+            queueRepository.save(item);
+        }
+        catch (Exception exception) {
+            // Unfinished events are picked up again by the event queue on the next start
+            log.error("Failed to enqueue webhook {} for retry: {}", event.getUuid(), exception.getMessage());
+        }
+    }
+
+    private void complete(IndexEvent event) {
+        event.finish();
+        pendingSaves.add(event);
+    }
+
+    @Scheduled(
+            initialDelayString = "${webhook.flush-interval:PT2S}",
+            fixedDelayString = "${webhook.flush-interval:PT2S}"
+    )
+    public void flush() {
+        final List<IndexEvent> events = new ArrayList<>();
+        IndexEvent event;
+        while ((event = pendingSaves.poll()) != null) {
+            events.add(event);
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            eventRepository.saveAll(events);
+        }
+        catch (Exception exception) {
+            // Unfinished events are picked up again by the event queue on the next start
+            log.error("Failed to store {} webhook events: {}", events.size(), exception.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
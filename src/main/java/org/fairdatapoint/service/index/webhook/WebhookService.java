@@ -22,28 +22,23 @@
  */
 package org.fairdatapoint.service.index.webhook;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.fairdatapoint.api.dto.index.webhook.WebhookPayloadDTO;
 import org.fairdatapoint.database.db.repository.IndexEventRepository;
 import org.fairdatapoint.database.db.repository.IndexWebhookRepository;
 import org.fairdatapoint.entity.exception.ResourceNotFoundException;
 import org.fairdatapoint.entity.index.event.IndexEvent;
-import org.fairdatapoint.entity.index.settings.SettingsIndexRetrieval;
 import org.fairdatapoint.entity.index.webhook.IndexWebhook;
 import org.fairdatapoint.entity.index.webhook.IndexWebhookEvent;
 import org.fairdatapoint.service.UtilityService;
 import org.fairdatapoint.service.index.common.RequiredEnabledIndexFeature;
-import org.fairdatapoint.service.index.settings.IndexSettingsService;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -52,63 +47,35 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class WebhookService {
 
-    private static final String SECRET_PLACEHOLDER = "*** HIDDEN ***";
-
     private final WebhookMapper webhookMapper;
 
-    private final ObjectMapper objectMapper;
-
     private final IndexWebhookRepository webhookRepository;
 
     private final IndexEventRepository eventRepository;
 
-    private final IndexSettingsService indexSettingsService;
-
     private final UtilityService utilityService;
 
-    @RequiredEnabledIndexFeature
-    public void processWebhookTrigger(IndexEvent event) {
-        final SettingsIndexRetrieval retrievalSettings =
-                indexSettingsService.getOrDefaults().getRetrieval();
-        event.execute();
-        eventRepository.save(event);
-        final WebhookPayloadDTO webhookPayload = webhookMapper.toWebhookPayloadDTO(event);
-        try {
-            final String payloadWithSecret = objectMapper.writeValueAsString(webhookPayload);
-            final String signature = WebhookUtils.computeHashSignature(payloadWithSecret);
-            webhookPayload.setSecret(SECRET_PLACEHOLDER);
-            final String payloadWithoutSecret = objectMapper.writeValueAsString(webhookPayload);
-            WebhookUtils.postWebhook(
-                    event,
-                    retrievalSettings.getTimeout(),
-                    payloadWithoutSecret,
-                    signature
-            );
-        }
-        catch (JsonProcessingException exception) {
-            log.error("Failed to convert webhook payload to string");
-        }
-        catch (NoSuchAlgorithmException exception) {
-            log.error("Could not compute SHA-1 signature of payload");
-        }
-        event.finish();
-        eventRepository.save(event);
-    }
+    private final WebhookSubscriptionIndex subscriptionIndex;
+
+    private final WebhookDeliveryService deliveryService;
 
-    @Async
     @RequiredEnabledIndexFeature
-    public void triggerWebhook(IndexWebhook webhook, IndexWebhookEvent webhookEvent, IndexEvent triggerEvent) {
-        final IndexEvent event = webhookMapper.toTriggerEvent(webhook, webhookEvent, triggerEvent);
-        processWebhookTrigger(event);
+    public void processWebhookTrigger(IndexEvent event) {
+        deliveryService.redeliver(event);
     }
 
-    @Async
     @RequiredEnabledIndexFeature
     public void triggerWebhooks(IndexWebhookEvent webhookEvent, IndexEvent triggerEvent) {
-        log.info("Triggered webhook event {} by event {}", webhookEvent, triggerEvent.getUuid());
-        WebhookUtils
-                .filterMatching(webhookRepository.findAll(), webhookEvent, triggerEvent)
-                .forEach(webhook -> triggerWebhook(webhook, webhookEvent, triggerEvent));
+        final List<IndexWebhook> webhooks = subscriptionIndex.match(webhookEvent, triggerEvent);
+        if (webhooks.isEmpty()) {
+            return;
+        }
+        log.info("Triggered webhook event {} by event {} for {} webhooks",
+                webhookEvent, triggerEvent.getUuid(), webhooks.size());
+        final List<IndexEvent> events = webhooks.stream()
+                .map(webhook -> webhookMapper.toTriggerEvent(webhook, webhookEvent, triggerEvent))
+                .toList();
+        eventRepository.saveAll(events).forEach(deliveryService::deliver);
     }
 
     @Async
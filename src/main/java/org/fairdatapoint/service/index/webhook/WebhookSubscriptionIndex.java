@@ -0,0 +1,105 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.webhook;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.config.properties.InstanceProperties;
+import org.fairdatapoint.database.db.repository.IndexWebhookRepository;
+import org.fairdatapoint.entity.index.event.IndexEvent;
+import org.fairdatapoint.entity.index.webhook.IndexWebhook;
+import org.fairdatapoint.entity.index.webhook.IndexWebhookEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WebhookSubscriptionIndex {
+
+    private final IndexWebhookRepository webhookRepository;
+
+    private final InstanceProperties instanceProperties;
+
+    private volatile Map<IndexWebhookEvent, Subscriptions> subscriptions = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${webhook.refresh-interval:PT1M}",
+            fixedDelayString = "${webhook.refresh-interval:PT1M}"
+    )
+    public void refresh() {
+        if (!instanceProperties.isIndex()) {
+            return;
+        }
+        final Map<IndexWebhookEvent, Subscriptions> next = new EnumMap<>(IndexWebhookEvent.class);
+        for (IndexWebhook webhook : webhookRepository.findAll()) {
+            if (!webhook.getEnabled()) {
+                continue;
+            }
+            final Collection<IndexWebhookEvent> events = webhook.getAllEvents()
+                    ? EnumSet.allOf(IndexWebhookEvent.class)
+                    : webhook.getEvents();
+            events.forEach(event -> next.computeIfAbsent(event, key -> new Subscriptions()).add(webhook));
+        }
+        subscriptions = next;
+        log.debug("Webhook subscriptions refreshed for {} events", next.size());
+    }
+
+    public List<IndexWebhook> match(IndexWebhookEvent webhookEvent, IndexEvent triggerEvent) {
+        final Subscriptions matching = subscriptions.get(webhookEvent);
+        if (matching == null) {
+            return Collections.emptyList();
+        }
+        if (triggerEvent.getRelatedTo() == null) {
+            return matching.all;
+        }
+        final List<IndexWebhook> result = new ArrayList<>(matching.allEntries);
+        result.addAll(matching.byEntry.getOrDefault(triggerEvent.getRelatedTo().getClientUrl(), List.of()));
+        return result;
+    }
+
+    private static final class Subscriptions {
+
+        private final List<IndexWebhook> all = new ArrayList<>();
+
+        private final List<IndexWebhook> allEntries = new ArrayList<>();
+
+        private final Map<String, List<IndexWebhook>> byEntry = new HashMap<>();
+
+        private void add(IndexWebhook webhook) {
+            all.add(webhook);
+            if (webhook.getAllEntries()) {
+                allEntries.add(webhook);
+            }
+            else {
+                new HashSet<>(webhook.getEntries()).forEach(entry ->
+                        byEntry.computeIfAbsent(entry, key -> new ArrayList<>()).add(webhook));
+            }
+        }
+    }
+}
@@ -22,57 +22,26 @@
  */
 package org.fairdatapoint.service.index.webhook;
 
-import org.fairdatapoint.entity.index.event.IndexEvent;
 import org.fairdatapoint.entity.index.http.Exchange;
-import org.fairdatapoint.entity.index.http.ExchangeDirection;
 import org.fairdatapoint.entity.index.http.ExchangeState;
 import org.fairdatapoint.entity.index.webhook.IndexWebhook;
-import org.fairdatapoint.entity.index.webhook.IndexWebhookEvent;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.List;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletionException;
 
 public class WebhookUtils {
 
-    private static final HttpClient CLIENT = HttpClient.newBuilder()
-            .version(HttpClient.Version.HTTP_2)
-            .followRedirects(HttpClient.Redirect.ALWAYS)
-            .build();
-
-    private static boolean webhookMatches(
-            IndexWebhook webhook, IndexWebhookEvent webhookEvent, IndexEvent triggerEvent
-    ) {
-        final boolean matchEvent = webhook.getAllEvents()
-                || webhook.getEvents().contains(webhookEvent);
-        final boolean matchEntry =
-                webhook.getAllEntries()
-                        || triggerEvent.getRelatedTo() == null
-                        || webhook.getEntries().contains(
-                                triggerEvent.getRelatedTo().getClientUrl());
-        return matchEvent && matchEntry && webhook.getEnabled();
-    }
-
-    public static Stream<IndexWebhook> filterMatching(List<IndexWebhook> webhooks, IndexWebhookEvent webhookEvent,
-                                                      IndexEvent triggerEvent) {
-        return webhooks
-                .parallelStream()
-                .filter(webhook -> {
-                    return WebhookUtils.webhookMatches(webhook, webhookEvent, triggerEvent);
-                });
-    }
-
     public static String computeHashSignature(String value) throws NoSuchAlgorithmException {
         final MessageDigest digest = MessageDigest.getInstance("SHA-1");
         digest.reset();
@@ -80,37 +49,34 @@ public class WebhookUtils {
         return String.format("sha1=%040x", new BigInteger(1, digest.digest()));
     }
 
-    public static void postWebhook(
-            IndexEvent event, Duration timeout, String payload, String signature
+    public static HttpRequest buildRequest(
+            IndexWebhook webhook, Duration timeout, String payload, String signature
     ) {
-        final Exchange ex = new Exchange(ExchangeDirection.OUTGOING);
-        event.getPayload().getWebhookTrigger().setExchange(ex);
-        try {
-            final HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(event.getPayload().getWebhookTrigger().getWebhook().getPayloadUrl()))
-                    .timeout(timeout)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString())
-                    .header("X-Signature", signature)
-                    .POST(HttpRequest.BodyPublishers.ofString(payload))
-                    .build();
-            ex.getRequest().setFromHttpRequest(request);
-            ex.setState(ExchangeState.Requested);
-            final HttpResponse<String> response =
-                    CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-            ex.getResponse().setFromHttpResponse(response);
-            ex.setState(ExchangeState.Retrieved);
-        }
-        catch (InterruptedException exception) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(webhook.getPayloadUrl()))
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString())
+                .header("X-Signature", signature)
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+    }
+
+    public static boolean isRetryable(int statusCode) {
+        return HttpStatusCode.valueOf(statusCode).is5xxServerError()
+                || statusCode == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    public static void recordFailure(Exchange ex, Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof HttpTimeoutException) {
             ex.setState(ExchangeState.Timeout);
             ex.setError("Timeout");
         }
-        catch (IllegalArgumentException exception) {
-            ex.setState(ExchangeState.Failed);
-            ex.setError("Invalid URI: " + exception.getMessage());
-        }
-        catch (IOException exception) {
+        else {
             ex.setState(ExchangeState.Failed);
-            ex.setError("IO error: " + exception.getMessage());
+            ex.setError("IO error: " + cause.getMessage());
         }
     }
 }
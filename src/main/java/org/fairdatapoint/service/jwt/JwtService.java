@@ -28,6 +28,7 @@ import org.fairdatapoint.api.dto.auth.AuthDTO;
 import org.fairdatapoint.database.db.repository.UserAccountRepository;
 import org.fairdatapoint.entity.exception.UnauthorizedException;
 import org.fairdatapoint.entity.user.UserAccount;
+import org.fairdatapoint.service.security.AuthenticationCache;
 import org.fairdatapoint.service.security.AuthenticationService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
@@ -42,12 +43,15 @@ import java.security.Key;
 import java.util.Base64;
 import java.util.Date;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
     private static final Long DAY_MS = 24 * 60 * 60 * 1000L;
 
+    private static final String MSG_INVALID_TOKEN = "Expired or invalid JWT token";
+
     @Value("${security.jwt.token.secret-key}")
     private String secretKey;
 
@@ -61,15 +65,18 @@ public class JwtService {
 
     private final AuthenticationService authenticationService;
 
+    private final AuthenticationCache authenticationCache;
+
     private JwtParser parser;
 
     private Key key;
 
     public JwtService(UserAccountRepository userAccountRepository, AuthenticationManager authenticationManager,
-                      AuthenticationService authenticationService) {
+                      AuthenticationService authenticationService, AuthenticationCache authenticationCache) {
         this.userAccountRepository = userAccountRepository;
         this.authenticationManager = authenticationManager;
         this.authenticationService = authenticationService;
+        this.authenticationCache = authenticationCache;
     }
 
     @PostConstruct
@@ -93,20 +100,33 @@ public class JwtService {
     }
 
     public Authentication getAuthentication(String token) {
-        return authenticationService.getAuthentication(getUserUuid(token));
+        final Claims claims = parseToken(token);
+        final Authentication auth = authenticationService.getAuthentication(claims.getSubject());
+        authenticationCache.put(
+                token, UUID.fromString(claims.getSubject()), auth, claims.getExpiration().toInstant()
+        );
+        return auth;
     }
 
     public String getUserUuid(String token) {
-        return parser.parseClaimsJws(token).getPayload().getSubject();
+        return parseToken(token).getSubject();
     }
 
     public boolean validateToken(String token) {
+        parseToken(token);
+        return true;
+    }
+
+    private Claims parseToken(String token) {
         try {
-            final Jws<Claims> claims = parser.parseClaimsJws(token);
-            return !claims.getPayload().getExpiration().before(new Date());
+            final Claims claims = parser.parseClaimsJws(token).getPayload();
+            if (claims.getExpiration().before(new Date())) {
+                throw new UnauthorizedException(MSG_INVALID_TOKEN);
+            }
+            return claims;
         }
         catch (JwtException | IllegalArgumentException exception) {
-            throw new UnauthorizedException("Expired or invalid JWT token");
+            throw new UnauthorizedException(MSG_INVALID_TOKEN);
         }
     }
 
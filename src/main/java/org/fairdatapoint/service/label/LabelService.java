@@ -29,36 +29,154 @@ import org.fairdatateam.rdf.resolver.api.ResourceResolver;
 import org.fairdatateam.rdf.resolver.core.ContentNegotiationStrategy;
 import org.fairdatateam.rdf.resolver.core.CoreResourceResolver;
 import org.fairdatateam.rdf.resolver.core.PathExtensionStrategy;
-import java.util.Optional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatapoint.api.dto.label.LabelDTO;
+import org.fairdatapoint.config.ExecutorConfig;
+import org.fairdatapoint.config.properties.LabelProperties;
+import org.fairdatapoint.database.db.repository.ResourceLabelRepository;
+import org.fairdatapoint.entity.label.ResourceLabel;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.util.Models;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.model.vocabulary.SKOS;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@CacheConfig(cacheNames = LABEL_CACHE)
 public class LabelService {
     private final ResourceResolver resolver;
 
-    public LabelService() {
-        final CoreResourceResolver defaultResolver = new CoreResourceResolver();
-        defaultResolver.register(new ContentNegotiationStrategy());
-        defaultResolver.register(new PathExtensionStrategy());
+    private final ResourceLabelRepository resourceLabelRepository;
+
+    private final LabelProperties labelProperties;
+
+    private final ConcurrentMapCacheManager cacheManager;
+
+    private final ThreadPoolTaskExecutor executor;
 
-        this.resolver = defaultResolver;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LabelService(ResourceLabelRepository resourceLabelRepository, LabelProperties labelProperties,
+                        ConcurrentMapCacheManager cacheManager,
+                        @Qualifier(ExecutorConfig.LABEL_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        this(defaultResolver(), resourceLabelRepository, labelProperties, cacheManager, executor);
+    }
+
+    public LabelService(ResourceResolver resolver, ResourceLabelRepository resourceLabelRepository,
+                        LabelProperties labelProperties, ConcurrentMapCacheManager cacheManager,
+                        ThreadPoolTaskExecutor executor) {
+        this.resolver = resolver;
+        this.resourceLabelRepository = resourceLabelRepository;
+        this.labelProperties = labelProperties;
+        this.cacheManager = cacheManager;
+        this.executor = executor;
     }
 
-    @Cacheable
     public Optional<LabelDTO> getLabel(String iri, String lang) {
+        final CachedLabel cached = lookup(List.of(iri), lang).get(iri);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.ofNullable(cached.label());
+        }
+        return Optional.ofNullable(resolve(iri, lang).label());
+    }
+
+    public Map<String, LabelDTO> getLabels(Collection<String> iris, String lang) {
+        // Never dereferences in the calling thread, unknown or expired labels are fetched in background
+        final Map<String, CachedLabel> known = lookup(iris, lang);
+        final Map<String, LabelDTO> result = new HashMap<>();
+        for (String iri : iris) {
+            final CachedLabel cached = known.get(iri);
+            if (cached == null || cached.isExpired()) {
+                resolveInBackground(iri, lang);
+            }
+            if (cached != null && cached.label() != null) {
+                result.put(iri, cached.label());
+            }
+        }
+        return result;
+    }
+
+    private Map<String, CachedLabel> lookup(Collection<String> iris, String lang) {
+        // 1. In-memory cache
+        final Map<String, CachedLabel> result = new HashMap<>();
+        final Set<String> missing = new HashSet<>();
+        for (String iri : iris) {
+            final CachedLabel cached = cache().get(cacheKey(iri, lang), CachedLabel.class);
+            if (cached == null) {
+                missing.add(iri);
+            }
+            else {
+                result.put(iri, cached);
+            }
+        }
+
+        // 2. Label store (one query for all misses)
+        if (!missing.isEmpty()) {
+            for (ResourceLabel stored : resourceLabelRepository.findAllByLangAndIriIn(lang, missing)) {
+                final CachedLabel cached = toCachedLabel(stored);
+                cache().put(cacheKey(stored.getIri(), lang), cached);
+                result.put(stored.getIri(), cached);
+            }
+        }
+        return result;
+    }
+
+    private void resolveInBackground(String iri, String lang) {
+        final String key = cacheKey(iri, lang);
+        if (!pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    resolve(iri, lang);
+                }
+                finally {
+                    pending.remove(key);
+                }
+            });
+        }
+        catch (RuntimeException exception) {
+            pending.remove(key);
+            log.warn("Unable to schedule label resolution for {}: {}", iri, exception.getMessage());
+        }
+    }
+
+    private CachedLabel resolve(String iri, String lang) {
+        final Optional<LabelDTO> label = dereference(iri, lang);
+        final Instant now = Instant.now();
+        try {
+            resourceLabelRepository.store(
+                    iri,
+                    lang,
+                    label.map(LabelDTO::getLabel).orElse(null),
+                    label.map(LabelDTO::getLang).orElse(null),
+                    now
+            );
+        }
+        catch (RuntimeException exception) {
+            log.warn("Unable to store label for {} (lang {}): {}", iri, lang, exception.getMessage());
+        }
+        final CachedLabel cached = new CachedLabel(label.orElse(null), now.plus(ttl(label.isPresent())));
+        cache().put(cacheKey(iri, lang), cached);
+        return cached;
+    }
+
+    private Optional<LabelDTO> dereference(String iri, String lang) {
         try {
             final IRI subject = i(iri);
             return resolver.resolveResource(iri)
@@ -77,6 +195,32 @@ public class LabelService {
         }
     }
 
+    private CachedLabel toCachedLabel(ResourceLabel stored) {
+        final LabelDTO label = stored.getLabel() == null
+                ? null
+                : new LabelDTO(stored.getLabel(), Optional.ofNullable(stored.getLabelLang()).orElse(""));
+        return new CachedLabel(label, stored.getResolvedAt().plus(ttl(label != null)));
+    }
+
+    private Duration ttl(boolean resolved) {
+        return resolved ? labelProperties.getTtl() : labelProperties.getNegativeTtl();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(LABEL_CACHE);
+    }
+
+    private static String cacheKey(String iri, String lang) {
+        return lang + " " + iri;
+    }
+
+    private static ResourceResolver defaultResolver() {
+        final CoreResourceResolver defaultResolver = new CoreResourceResolver();
+        defaultResolver.register(new ContentNegotiationStrategy());
+        defaultResolver.register(new PathExtensionStrategy());
+        return defaultResolver;
+    }
+
     private static Optional<Literal> getPropertyLiteralByLanguage(
             Model model, IRI subject, IRI predicate, String lang
     ) {
@@ -94,4 +238,11 @@ public class LabelService {
                 .filter(literal -> literal.getLanguage().isEmpty())
                 .findFirst();
     }
+
+    private record CachedLabel(LabelDTO label, Instant expiresAt) {
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
 }
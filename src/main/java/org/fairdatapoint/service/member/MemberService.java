@@ -51,6 +51,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MemberService {
 
+    private static final List<Permission> OWNER_PERMISSIONS = List.of(
+            BasePermission.WRITE,
+            BasePermission.CREATE,
+            BasePermission.DELETE,
+            BasePermission.ADMINISTRATION
+    );
+
     private final MutableAclService aclService;
 
     private final MembershipRepository membershipRepository;
@@ -146,10 +153,25 @@ public class MemberService {
 
     @Transactional
     public <T> void createOwner(String entityId, Class<T> entityType, UUID userUuid) {
-        createPermission(entityId, entityType, userUuid, BasePermission.WRITE);
-        createPermission(entityId, entityType, userUuid, BasePermission.CREATE);
-        createPermission(entityId, entityType, userUuid, BasePermission.DELETE);
-        createPermission(entityId, entityType, userUuid, BasePermission.ADMINISTRATION);
+        createOwners(List.of(entityId), entityType, userUuid);
+    }
+
+    @Transactional
+    public <T> void createOwners(List<String> entityIds, Class<T> entityType, UUID userUuid) {
+        for (String entityId : entityIds) {
+            final MutableAcl acl = retrieveAcl(entityId, entityType);
+            boolean changed = false;
+            for (Permission permission : OWNER_PERMISSIONS) {
+                if (hasPermissionEntry(acl, permission)) {
+                    continue;
+                }
+                insertAce(acl, userUuid, permission);
+                changed = true;
+            }
+            if (changed) {
+                aclService.updateAcl(acl);
+            }
+        }
 
         entityManager.flush();
     }
@@ -159,10 +181,7 @@ public class MemberService {
             String entityId, Class<T> entityType, UUID userUuid, Permission permission
     ) {
         final MutableAcl acl = retrieveAcl(entityId, entityType);
-        if (acl.getEntries().stream()
-                .filter(ace -> ace.getPermission().getMask() == permission.getMask())
-                .findAny()
-                .isEmpty()) {
+        if (!hasPermissionEntry(acl, permission)) {
             insertAce(acl, userUuid, permission);
             aclService.updateAcl(acl);
         }
@@ -255,6 +274,11 @@ public class MemberService {
         }
     }
 
+    private boolean hasPermissionEntry(MutableAcl acl, Permission permission) {
+        return acl.getEntries().stream()
+                .anyMatch(ace -> ace.getPermission().getMask() == permission.getMask());
+    }
+
     private void insertAce(MutableAcl acl, UUID userUuid, Permission permission) {
         acl.insertAce(acl.getEntries().size(), permission, new PrincipalSid(userUuid.toString()), true);
     }
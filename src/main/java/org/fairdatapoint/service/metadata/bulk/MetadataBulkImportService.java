@@ -0,0 +1,310 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.api.dto.metadata.MetaImportDTO;
+import org.fairdatapoint.api.dto.metadata.MetaImportRecordDTO;
+import org.fairdatapoint.config.ExecutorConfig;
+import org.fairdatapoint.config.properties.BulkImportProperties;
+import org.fairdatapoint.entity.exception.RdfValidationException;
+import org.fairdatapoint.entity.exception.ResourceNotFoundException;
+import org.fairdatapoint.entity.exception.ValidationException;
+import org.fairdatapoint.entity.resource.ResourceDefinition;
+import org.fairdatapoint.entity.resource.ResourceDefinitionChild;
+import org.fairdatapoint.service.metadata.common.MetadataService;
+import org.fairdatapoint.service.metadata.enhance.MetadataEnhancer;
+import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
+import org.fairdatapoint.service.metadata.factory.MetadataServiceFactory;
+import org.fairdatapoint.service.metadata.validator.MetadataValidator;
+import org.fairdatapoint.service.resource.ResourceDefinitionService;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.SHACL;
+import org.eclipse.rdf4j.rio.*;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static org.fairdatapoint.util.HttpUtil.generateNewMetadataIRI;
+import static org.fairdatapoint.util.RdfIOUtil.changeBaseUri;
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.s;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetadataBulkImportService {
+
+    private static final String MSG_NO_QUAD_FORMAT =
+            "Bulk import requires a format with named graphs (TriG or N-Quads)";
+
+    private static final String MSG_DEFAULT_GRAPH =
+            "Bulk import requires every statement to be in a named graph (one graph per record)";
+
+    private static final String MSG_TOO_MANY_RECORDS =
+            "Bulk import is limited to %d records per request (%d records were imported before the limit)";
+
+    private static final String MSG_SPLIT_GRAPH =
+            "Statements of a record must be kept together, statements after the record was imported were ignored";
+
+    private static final String MSG_EXC_IO = "Unable to read RDF (IO exception)";
+
+    private static final String MSG_EXC_PARSE = "Unable to read RDF (parse exception: %s)";
+
+    private static final String MSG_SHACL = "SHACL validation failed";
+
+    private final String persistentUrl;
+
+    private final MetadataServiceFactory metadataServiceFactory;
+
+    private final ResourceDefinitionService resourceDefinitionService;
+
+    private final MetadataValidator metadataValidator;
+
+    private final MetadataEnhancer metadataEnhancer;
+
+    private final BulkImportProperties bulkImportProperties;
+
+    @Qualifier(ExecutorConfig.BULK_IMPORT_EXECUTOR)
+    private final ThreadPoolTaskExecutor executor;
+
+    public static boolean isSupportedFormat(RDFFormat format) {
+        return format != null && format.supportsContexts();
+    }
+
+    public MetaImportDTO importMetadata(
+            String urlPrefix, InputStream content, RDFFormat format
+    ) {
+        // 1. Init
+        if (!isSupportedFormat(format)) {
+            throw new ValidationException(MSG_NO_QUAD_FORMAT);
+        }
+        final MetadataService metadataService = metadataServiceFactory.getMetadataServiceByUrlPrefix(urlPrefix);
+        final ResourceDefinition rd = resourceDefinitionService.getByUrlPrefix(urlPrefix);
+        final RecordImporter importer = new RecordImporter(urlPrefix, metadataService, rd);
+
+        // 2. Parse records (one named graph per record), each full batch is imported while parsing
+        try {
+            final RDFParser parser = Rio.createParser(format);
+            parser.setRDFHandler(importer);
+            parser.parse(content, persistentUrl);
+        }
+        catch (IOException exception) {
+            throw new ValidationException(MSG_EXC_IO);
+        }
+        catch (RDFParseException exception) {
+            throw new ValidationException(format(MSG_EXC_PARSE, exception.getMessage()));
+        }
+
+        // 3. Create report
+        final int failed = (int) importer.results.stream().filter(dto -> dto.getError() != null).count();
+        return new MetaImportDTO(importer.results.size() - failed, failed, importer.results);
+    }
+
+    private void importBatch(
+            List<ImportRecord> records, MetadataService metadataService, ResourceDefinition rd,
+            List<String> targetClassUris, Set<IRI> validParents
+    ) {
+        // 1. Validate and enhance records in parallel against the shared shapes
+        CompletableFuture.allOf(records
+                .stream()
+                .map(rec -> CompletableFuture.runAsync(() -> prepare(rec, rd, targetClassUris, validParents), executor))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+
+        // 2. Store valid records
+        final Map<IRI, Model> metadata = new LinkedHashMap<>();
+        records.stream().filter(ImportRecord::isValid).forEach(rec -> metadata.put(rec.uri, rec.metadata));
+        if (metadata.isEmpty()) {
+            return;
+        }
+        try {
+            metadataService.storeBatch(metadata, rd);
+        }
+        catch (MetadataServiceException exception) {
+            // The batch was rolled back, store its records one by one so only the failing ones are reported
+            log.warn("Bulk import of {} records failed, retrying one by one: {}",
+                    metadata.size(), exception.getMessage());
+            records.stream().filter(ImportRecord::isValid).forEach(rec -> store(rec, metadataService, rd));
+        }
+    }
+
+    private void store(ImportRecord rec, MetadataService metadataService, ResourceDefinition rd) {
+        try {
+            metadataService.storeBatch(Map.of(rec.uri, rec.metadata), rd);
+        }
+        catch (MetadataServiceException exception) {
+            rec.error = exception.getMessage();
+        }
+    }
+
+    private void prepare(
+            ImportRecord rec, ResourceDefinition rd, List<String> targetClassUris, Set<IRI> validParents
+    ) {
+        try {
+            final Model metadata = changeBaseUri(rec.metadata, rec.uri.stringValue(), targetClassUris);
+            for (ResourceDefinitionChild rdChild : rd.getChildren()) {
+                metadata.remove(null, i(rdChild.getRelationUri()), null);
+            }
+            metadataValidator.validate(metadata, rec.uri, rd, validParents);
+            metadataEnhancer.enhance(metadata, rec.uri, rd);
+            rec.metadata = metadata;
+        }
+        catch (RdfValidationException exception) {
+            rec.error = describe(exception.getModel());
+        }
+        catch (ValidationException | ResourceNotFoundException | MetadataServiceException exception) {
+            rec.error = exception.getMessage();
+        }
+    }
+
+    private static String describe(Model report) {
+        final String messages = report
+                .filter(null, SHACL.RESULT_MESSAGE, null)
+                .objects()
+                .stream()
+                .map(Value::stringValue)
+                .distinct()
+                .collect(Collectors.joining("; "));
+        return messages.isEmpty() ? MSG_SHACL : format("%s: %s", MSG_SHACL, messages);
+    }
+
+    private final class RecordImporter extends AbstractRDFHandler {
+
+        private final String urlPrefix;
+
+        private final MetadataService metadataService;
+
+        private final ResourceDefinition rd;
+
+        private final List<String> targetClassUris;
+
+        private final Set<IRI> validParents = ConcurrentHashMap.newKeySet();
+
+        private final Set<Resource> imported = new HashSet<>();
+
+        private final List<MetaImportRecordDTO> results = new ArrayList<>();
+
+        private Map<Resource, Model> graphs = new LinkedHashMap<>();
+
+        private RecordImporter(String urlPrefix, MetadataService metadataService, ResourceDefinition rd) {
+            this.urlPrefix = urlPrefix;
+            this.metadataService = metadataService;
+            this.rd = rd;
+            this.targetClassUris = resourceDefinitionService.getTargetClassUris(rd);
+        }
+
+        @Override
+        public void handleStatement(Statement statement) {
+            final Resource context = statement.getContext();
+            if (context == null) {
+                throw new ValidationException(MSG_DEFAULT_GRAPH);
+            }
+            if (!graphs.containsKey(context)) {
+                if (imported.contains(context)) {
+                    // Record was already stored with its earlier statements
+                    results.add(new MetaImportRecordDTO(context.stringValue(), null, MSG_SPLIT_GRAPH));
+                    return;
+                }
+                // A new graph completes the previous ones, only complete records are imported
+                if (graphs.size() >= bulkImportProperties.getBatchSize()) {
+                    flush();
+                }
+                if (imported.size() + graphs.size() >= bulkImportProperties.getMaxRecords()) {
+                    throw new ValidationException(format(
+                            MSG_TOO_MANY_RECORDS, bulkImportProperties.getMaxRecords(), imported.size()));
+                }
+            }
+            graphs
+                    .computeIfAbsent(context, key -> new LinkedHashModel())
+                    .add(s(statement.getSubject(), statement.getPredicate(), statement.getObject()));
+        }
+
+        @Override
+        public void endRDF() {
+            flush();
+        }
+
+        private void flush() {
+            if (graphs.isEmpty()) {
+                return;
+            }
+            final List<ImportRecord> records = graphs
+                    .entrySet()
+                    .stream()
+                    .map(entry -> new ImportRecord(
+                            entry.getKey(),
+                            generateNewMetadataIRI(persistentUrl, urlPrefix),
+                            entry.getValue()
+                    ))
+                    .toList();
+            imported.addAll(graphs.keySet());
+            graphs = new LinkedHashMap<>();
+            importBatch(records, metadataService, rd, targetClassUris, validParents);
+            records.forEach(rec -> results.add(rec.toDTO()));
+        }
+    }
+
+    private static final class ImportRecord {
+
+        private final Resource source;
+
+        private final IRI uri;
+
+        private Model metadata;
+
+        private String error;
+
+        private ImportRecord(Resource source, IRI uri, Model metadata) {
+            this.source = source;
+            this.uri = uri;
+            this.metadata = metadata;
+        }
+
+        private boolean isValid() {
+            return error == null;
+        }
+
+        private MetaImportRecordDTO toDTO() {
+            if (error != null) {
+                return new MetaImportRecordDTO(source.stringValue(), null, error);
+            }
+            return new MetaImportRecordDTO(source.stringValue(), uri.stringValue(), null);
+        }
+    }
+}
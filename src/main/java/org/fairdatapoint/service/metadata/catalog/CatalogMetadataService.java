@@ -27,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.catalog.CatalogMetadataRepository;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.entity.metadata.MetadataGetter;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.service.metadata.common.AbstractMetadataService;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
@@ -37,7 +38,10 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import static org.fairdatapoint.entity.metadata.MetadataGetter.getUri;
 import static org.fairdatapoint.entity.metadata.MetadataSetter.setThemeTaxonomies;
 
 @Slf4j
@@ -62,6 +66,27 @@ public class CatalogMetadataService extends AbstractMetadataService {
         return catalog;
     }
 
+    @Override
+    public List<Model> retrieve(List<IRI> uris, RepositoryMode mode) throws MetadataServiceException {
+        final List<Model> catalogs = super.retrieve(uris, mode);
+        try {
+            final List<IRI> catalogUris =
+                    catalogs.stream().map(MetadataGetter::getUri).filter(Objects::nonNull).toList();
+            final Map<IRI, List<IRI>> themes = metadataRepository.getDatasetThemesForCatalogs(catalogUris, mode);
+            for (Model catalog : catalogs) {
+                final IRI uri = getUri(catalog);
+                if (uri != null) {
+                    setThemeTaxonomies(catalog, uri, themes.get(uri));
+                }
+            }
+        }
+        catch (MetadataRepositoryException exception) {
+            log.error("Error retrieving the metadata");
+            throw new MetadataServiceException(exception.getMessage());
+        }
+        return catalogs;
+    }
+
     @Override
     public Model store(
             Model metadata, IRI uri, ResourceDefinition resourceDefinition
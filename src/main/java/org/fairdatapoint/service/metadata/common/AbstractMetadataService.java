@@ -30,17 +30,20 @@ import org.fairdatapoint.entity.exception.ForbiddenException;
 import org.fairdatapoint.entity.exception.ResourceNotFoundException;
 import org.fairdatapoint.entity.metadata.Metadata;
 import org.fairdatapoint.entity.metadata.MetadataGetter;
+import org.fairdatapoint.entity.metadata.MetadataState;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.entity.resource.ResourceDefinitionChild;
 import org.fairdatapoint.entity.user.UserAccount;
 import org.fairdatapoint.service.member.MemberService;
 import org.fairdatapoint.service.metadata.enhance.MetadataEnhancer;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
 import org.fairdatapoint.service.metadata.validator.MetadataValidator;
 import org.fairdatapoint.service.resource.ResourceDefinitionCache;
 import org.fairdatapoint.service.resource.ResourceDefinitionService;
 import org.fairdatapoint.service.user.CurrentUserService;
-import org.fairdatapoint.vocabulary.FDP;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Statement;
@@ -49,13 +52,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.access.prepost.PreAuthorize;
 
-import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 import static org.fairdatapoint.entity.metadata.MetadataGetter.getChildren;
 import static org.fairdatapoint.entity.metadata.MetadataGetter.getParent;
-import static org.fairdatapoint.util.ThrowingFunction.suppress;
 import static org.fairdatapoint.util.ValueFactoryHelper.*;
 
 @Slf4j
@@ -71,6 +73,15 @@ public abstract class AbstractMetadataService implements MetadataService {
     @Autowired
     private MemberService memberService;
 
+    @Autowired
+    private MetadataStateIndex metadataStateIndex;
+
+    @Autowired
+    private MetadataResponseCache metadataResponseCache;
+
+    @Autowired
+    private MetadataTouchService metadataTouchService;
+
     @Autowired
     private CurrentUserService currentUserService;
 
@@ -95,20 +106,21 @@ public abstract class AbstractMetadataService implements MetadataService {
     public Model retrieve(IRI uri, RepositoryMode mode) throws MetadataServiceException, ResourceNotFoundException {
         try {
             // 1. Get metadata
-            final List<Statement> statements = metadataRepository.find(uri, mode);
-            if (statements.isEmpty()) {
-                if (mode.equals(RepositoryMode.MAIN)
-                        && !metadataRepository.find(uri, RepositoryMode.DRAFTS).isEmpty()) {
+            final Model metadata = new LinkedHashModel();
+            try (Stream<Statement> statements = metadataRepository.findStream(uri, mode)) {
+                statements.forEach(metadata::add);
+            }
+
+            // 2. Check if found
+            if (metadata.isEmpty()) {
+                if (mode.equals(RepositoryMode.MAIN) && metadataRepository.exists(uri, RepositoryMode.DRAFTS)) {
                     throw new ForbiddenException(MSG_ERROR_DRAFT_FORBIDDEN);
                 }
                 throw new ResourceNotFoundException(
                         format("No metadata found for the uri '%s'", uri)
                 );
             }
-
-            // 2. Convert to model
-            final Model metadata = new LinkedHashModel();
-            metadata.addAll(statements);
+            metadataTouchService.applyPending(uri, metadata);
             return metadata;
         }
         catch (MetadataRepositoryException exception) {
@@ -117,17 +129,34 @@ public abstract class AbstractMetadataService implements MetadataService {
     }
 
     @Override
-    public List<Model> retrieve(List<IRI> uris) {
+    public List<Model> retrieve(List<IRI> uris) throws MetadataServiceException {
         return retrieve(uris, RepositoryMode.MAIN);
     }
 
     @Override
-    public List<Model> retrieve(List<IRI> uris, RepositoryMode mode) {
-        return uris
-                .stream()
-                .map(suppress(uri -> retrieve(uri, mode)))
-                .filter(Objects::nonNull)
-                .toList();
+    public List<Model> retrieve(List<IRI> uris, RepositoryMode mode) throws MetadataServiceException {
+        try {
+            // 1. Get metadata of all records at once
+            final Map<IRI, Model> models = new LinkedHashMap<>();
+            uris.forEach(uri -> models.put(uri, new LinkedHashModel()));
+            for (Statement statement : metadataRepository.findAll(uris, mode)) {
+                final Model model = models.get(statement.getContext());
+                if (model != null) {
+                    model.add(statement);
+                }
+            }
+
+            // 2. Skip records that were not found
+            models.forEach((uri, model) -> metadataTouchService.applyPending(uri, model));
+            return models
+                    .values()
+                    .stream()
+                    .filter(model -> !model.isEmpty())
+                    .toList();
+        }
+        catch (MetadataRepositoryException exception) {
+            throw new MetadataServiceException(exception.getMessage());
+        }
     }
 
     @Override
@@ -137,9 +166,14 @@ public abstract class AbstractMetadataService implements MetadataService {
         try {
             metadataValidator.validate(metadata, uri, resourceDefinition);
             metadataEnhancer.enhance(metadata, uri, resourceDefinition);
-            metadataRepository.save(new ArrayList<>(metadata), uri, RepositoryMode.DRAFTS);
-            updateParent(metadata, uri, resourceDefinition);
-            addPermissions(uri);
+            metadataRepository.inTransaction(RepositoryMode.COMBINED, () -> {
+                metadataRepository.save(new ArrayList<>(metadata), uri, RepositoryMode.DRAFTS);
+                updateParent(metadata, uri, resourceDefinition);
+                metadataRepository.afterCommit(() -> metadataStateIndex.put(uri, MetadataState.DRAFT));
+                metadataRepository.afterCommit(() -> metadataResponseCache.evict(uri));
+                return null;
+            });
+            addPermissions(List.of(uri));
             return metadata;
         }
         catch (MetadataRepositoryException exception) {
@@ -147,6 +181,38 @@ public abstract class AbstractMetadataService implements MetadataService {
         }
     }
 
+    @Override
+    public void storeBatch(
+            Map<IRI, Model> batch, ResourceDefinition resourceDefinition
+    ) throws MetadataServiceException {
+        try {
+            metadataRepository.inTransaction(RepositoryMode.COMBINED, () -> {
+                // 1. Save records and group them by their parent
+                final Map<IRI, List<IRI>> childrenByParent = new LinkedHashMap<>();
+                for (Map.Entry<IRI, Model> entry : batch.entrySet()) {
+                    final IRI uri = entry.getKey();
+                    metadataRepository.save(new ArrayList<>(entry.getValue()), uri, RepositoryMode.DRAFTS);
+                    final IRI parent = getParent(entry.getValue());
+                    if (parent != null) {
+                        childrenByParent.computeIfAbsent(parent, key -> new ArrayList<>()).add(uri);
+                    }
+                    metadataRepository.afterCommit(() -> metadataStateIndex.put(uri, MetadataState.DRAFT));
+                    metadataRepository.afterCommit(() -> metadataResponseCache.evict(uri));
+                }
+
+                // 2. Link children and touch each parent once per batch
+                for (Map.Entry<IRI, List<IRI>> entry : childrenByParent.entrySet()) {
+                    updateParent(entry.getKey(), entry.getValue(), resourceDefinition);
+                }
+                return null;
+            });
+            addPermissions(new ArrayList<>(batch.keySet()));
+        }
+        catch (MetadataRepositoryException exception) {
+            throw new MetadataServiceException(exception.getMessage());
+        }
+    }
+
     @Override
     @PreAuthorize("""
             hasPermission(#uri.stringValue(),
@@ -160,19 +226,31 @@ public abstract class AbstractMetadataService implements MetadataService {
             if (validate) {
                 metadataValidator.validate(metadata, uri, resourceDefinition);
             }
-            final Model oldMainMetadata = retrieve(uri, RepositoryMode.MAIN);
-            if (oldMainMetadata.isEmpty()) {
-                final Model oldDraftMetadata = retrieve(uri, RepositoryMode.DRAFTS);
-                metadataEnhancer.enhance(metadata, uri, resourceDefinition, oldDraftMetadata);
-                metadataRepository.remove(uri, RepositoryMode.DRAFTS);
-                metadataRepository.save(new ArrayList<>(metadata), uri, RepositoryMode.DRAFTS);
-            }
-            else {
-                metadataEnhancer.enhance(metadata, uri, resourceDefinition, oldMainMetadata);
-                metadataRepository.remove(uri, RepositoryMode.MAIN);
-                metadataRepository.save(new ArrayList<>(metadata), uri, RepositoryMode.MAIN);
-            }
-            return metadata;
+            return metadataRepository.inTransaction(RepositoryMode.COMBINED, () -> {
+                final Model oldMainMetadata = retrieve(uri, RepositoryMode.MAIN);
+                if (oldMainMetadata.isEmpty()) {
+                    final Model oldDraftMetadata = retrieve(uri, RepositoryMode.DRAFTS);
+                    metadataEnhancer.enhance(metadata, uri, resourceDefinition, oldDraftMetadata);
+                    metadataRepository.remove(uri, RepositoryMode.DRAFTS);
+                    metadataRepository.save(new ArrayList<>(metadata), uri, RepositoryMode.DRAFTS);
+                    metadataRepository.afterCommit(() -> metadataStateIndex.put(uri, MetadataState.DRAFT));
+                    metadataRepository.afterCommit(() -> metadataResponseCache.evict(uri));
+                }
+                else {
+                    metadataEnhancer.enhance(metadata, uri, resourceDefinition, oldMainMetadata);
+                    metadataRepository.remove(uri, RepositoryMode.MAIN);
+                    metadataRepository.save(new ArrayList<>(metadata), uri, RepositoryMode.MAIN);
+                    metadataRepository.afterCommit(() -> metadataStateIndex.put(uri, MetadataState.PUBLISHED));
+                    metadataRepository.afterCommit(() -> metadataResponseCache.evict(uri));
+                }
+                // Parents may render data derived from their children (e.g. catalog themes)
+                final IRI parent = MetadataGetter.getParent(metadata);
+                if (parent != null) {
+                    metadataRepository.afterCommit(() -> metadataResponseCache.evict(parent));
+                    metadataTouchService.touch(parent);
+                }
+                return metadata;
+            });
         }
         catch (MetadataRepositoryException | MetadataServiceException exception) {
             throw new MetadataServiceException(exception.getMessage());
@@ -183,38 +261,43 @@ public abstract class AbstractMetadataService implements MetadataService {
     @PreAuthorize("hasRole('ADMIN')")
     public void delete(IRI uri, ResourceDefinition rd) throws MetadataServiceException {
         try {
-            final Model metadata = retrieve(uri);
-
-            // Delete all children
-            for (ResourceDefinitionChild child : rd.getChildren()) {
-                final UUID childRdUuid = child.getTarget().getUuid();
-                final ResourceDefinition rdChild = resourceDefinitionCache.getByUuid(childRdUuid);
-                if (rdChild != null) {
-                    final List<IRI> children = getChildren(metadata, i(child.getRelationUri()));
-                    for (IRI childUri : children) {
-                        delete(childUri, rdChild);
+            metadataRepository.inTransaction(RepositoryMode.COMBINED, () -> {
+                final Model metadata = retrieve(uri);
+
+                // Delete all children
+                for (ResourceDefinitionChild child : rd.getChildren()) {
+                    final UUID childRdUuid = child.getTarget().getUuid();
+                    final ResourceDefinition rdChild = resourceDefinitionCache.getByUuid(childRdUuid);
+                    if (rdChild != null) {
+                        final List<IRI> children = getChildren(metadata, i(child.getRelationUri()));
+                        for (IRI childUri : children) {
+                            delete(childUri, rdChild);
+                        }
                     }
                 }
-            }
 
-            // Remove reference at parent
-            final Set<ResourceDefinition> rdParents =
-                    resourceDefinitionCache.getParentsByUuid(rd.getUuid());
-            // select parent based on URI prefix
-            for (ResourceDefinition rdParent : rdParents) {
-                final IRI parentUri = getParent(metadata);
-                final Model parentMetadata = retrieve(parentUri);
-                for (ResourceDefinitionChild rdChild : rdParent.getChildren()) {
-                    if (rdChild.getTarget().getUuid().equals(rd.getUuid())) {
-                        parentMetadata.remove(null, i(rdChild.getRelationUri()), uri);
-                        update(parentMetadata, parentUri, rdParent, false);
+                // Remove reference at parent
+                final Set<ResourceDefinition> rdParents =
+                        resourceDefinitionCache.getParentsByUuid(rd.getUuid());
+                // select parent based on URI prefix
+                for (ResourceDefinition rdParent : rdParents) {
+                    final IRI parentUri = getParent(metadata);
+                    final Model parentMetadata = retrieve(parentUri);
+                    for (ResourceDefinitionChild rdChild : rdParent.getChildren()) {
+                        if (rdChild.getTarget().getUuid().equals(rd.getUuid())) {
+                            parentMetadata.remove(null, i(rdChild.getRelationUri()), uri);
+                            update(parentMetadata, parentUri, rdParent, false);
+                        }
                     }
                 }
-            }
 
-            // Delete itself
-            metadataRepository.remove(uri, RepositoryMode.MAIN);
-            metadataRepository.remove(uri, RepositoryMode.DRAFTS);
+                // Delete itself
+                metadataRepository.remove(uri, RepositoryMode.MAIN);
+                metadataRepository.remove(uri, RepositoryMode.DRAFTS);
+                metadataRepository.afterCommit(() -> metadataStateIndex.remove(uri));
+                metadataRepository.afterCommit(() -> metadataResponseCache.evict(uri));
+                return null;
+            });
         }
         catch (MetadataRepositoryException | MetadataServiceException exception) {
             throw new MetadataServiceException(exception.getMessage());
@@ -226,47 +309,48 @@ public abstract class AbstractMetadataService implements MetadataService {
     ) throws MetadataServiceException {
         final IRI parent = MetadataGetter.getParent(metadata);
         if (parent != null) {
-            final ResourceDefinition rdParent =
-                    resourceDefinitionService.getByUrl(parent.toString());
-            if (rdParent != null) {
-                try {
-                    final List<Statement> statements = new ArrayList<>();
-                    for (ResourceDefinitionChild rdChild : rdParent.getChildren()) {
-                        if (rdChild.getTarget().getUuid().equals(resourceDefinition.getUuid())) {
-                            statements.add(s(parent, i(rdChild.getRelationUri()), uri));
+            updateParent(parent, List.of(uri), resourceDefinition);
+        }
+    }
+
+    private void updateParent(
+            IRI parent, List<IRI> children, ResourceDefinition resourceDefinition
+    ) throws MetadataServiceException {
+        final ResourceDefinition rdParent =
+                resourceDefinitionService.getByUrl(parent.toString());
+        if (rdParent != null) {
+            try {
+                // 1. Link children to the parent
+                final List<Statement> statements = new ArrayList<>();
+                for (ResourceDefinitionChild rdChild : rdParent.getChildren()) {
+                    if (rdChild.getTarget().getUuid().equals(resourceDefinition.getUuid())) {
+                        for (IRI child : children) {
+                            statements.add(s(parent, i(rdChild.getRelationUri()), child));
                         }
                     }
-                    final List<Statement> parentMetadata = metadataRepository.find(parent, RepositoryMode.MAIN);
-                    if (parentMetadata.isEmpty()) {
-                        metadataRepository.removeStatement(
-                                parent, FDP.METADATAMODIFIED, null, parent, RepositoryMode.DRAFTS
-                        );
-                        statements.add(s(parent, FDP.METADATAMODIFIED, l(OffsetDateTime.now())));
-                        metadataRepository.save(statements, parent, RepositoryMode.DRAFTS);
-                    }
-                    else {
-                        metadataRepository.removeStatement(
-                                parent, FDP.METADATAMODIFIED, null, parent, RepositoryMode.MAIN
-                        );
-                        statements.add(s(parent, FDP.METADATAMODIFIED, l(OffsetDateTime.now())));
-                        metadataRepository.save(statements, parent, RepositoryMode.MAIN);
-                    }
                 }
-                catch (MetadataRepositoryException exception) {
-                    throw new MetadataServiceException("Problem with updating parent timestamp");
+                if (!statements.isEmpty()) {
+                    final RepositoryMode mode = metadataStateIndex.findMode(parent).orElse(RepositoryMode.DRAFTS);
+                    metadataRepository.save(statements, parent, mode);
+                    metadataRepository.afterCommit(() -> metadataResponseCache.evict(parent));
                 }
-                final Model parentMetadata = retrieve(parent);
-                updateParent(parentMetadata, parent, rdParent);
+
+                // 2. Timestamps of the parent and its ancestors are propagated asynchronously
+                metadataTouchService.touch(parent);
+            }
+            catch (MetadataRepositoryException exception) {
+                throw new MetadataServiceException("Problem with updating parent timestamp");
             }
         }
     }
 
-    private void addPermissions(IRI uri) {
+    private void addPermissions(List<IRI> uris) {
         final Optional<UserAccount> user = currentUserService.getCurrentUser();
         if (user.isEmpty()) {
             return;
         }
-        memberService.createOwner(uri.stringValue(), Metadata.class, user.get().getUuid());
+        final List<String> entityIds = uris.stream().map(IRI::stringValue).toList();
+        memberService.createOwners(entityIds, Metadata.class, user.get().getUuid());
     }
 
     protected MemberService getMemberService() {
@@ -30,6 +30,7 @@ import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 
 import java.util.List;
+import java.util.Map;
 
 public interface MetadataService {
 
@@ -45,6 +46,11 @@ public interface MetadataService {
             Model metadata, IRI uri, ResourceDefinition resourceDefinition
     ) throws MetadataServiceException;
 
+    /**
+     * Stores already validated and enhanced records in one transaction, updating each parent once.
+     */
+    void storeBatch(Map<IRI, Model> batch, ResourceDefinition resourceDefinition) throws MetadataServiceException;
+
     Model update(
             Model model, IRI uri, ResourceDefinition resourceDefinition, boolean validate
     ) throws MetadataServiceException;
@@ -0,0 +1,160 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.fairdatapoint.database.db.repository.MetadataSchemaVersionRepository;
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.database.rdf.repository.generic.GenericMetadataRepository;
+import org.fairdatapoint.entity.resource.MetadataSchemaUsage;
+import org.fairdatapoint.entity.resource.ResourceDefinition;
+import org.fairdatapoint.entity.resource.ResourceDefinitionChild;
+import org.fairdatapoint.service.actuator.AppInfoContributor;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
+import org.fairdatapoint.vocabulary.FDP;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+import static java.lang.String.format;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+
+@Service
+@RequiredArgsConstructor
+public class MetadataETagService {
+
+    private final GenericMetadataRepository metadataRepository;
+
+    private final MetadataSchemaVersionRepository metadataSchemaVersionRepository;
+
+    private final AppInfoContributor appInfoContributor;
+
+    private final MetadataTouchService metadataTouchService;
+
+    public Optional<String> getMetadataETag(
+            IRI entityUri, ResourceDefinition definition, String variant
+    ) throws MetadataRepositoryException {
+        return toMetadataETag(entityUri, getModified(entityUri), definition, variant);
+    }
+
+    public Optional<String> getMetadataETag(
+            IRI entityUri, Model metadata, ResourceDefinition definition, String variant
+    ) {
+        final Optional<String> modified = Models
+                .getProperty(metadata, entityUri, FDP.METADATAMODIFIED)
+                .map(Value::stringValue);
+        return toMetadataETag(entityUri, modified, definition, variant);
+    }
+
+    public Optional<String> getExpandedMetadataETag(
+            IRI entityUri, ResourceDefinition definition, String variant
+    ) throws MetadataRepositoryException {
+        final List<String> parts = new ArrayList<>(List.of(getDefinitionVersion(definition), variant));
+        final Set<IRI> visited = new HashSet<>();
+        IRI uri = entityUri;
+        while (uri != null && visited.add(uri)) {
+            final Optional<String> modified = getModified(uri);
+            if (modified.isEmpty()) {
+                return Optional.empty();
+            }
+            parts.add(uri.stringValue());
+            parts.add(modified.get());
+            uri = metadataRepository
+                    .findObject(uri, DCTERMS.IS_PART_OF, uri, RepositoryMode.MAIN)
+                    .filter(IRI.class::isInstance)
+                    .map(IRI.class::cast)
+                    .orElse(null);
+        }
+        return Optional.of(toETag(parts));
+    }
+
+    public String getSpecETag(ResourceDefinition definition, String variant) {
+        final List<String> parts = new ArrayList<>(List.of(getDefinitionVersion(definition), variant));
+        metadataSchemaVersionRepository
+                .getAllLatest()
+                .stream()
+                .map(version -> format("%s@%s", version.getUuid(), version.getUpdatedAt()))
+                .sorted()
+                .forEach(parts::add);
+        return toETag(parts);
+    }
+
+    private Optional<String> toMetadataETag(
+            IRI entityUri, Optional<String> modified, ResourceDefinition definition, String variant
+    ) {
+        return modified.map(value -> toETag(List.of(
+                entityUri.stringValue(), value, getDefinitionVersion(definition), variant
+        )));
+    }
+
+    private Optional<String> getModified(IRI uri) throws MetadataRepositoryException {
+        final Optional<Value> modified = metadataRepository
+                .findObject(uri, FDP.METADATAMODIFIED, uri, RepositoryMode.MAIN);
+        if (modified.isEmpty()) {
+            return Optional.empty();
+        }
+        // timestamps not yet flushed by the touch service win unless the stored one is newer
+        final Optional<OffsetDateTime> pending = metadataTouchService.getPending(uri);
+        final Optional<OffsetDateTime> stored = toTimestamp(modified.get());
+        if (pending.isPresent() && (stored.isEmpty() || stored.get().isBefore(pending.get()))) {
+            return Optional.of(l(pending.get()).stringValue());
+        }
+        return modified.map(Value::stringValue);
+    }
+
+    private static Optional<OffsetDateTime> toTimestamp(Value value) {
+        try {
+            return Optional.of(OffsetDateTime.parse(value.stringValue()));
+        }
+        catch (DateTimeParseException exception) {
+            return Optional.empty();
+        }
+    }
+
+    private String getDefinitionVersion(ResourceDefinition definition) {
+        final StringBuilder version = new StringBuilder()
+                .append(appInfoContributor.getFdpVersion())
+                .append(definition.getUuid())
+                .append(definition.getUpdatedAt());
+        for (ResourceDefinitionChild child : definition.getChildren()) {
+            version.append(child.getUpdatedAt()).append(child.getTarget().getUpdatedAt());
+        }
+        for (MetadataSchemaUsage usage : definition.getMetadataSchemaUsages()) {
+            version.append(usage.getUsedMetadataSchema().getUuid());
+        }
+        return version.toString();
+    }
+
+    private static String toETag(List<String> parts) {
+        return format("\"%s\"", DigestUtils.sha256Hex(String.join("\n", parts)));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.render;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.config.properties.CacheProperties;
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.eclipse.rdf4j.model.IRI;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class MetadataResponseCache {
+
+    private static final String METRIC_NAME = "fdp.metadata.response.cache";
+
+    private static final long STATEMENT_WEIGHT = 256;
+
+    private final Cache<Key, RenderedModel> entries;
+
+    private final AtomicLong stamp = new AtomicLong();
+
+    private final long maxBytes;
+
+    public MetadataResponseCache(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.maxBytes = cacheProperties.getResponses().getMaxBytes();
+        // Maintenance runs in the calling thread so that the size bound holds right after each write
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                .weigher((Key key, RenderedModel model) -> weigh(model))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        FunctionCounter.builder(METRIC_NAME + ".requests", entries, cache -> cache.stats().hitCount())
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_NAME + ".requests", entries, cache -> cache.stats().missCount())
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_NAME + ".evictions", entries, cache -> cache.stats().evictionCount())
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".size", this, MetadataResponseCache::getSize)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<RenderedModel> get(IRI uri, RepositoryMode mode) {
+        return Optional.ofNullable(entries.getIfPresent(new Key(uri, mode)));
+    }
+
+    /**
+     * Stamp to be taken before the response is built; a response built from data that got invalidated
+     * meanwhile is then not put into the cache.
+     */
+    public long getStamp() {
+        return stamp.get();
+    }
+
+    public void put(IRI uri, RepositoryMode mode, RenderedModel model, long readStamp) {
+        if (maxBytes <= 0 || readStamp != stamp.get()) {
+            return;
+        }
+        final Key key = new Key(uri, mode);
+        // Renderings added later change the weight, re-inserting the same model lets the cache reweigh it
+        model.setRenderListener(() -> entries.asMap().replace(key, model, model));
+        entries.put(key, model);
+        if (readStamp != stamp.get()) {
+            // Invalidated while being put
+            entries.asMap().remove(key, model);
+        }
+    }
+
+    public void evict(IRI uri) {
+        stamp.incrementAndGet();
+        for (RepositoryMode mode : RepositoryMode.values()) {
+            entries.invalidate(new Key(uri, mode));
+        }
+    }
+
+    public void clear() {
+        stamp.incrementAndGet();
+        entries.invalidateAll();
+        log.debug("Metadata response cache cleared");
+    }
+
+    private long getSize() {
+        return entries.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static int weigh(RenderedModel model) {
+        return (int) Math.min(model.size() * STATEMENT_WEIGHT + model.getRenderedSize(), Integer.MAX_VALUE);
+    }
+
+    private record Key(IRI uri, RepositoryMode mode) {
+    }
+}
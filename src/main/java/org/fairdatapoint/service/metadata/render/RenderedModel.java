@@ -0,0 +1,61 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.render;
+
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.rio.RDFFormat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response model that keeps its serialisations so that a cached response is written by Rio only once per format.
+ * Once handed out for rendering, the model must not be modified anymore.
+ */
+public class RenderedModel extends LinkedHashModel {
+
+    private final transient Map<RDFFormat, byte[]> renderings = new ConcurrentHashMap<>();
+
+    private transient Runnable renderListener;
+
+    public byte[] getRendering(RDFFormat format) {
+        return renderings.get(format);
+    }
+
+    public void putRendering(RDFFormat format, byte[] rendering) {
+        renderings.put(format, rendering);
+        final Runnable listener = renderListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    public long getRenderedSize() {
+        return renderings.values().stream().mapToLong(rendering -> rendering.length).sum();
+    }
+
+    void setRenderListener(Runnable renderListener) {
+        this.renderListener = renderListener;
+    }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.state;
+
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.fairdatapoint.database.rdf.repository.common.MetadataRepository;
+import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.entity.metadata.MetadataState;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class MetadataStateIndex {
+
+    @Autowired
+    @Qualifier("genericMetadataRepository")
+    private MetadataRepository metadataRepository;
+
+    private volatile Map<IRI, MetadataState> states;
+
+    // Changes made while a rebuild is running, replayed onto the new map before it is swapped in
+    private final Map<IRI, Optional<MetadataState>> changes = new HashMap<>();
+
+    private boolean rebuilding;
+
+    public boolean isBuilt() {
+        return states != null;
+    }
+
+    public Optional<MetadataState> get(IRI uri) {
+        final Map<IRI, MetadataState> current = states;
+        if (current == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current.get(uri));
+    }
+
+    public Optional<RepositoryMode> findMode(IRI uri) throws MetadataRepositoryException {
+        final Optional<MetadataState> state = get(uri);
+        if (state.isPresent()) {
+            return Optional.of(state.get() == MetadataState.PUBLISHED ? RepositoryMode.MAIN : RepositoryMode.DRAFTS);
+        }
+        for (RepositoryMode mode : List.of(RepositoryMode.MAIN, RepositoryMode.DRAFTS)) {
+            if (metadataRepository.exists(uri, mode)) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized void put(IRI uri, MetadataState state) {
+        if (states != null) {
+            states.put(uri, state);
+        }
+        if (rebuilding) {
+            changes.put(uri, Optional.of(state));
+        }
+    }
+
+    public synchronized void remove(IRI uri) {
+        if (states != null) {
+            states.remove(uri);
+        }
+        if (rebuilding) {
+            changes.put(uri, Optional.empty());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            rebuilding = true;
+            changes.clear();
+        }
+        try {
+            // 1. Published graphs first, drafts win if a graph is present in both
+            final Map<IRI, MetadataState> result = new ConcurrentHashMap<>();
+            collect(result, RepositoryMode.MAIN, MetadataState.PUBLISHED);
+            collect(result, RepositoryMode.DRAFTS, MetadataState.DRAFT);
+
+            // 2. Apply changes made in the meantime and swap
+            synchronized (this) {
+                changes.forEach((uri, state) -> {
+                    if (state.isPresent()) {
+                        result.put(uri, state.get());
+                    }
+                    else {
+                        result.remove(uri);
+                    }
+                });
+                states = result;
+            }
+            log.info("Metadata state index built ({} entries)", result.size());
+        }
+        catch (MetadataRepositoryException exception) {
+            states = null;
+            log.error("Failed to build metadata state index: {}", exception.getMessage());
+        }
+        finally {
+            synchronized (this) {
+                rebuilding = false;
+                changes.clear();
+            }
+        }
+    }
+
+    private void collect(Map<IRI, MetadataState> result, RepositoryMode mode, MetadataState state)
+            throws MetadataRepositoryException {
+        for (Resource context : metadataRepository.findResources(mode)) {
+            if (context instanceof IRI iri) {
+                result.put(iri, state);
+            }
+        }
+    }
+}
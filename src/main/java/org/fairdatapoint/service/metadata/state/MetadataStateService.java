@@ -34,9 +34,12 @@ import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.entity.resource.ResourceDefinitionChild;
 import org.fairdatapoint.service.metadata.common.MetadataService;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
 import org.fairdatapoint.service.user.CurrentUserService;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -46,6 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.fairdatapoint.entity.metadata.MetadataGetter.getParent;
 import static org.fairdatapoint.util.RdfUtil.getObjectsBy;
 import static org.fairdatapoint.util.ValueFactoryHelper.i;
 
@@ -64,9 +68,21 @@ public class MetadataStateService {
     @Autowired
     private CurrentUserService currentUserService;
 
+    @Autowired
+    private MetadataStateIndex metadataStateIndex;
+
+    @Autowired
+    private MetadataResponseCache metadataResponseCache;
+
+    @Autowired
+    private MetadataTouchService metadataTouchService;
+
     public boolean isDraft(IRI uri) throws MetadataServiceException {
+        if (metadataStateIndex.isBuilt()) {
+            return metadataStateIndex.get(uri).filter(MetadataState.DRAFT::equals).isPresent();
+        }
         try {
-            return !metadataRepository.find(uri, RepositoryMode.DRAFTS).isEmpty();
+            return metadataRepository.exists(uri, RepositoryMode.DRAFTS);
         }
         catch (MetadataRepositoryException exc) {
             throw new MetadataServiceException(exc.getMessage());
@@ -74,8 +90,11 @@ public class MetadataStateService {
     }
 
     public boolean isPublished(IRI uri) throws MetadataServiceException {
+        if (metadataStateIndex.isBuilt()) {
+            return metadataStateIndex.get(uri).filter(MetadataState.PUBLISHED::equals).isPresent();
+        }
         try {
-            return !metadataRepository.find(uri, RepositoryMode.MAIN).isEmpty();
+            return metadataRepository.exists(uri, RepositoryMode.MAIN);
         }
         catch (MetadataRepositoryException exc) {
             throw new MetadataServiceException(exc.getMessage());
@@ -103,7 +122,6 @@ public class MetadataStateService {
         result.setCurrent(getState(entityUri));
 
         // 3. Get metadata info for children
-        // TODO: make querying more efficient (query published and drafts, in 2 queries)
         final List<String> childrenUris = new ArrayList<>();
         for (ResourceDefinitionChild rdChild : definition.getChildren()) {
             final IRI relationUri = i(rdChild.getRelationUri());
@@ -127,9 +145,15 @@ public class MetadataStateService {
     public void modifyState(IRI entityUri, MetaStateChangeDTO reqDto)
             throws MetadataServiceException, ValidationException {
         try {
+            // Parents render their published children, so their cached responses change as well
+            final IRI parent = getParent(
+                    new LinkedHashModel(metadataRepository.find(entityUri, RepositoryMode.COMBINED)));
             if (isDraft(entityUri)) {
                 if (reqDto.getCurrent().equals(MetadataState.PUBLISHED)) {
                     metadataRepository.moveToMain(entityUri);
+                    metadataStateIndex.put(entityUri, MetadataState.PUBLISHED);
+                    metadataResponseCache.evict(entityUri);
+                    refreshParent(parent);
                 }
                 else {
                     throw new ValidationException("You can not change state to DRAFT");
@@ -138,6 +162,9 @@ public class MetadataStateService {
             else {
                 if (reqDto.getCurrent().equals(MetadataState.DRAFT)) {
                     metadataRepository.moveToDrafts(entityUri);
+                    metadataStateIndex.put(entityUri, MetadataState.DRAFT);
+                    metadataResponseCache.evict(entityUri);
+                    refreshParent(parent);
                 }
                 else {
                     throw new ValidationException("Metadata is already published");
@@ -148,4 +175,12 @@ public class MetadataStateService {
             throw new MetadataServiceException(exc.getMessage());
         }
     }
+
+    private void refreshParent(IRI parent) throws MetadataRepositoryException {
+        if (parent != null) {
+            metadataRepository.afterCommit(() -> metadataResponseCache.evict(parent));
+            // the parent's children changed, so its ETag has to change too
+            metadataTouchService.touch(parent);
+        }
+    }
 }
@@ -0,0 +1,213 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.touch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.database.db.repository.MetadataTouchRepository;
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.fairdatapoint.database.rdf.repository.common.MetadataRepository;
+import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.entity.metadata.MetadataTouch;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
+import org.fairdatapoint.vocabulary.FDP;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.fairdatapoint.util.ValueFactoryHelper.s;
+
+/**
+ * Propagates modification timestamps to parents and their ancestors.
+ *
+ * <p>Touches are recorded durably in the database and coalesced per record; a scheduled flush then writes
+ * one {@code fdp:metadataModified} per affected record and its ancestors. Until the flush, pending
+ * timestamps are overlaid on reads served by this instance.</p>
+ */
+@Slf4j
+@Service
+public class MetadataTouchService {
+
+    @Autowired
+    @Qualifier("genericMetadataRepository")
+    private MetadataRepository metadataRepository;
+
+    @Autowired
+    private MetadataTouchRepository metadataTouchRepository;
+
+    @Autowired
+    private MetadataStateIndex metadataStateIndex;
+
+    @Autowired
+    private MetadataResponseCache metadataResponseCache;
+
+    private final Map<IRI, OffsetDateTime> pending = new ConcurrentHashMap<>();
+
+    public void touch(IRI uri) throws MetadataRepositoryException {
+        final List<IRI> lineage = getLineage(uri);
+        // touches of rolled back changes must not be flushed
+        metadataRepository.afterCommit(() -> {
+            // database keeps microseconds, the overlay has to match flushed values exactly
+            final OffsetDateTime timestamp = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            metadataTouchRepository.touch(uri.stringValue(), timestamp.toInstant());
+            for (IRI ancestor : lineage) {
+                pending.merge(ancestor, timestamp, MetadataTouchService::latest);
+                metadataResponseCache.evict(ancestor);
+            }
+        });
+    }
+
+    public Optional<OffsetDateTime> getPending(IRI uri) {
+        return Optional.ofNullable(pending.get(uri));
+    }
+
+    public void applyPending(IRI uri, Model metadata) {
+        final OffsetDateTime timestamp = pending.get(uri);
+        if (timestamp == null || metadata.isEmpty()) {
+            return;
+        }
+        final Optional<OffsetDateTime> stored = Models
+                .getProperty(metadata, uri, FDP.METADATAMODIFIED)
+                .flatMap(MetadataTouchService::toTimestamp);
+        if (stored.isPresent() && !stored.get().isBefore(timestamp)) {
+            return;
+        }
+        metadata.remove(uri, FDP.METADATAMODIFIED, null);
+        metadata.add(uri, FDP.METADATAMODIFIED, l(timestamp));
+    }
+
+    public void clear() {
+        metadataTouchRepository.deleteAll();
+        pending.clear();
+    }
+
+    @Scheduled(
+            initialDelayString = "${metadataProperties.touchInterval:PT5S}",
+            fixedDelayString = "${metadataProperties.touchInterval:PT5S}"
+    )
+    public void flush() {
+        final OffsetDateTime snapshot = OffsetDateTime.now();
+        final List<MetadataTouch> touches = metadataTouchRepository.findAll();
+        try {
+            // 1. Coalesce touched records and their ancestors
+            final Map<IRI, OffsetDateTime> targets = new LinkedHashMap<>();
+            for (MetadataTouch touch : touches) {
+                final OffsetDateTime timestamp = touch.getTouchedAt().atOffset(ZoneOffset.UTC);
+                for (IRI ancestor : getLineage(i(touch.getUri()))) {
+                    targets.merge(ancestor, timestamp, MetadataTouchService::latest);
+                }
+            }
+            // Overlay entries without a touch row were flushed by another node
+            pending.entrySet().removeIf(entry ->
+                    !targets.containsKey(entry.getKey()) && entry.getValue().isBefore(snapshot));
+            if (touches.isEmpty()) {
+                return;
+            }
+
+            // 2. Write each timestamp once
+            metadataRepository.inTransaction(RepositoryMode.COMBINED, () -> {
+                for (Map.Entry<IRI, OffsetDateTime> target : targets.entrySet()) {
+                    write(target.getKey(), target.getValue());
+                }
+                return null;
+            });
+
+            // 3. Drop flushed touches (newer ones stay pending)
+            for (MetadataTouch touch : touches) {
+                metadataTouchRepository.deleteFlushed(touch.getUri(), touch.getTouchedAt());
+            }
+            targets.forEach((uri, timestamp) -> pending.computeIfPresent(
+                    uri, (key, value) -> value.isAfter(timestamp) ? value : null
+            ));
+            log.debug("Flushed {} metadata touches to {} records", touches.size(), targets.size());
+        }
+        catch (MetadataRepositoryException exception) {
+            log.warn("Failed to flush metadata touches: {}", exception.getMessage());
+        }
+    }
+
+    private void write(IRI uri, OffsetDateTime timestamp) throws MetadataRepositoryException {
+        final Optional<RepositoryMode> oMode = metadataStateIndex.findMode(uri);
+        if (oMode.isEmpty()) {
+            // record was deleted meanwhile
+            return;
+        }
+        final RepositoryMode mode = oMode.get();
+        final Optional<OffsetDateTime> current = metadataRepository
+                .findObject(uri, FDP.METADATAMODIFIED, uri, mode)
+                .flatMap(MetadataTouchService::toTimestamp);
+        if (current.isPresent() && !current.get().isBefore(timestamp)) {
+            return;
+        }
+        metadataRepository.removeStatement(uri, FDP.METADATAMODIFIED, null, uri, mode);
+        metadataRepository.save(List.of(s(uri, FDP.METADATAMODIFIED, l(timestamp))), uri, mode);
+        metadataRepository.afterCommit(() -> metadataResponseCache.evict(uri));
+    }
+
+    private List<IRI> getLineage(IRI uri) throws MetadataRepositoryException {
+        final List<IRI> lineage = new ArrayList<>();
+        final Set<IRI> visited = new HashSet<>();
+        IRI current = uri;
+        while (current != null && visited.add(current)) {
+            lineage.add(current);
+            current = metadataRepository
+                    .findObject(current, DCTERMS.IS_PART_OF, current, RepositoryMode.COMBINED)
+                    .filter(IRI.class::isInstance)
+                    .map(IRI.class::cast)
+                    .orElse(null);
+        }
+        return lineage;
+    }
+
+    private static Optional<OffsetDateTime> toTimestamp(Value value) {
+        if (value instanceof Literal literal) {
+            try {
+                return Optional.of(OffsetDateTime.parse(literal.getLabel()));
+            }
+            catch (DateTimeParseException exception) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static OffsetDateTime latest(OffsetDateTime first, OffsetDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
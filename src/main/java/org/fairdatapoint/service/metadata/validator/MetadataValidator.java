@@ -28,9 +28,8 @@ import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryExc
 import org.fairdatapoint.entity.exception.ValidationException;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
-import org.fairdatapoint.service.rdf.ShaclValidator;
 import org.fairdatapoint.service.resource.ResourceDefinitionService;
-import org.fairdatapoint.service.schema.MetadataSchemaService;
+import org.fairdatapoint.service.schema.MetadataSchemaShaclCache;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
@@ -38,6 +37,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static java.lang.String.format;
 import static org.fairdatapoint.entity.metadata.MetadataGetter.getParent;
 import static org.fairdatapoint.util.ValueFactoryHelper.i;
@@ -50,24 +52,31 @@ public class MetadataValidator {
     private MetadataRepository metadataRepository;
 
     @Autowired
-    private ShaclValidator shaclValidator;
-
-    @Autowired
-    private MetadataSchemaService metadataSchemaService;
+    private MetadataSchemaShaclCache metadataSchemaShaclCache;
 
     @Autowired
     private ResourceDefinitionService resourceDefinitionService;
 
     public void validate(Model metadata, IRI uri, ResourceDefinition definition) throws MetadataServiceException {
+        validate(metadata, uri, definition, new HashSet<>());
+    }
+
+    public void validate(
+            Model metadata, IRI uri, ResourceDefinition definition, Set<IRI> validParents
+    ) throws MetadataServiceException {
         validateByShacl(metadata, uri);
         if (!definition.getUrlPrefix().isEmpty()) {
-            validateParent(metadata, definition);
+            // parents shared by many records (e.g. in a bulk import) are checked only once
+            final IRI parent = getParent(metadata);
+            if (parent == null || !validParents.contains(parent)) {
+                validateParent(metadata, definition);
+                validParents.add(parent);
+            }
         }
     }
 
     private void validateByShacl(Model metadata, IRI uri) {
-        final Model shacl = metadataSchemaService.getShaclFromSchemas();
-        shaclValidator.validate(shacl, metadata, uri.stringValue());
+        metadataSchemaShaclCache.getValidator().validate(metadata, uri.stringValue());
     }
 
     private void validateParent(Model metadata, ResourceDefinition definition) throws MetadataServiceException {
@@ -0,0 +1,105 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.rdf;
+
+import org.fairdatapoint.entity.exception.RdfValidationException;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SHACL validator with shapes already loaded; validation repositories are pooled and reused,
+ * so only the validated data is loaded per validation.
+ */
+public class PreparedShaclValidator implements AutoCloseable {
+
+    private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    private final Model shacl;
+
+    private final Queue<SailRepository> idle = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    PreparedShaclValidator(Model shacl) {
+        this.shacl = shacl;
+    }
+
+    public void validate(Model data, String baseUri) {
+        final SailRepository repository = borrow();
+        boolean reusable = false;
+        try {
+            ShaclValidator.validate(repository, data, baseUri);
+            reusable = true;
+        }
+        catch (RdfValidationException exception) {
+            reusable = true;
+            throw exception;
+        }
+        finally {
+            release(repository, reusable);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        SailRepository repository = idle.poll();
+        while (repository != null) {
+            idleCount.decrementAndGet();
+            repository.shutDown();
+            repository = idle.poll();
+        }
+    }
+
+    private SailRepository borrow() {
+        final SailRepository repository = idle.poll();
+        if (repository == null) {
+            return ShaclValidator.createRepository(shacl);
+        }
+        idleCount.decrementAndGet();
+        return repository;
+    }
+
+    private void release(SailRepository repository, boolean reusable) {
+        if (!reusable || closed) {
+            repository.shutDown();
+            return;
+        }
+        if (idleCount.incrementAndGet() > MAX_IDLE) {
+            idleCount.decrementAndGet();
+            repository.shutDown();
+            return;
+        }
+        idle.offer(repository);
+        if (closed) {
+            // closed concurrently
+            close();
+        }
+    }
+}
@@ -42,23 +42,48 @@ import static org.fairdatapoint.util.ValueFactoryHelper.i;
 public class ShaclValidator {
 
     public void validate(Model shacl, Model data, String baseUri) {
+        try (PreparedShaclValidator validator = prepare(shacl)) {
+            validator.validate(data, baseUri);
+        }
+    }
+
+    public PreparedShaclValidator prepare(Model shacl) {
+        return new PreparedShaclValidator(shacl);
+    }
+
+    static SailRepository createRepository(Model shacl) {
         // 1. Prepare repository
         final ShaclSail shaclSail = new ShaclSail(new MemoryStore());
         shaclSail.setRdfsSubClassReasoning(true);
         final SailRepository sailRepository = new SailRepository(shaclSail);
         sailRepository.init();
 
+        // 2. Save SHACL
         try (SailRepositoryConnection connection = sailRepository.getConnection()) {
-            // 2. Save SHACL
             connection.begin();
             connection.add(shacl, RDF4J.SHACL_SHAPE_GRAPH);
             connection.commit();
+        }
+        catch (RepositoryException exception) {
+            sailRepository.shutDown();
+            throw new ValidationException("Validation failed (invalid SHACL shapes)");
+        }
+        return sailRepository;
+    }
 
-            // 3. Validate data
+    static void validate(SailRepository sailRepository, Model data, String baseUri) {
+        try (SailRepositoryConnection connection = sailRepository.getConnection()) {
+            // 3. Validate data (without storing it)
             connection.begin();
-            connection.add(new ArrayList<>(data), i(baseUri));
-            connection.commit();
-
+            try {
+                connection.add(new ArrayList<>(data), i(baseUri));
+                connection.prepare();
+            }
+            finally {
+                if (connection.isActive()) {
+                    connection.rollback();
+                }
+            }
         }
         catch (RepositoryException exception) {
             final Throwable cause = exception.getCause();
@@ -69,9 +94,6 @@ public class ShaclValidator {
             }
             throw new ValidationException("Validation failed (unsupported exception)");
         }
-        finally {
-            shaclSail.shutDown();
-        }
     }
 
 }
@@ -25,11 +25,17 @@ package org.fairdatapoint.service.reset;
 import lombok.extern.slf4j.Slf4j;
 import org.fairdatapoint.api.dto.reset.ResetDTO;
 import org.fairdatapoint.database.db.repository.*;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
+import org.fairdatapoint.database.rdf.repository.search.MetadataSearchIndex;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.service.metadata.exception.MetadataServiceException;
 import org.fairdatapoint.service.metadata.generic.GenericMetadataService;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
 import org.fairdatapoint.service.resource.ResourceDefinitionCache;
 import org.fairdatapoint.service.resource.ResourceDefinitionTargetClassesCache;
+import org.fairdatapoint.service.schema.MetadataSchemaShaclCache;
+import org.fairdatapoint.service.security.AuthenticationCache;
 import org.fairdatapoint.service.settings.SettingsService;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
@@ -95,12 +101,30 @@ public class ResetService {
     @Autowired
     private ResourceDefinitionTargetClassesCache resourceDefinitionTargetClassesCache;
 
+    @Autowired
+    private MetadataSchemaShaclCache metadataSchemaShaclCache;
+
     @Autowired
     private GenericMetadataService genericMetadataService;
 
     @Autowired
     private SettingsService settingsService;
 
+    @Autowired
+    private MetadataStateIndex metadataStateIndex;
+
+    @Autowired
+    private MetadataTouchService metadataTouchService;
+
+    @Autowired
+    private MetadataSearchIndex metadataSearchIndex;
+
+    @Autowired
+    private MetadataFacetIndex metadataFacetIndex;
+
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     @PreAuthorize("hasRole('ADMIN')")
     public void resetToFactoryDefaults(ResetDTO reqDto) throws Exception {
         log.info("Resetting to factory defaults");
@@ -115,10 +139,15 @@ public class ResetService {
             clearApiKeys();
             clearUsers();
             restoreDefaultUsers();
+            authenticationCache.clear();
         }
         if (reqDto.isMetadata()) {
             clearMetadata();
+            metadataTouchService.clear();
             restoreDefaultMetadata();
+            metadataStateIndex.rebuild();
+            metadataSearchIndex.rebuild();
+            metadataFacetIndex.rebuild();
         }
         if (reqDto.isResourceDefinitions()) {
             clearResourceDefinitions();
@@ -128,6 +157,7 @@ public class ResetService {
         }
         resourceDefinitionCache.computeCache();
         resourceDefinitionTargetClassesCache.computeCache();
+        metadataSchemaShaclCache.invalidate();
     }
 
     private void clearApiKeys() {
@@ -23,90 +23,115 @@
 package org.fairdatapoint.service.resource;
 
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
-import org.fairdatapoint.database.db.repository.ResourceDefinitionChildRepository;
-import org.fairdatapoint.database.db.repository.ResourceDefinitionRepository;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
-import org.springframework.cache.Cache;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.fairdatapoint.entity.resource.ResourceDefinitionChild;
+import org.fairdatapoint.service.metadata.render.MetadataResponseCache;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static org.fairdatapoint.config.CacheConfig.RESOURCE_DEFINITION_CACHE;
-import static org.fairdatapoint.config.CacheConfig.RESOURCE_DEFINITION_PARENT_CACHE;
 
+/**
+ * Registry of fully initialised resource definitions; lookups are served from an immutable snapshot
+ * that is swapped as a whole when definitions change (after commit if called within a transaction).
+ */
 @Service
 @RequiredArgsConstructor
 public class ResourceDefinitionCache {
 
-    private final ConcurrentMapCacheManager cacheManager;
+    private static final String QUERY_ALL = "SELECT rd FROM ResourceDefinition rd";
+
+    private final EntityManagerFactory entityManagerFactory;
 
-    private final ResourceDefinitionRepository resourceDefinitionRepository;
+    private final MetadataResponseCache metadataResponseCache;
 
-    private final ResourceDefinitionChildRepository resourceDefinitionChildRepository;
+    private volatile Snapshot snapshot = Snapshot.of(Collections.emptyList());
 
     @PostConstruct
     public void computeCache() {
-        // Get cache
-        final Cache cache = cache();
-        final Cache parentCache = parentCache();
-
-        // Clear cache
-        cache.clear();
-        parentCache.clear();
-
-        // Add to cache
-        resourceDefinitionChildRepository.getAllMappings()
-                        .forEach(mapping -> {
-                            if (parentCache.get(mapping.getTargetUuid(), ResourceDefinitionParents.class) == null) {
-                                parentCache.put(mapping.getTargetUuid(), new ResourceDefinitionParents());
-                            }
-                            parentCache
-                                    .get(mapping.getTargetUuid(), ResourceDefinitionParents.class)
-                                    .add(mapping.getSourceUuid());
-                        });
-
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        }
+        else {
+            rebuild();
+        }
     }
 
     public ResourceDefinition getByUuid(UUID uuid) {
-        // TODO: not needed anymore?
-        return resourceDefinitionRepository.findByUuid(uuid).orElse(null);
+        return snapshot.byUuid().get(uuid);
     }
 
-    public Set<ResourceDefinition> getParentsByUuid(UUID uuid) {
-        // TODO: not needed anymore?
-        var parents = parentCache().get(uuid, ResourceDefinitionParents.class);
-        if (parents == null) {
-            computeCache();
-            parents = parentCache().get(uuid, ResourceDefinitionParents.class);
-            if (parents == null) {
-                return Collections.emptySet();
-            }
-        }
-        return parents.getParents()
-                .stream()
-                .map(parentUuid -> resourceDefinitionRepository.findByUuid(parentUuid).orElse(null))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+    public Optional<ResourceDefinition> getByUrlPrefix(String urlPrefix) {
+        return Optional.ofNullable(snapshot.byUrlPrefix().get(urlPrefix));
     }
 
-    private Cache cache() {
-        return cacheManager.getCache(RESOURCE_DEFINITION_CACHE);
+    public Set<ResourceDefinition> getParentsByUuid(UUID uuid) {
+        return snapshot.parentsByUuid().getOrDefault(uuid, Collections.emptySet());
     }
 
-    private Cache parentCache() {
-        return cacheManager.getCache(RESOURCE_DEFINITION_PARENT_CACHE);
+    public List<ResourceDefinition> getAll() {
+        return snapshot.all();
     }
 
-    @Getter
-    private static final class ResourceDefinitionParents {
-        private final Set<UUID> parents = new HashSet<>();
+    private void rebuild() {
+        // 1. Load all definitions with a dedicated (short-lived) persistence context
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final List<ResourceDefinition> definitions = entityManager
+                    .createQuery(QUERY_ALL, ResourceDefinition.class)
+                    .getResultList();
+
+            // 2. Initialise the whole graph so that no lazy loading is needed once detached
+            definitions.forEach(definition -> {
+                Hibernate.initialize(definition.getChildren());
+                definition.getChildren().forEach(child -> Hibernate.initialize(child.getMetadata()));
+                Hibernate.initialize(definition.getParents());
+                Hibernate.initialize(definition.getExternalLinks());
+                Hibernate.initialize(definition.getMetadataSchemaUsages());
+            });
+
+            // 3. Swap snapshot
+            snapshot = Snapshot.of(definitions);
+        }
+        finally {
+            entityManager.close();
+        }
+        metadataResponseCache.clear();
+    }
 
-        public void add(UUID rdParent) {
-            parents.add(rdParent);
+    private record Snapshot(
+            List<ResourceDefinition> all,
+            Map<UUID, ResourceDefinition> byUuid,
+            Map<String, ResourceDefinition> byUrlPrefix,
+            Map<UUID, Set<ResourceDefinition>> parentsByUuid
+    ) {
+
+        private static Snapshot of(List<ResourceDefinition> definitions) {
+            final Map<UUID, ResourceDefinition> byUuid = new HashMap<>();
+            final Map<String, ResourceDefinition> byUrlPrefix = new HashMap<>();
+            final Map<UUID, Set<ResourceDefinition>> parentsByUuid = new HashMap<>();
+            for (ResourceDefinition definition : definitions) {
+                byUuid.put(definition.getUuid(), definition);
+                byUrlPrefix.put(definition.getUrlPrefix(), definition);
+                for (ResourceDefinitionChild child : definition.getChildren()) {
+                    parentsByUuid
+                            .computeIfAbsent(child.getTarget().getUuid(), uuid -> new LinkedHashSet<>())
+                            .add(definition);
+                }
+            }
+            parentsByUuid.replaceAll((uuid, parents) -> Collections.unmodifiableSet(parents));
+            return new Snapshot(List.copyOf(definitions), Map.copyOf(byUuid), Map.copyOf(byUrlPrefix),
+                    Map.copyOf(parentsByUuid));
         }
     }
 }
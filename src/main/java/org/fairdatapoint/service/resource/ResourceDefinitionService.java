@@ -85,15 +85,15 @@ public class ResourceDefinitionService {
     }
 
     public List<ResourceDefinitionDTO> getAll() {
-        return resourceDefinitionRepository
-                .findAll()
+        return resourceDefinitionCache
+                .getAll()
                 .stream()
                 .map(this::toDTO)
                 .toList();
     }
 
     public Optional<ResourceDefinition> getByUuid(UUID uuid) {
-        return resourceDefinitionRepository.findByUuid(uuid);
+        return Optional.ofNullable(resourceDefinitionCache.getByUuid(uuid));
     }
 
     public ResourceDefinition getByUuidOrThrow(UUID uuid) {
@@ -122,13 +122,11 @@ public class ResourceDefinitionService {
     }
 
     public ResourceDefinition getByUrlPrefix(String urlPrefix) {
-        final Optional<ResourceDefinition> definition = resourceDefinitionRepository.findByUrlPrefix(urlPrefix);
-        if (definition.isEmpty()) {
-            throw new ResourceNotFoundException(
-                    format("Resource with provided uri prefix ('%s') is not defined", urlPrefix)
-            );
-        }
-        return definition.get();
+        return resourceDefinitionCache
+                .getByUrlPrefix(urlPrefix)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        format("Resource with provided uri prefix ('%s') is not defined", urlPrefix)
+                ));
     }
 
     @Transactional
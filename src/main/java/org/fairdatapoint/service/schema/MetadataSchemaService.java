@@ -36,9 +36,7 @@ import org.fairdatapoint.entity.exception.ValidationException;
 import org.fairdatapoint.entity.resource.MetadataSchemaUsage;
 import org.fairdatapoint.entity.schema.*;
 import org.fairdatapoint.service.resource.ResourceDefinitionTargetClassesCache;
-import org.fairdatapoint.util.RdfIOUtil;
 import org.eclipse.rdf4j.model.Model;
-import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -52,6 +50,7 @@ import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toMap;
+import static org.fairdatapoint.service.schema.MetadataSchemaShaclUtils.mergeSchemaDefinitions;
 
 @Slf4j
 @Service
@@ -75,6 +74,8 @@ public class MetadataSchemaService {
 
     private final ResourceDefinitionTargetClassesCache targetClassesCache;
 
+    private final MetadataSchemaShaclCache shaclCache;
+
     private final String persistentUrl;
 
     private final EntityManager entityManager;
@@ -201,6 +202,7 @@ public class MetadataSchemaService {
         versionRepository.save(newLatest);
         // Update cache
         targetClassesCache.computeCache();
+        shaclCache.invalidate();
         final List<MetadataSchemaVersion> versions = versionRepository.getBySchemaUuid(uuid);
         final List<MetadataSchemaVersion> childs = extensionRepository
                 .findByExtendedMetadataSchema(newLatest.getSchema())
@@ -243,6 +245,7 @@ public class MetadataSchemaService {
         // result
         final MetadataSchemaVersion updatedSchema =
                 versionRepository.saveAndFlush(metadataSchemaMapper.fromUpdateDTO(schema, reqDto));
+        shaclCache.invalidate();
         return of(metadataSchemaMapper.toVersionDTO(updatedSchema));
     }
 
@@ -282,6 +285,7 @@ public class MetadataSchemaService {
             extensionRepository.deleteAll(schema.getSchema().getExtensions());
             schemaRepository.delete(schema.getSchema());
         }
+        shaclCache.invalidate();
         return true;
     }
 
@@ -307,6 +311,7 @@ public class MetadataSchemaService {
         entityManager.flush();
         // Update cache
         targetClassesCache.computeCache();
+        shaclCache.invalidate();
         return true;
     }
 
@@ -390,10 +395,6 @@ public class MetadataSchemaService {
         return of(mergeSchemaDefinitions(schemas));
     }
 
-    public Model getShaclFromSchemas() {
-        return mergeSchemaDefinitions(versionRepository.findAllByState(MetadataSchemaState.LATEST));
-    }
-
     public Model getShaclFromSchemas(MetadataSchemaPreviewRequestDTO reqDto) {
         return getShaclFromSchemas(reqDto.getMetadataSchemaUuids());
     }
@@ -459,14 +460,6 @@ public class MetadataSchemaService {
         return result;
     }
 
-    private Model mergeSchemaDefinitions(List<MetadataSchemaVersion> schemas) {
-        final Model model = new LinkedHashModel();
-        schemas.stream()
-                .map(schema -> RdfIOUtil.read(schema.getDefinition(), ""))
-                .forEach(schemaModel -> model.addAll(new ArrayList<>(schemaModel)));
-        return model;
-    }
-
     // ===============================================================================================
     // Importing and sharing
 
@@ -570,6 +563,7 @@ public class MetadataSchemaService {
         });
         entityManager.flush();
         entityManager.clear();
+        shaclCache.invalidate();
     }
 
     @Transactional
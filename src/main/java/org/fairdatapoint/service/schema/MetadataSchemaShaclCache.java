@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.schema;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fairdatapoint.database.db.repository.MetadataSchemaVersionRepository;
+import org.fairdatapoint.entity.schema.MetadataSchemaState;
+import org.fairdatapoint.service.rdf.PreparedShaclValidator;
+import org.fairdatapoint.service.rdf.ShaclValidator;
+import org.eclipse.rdf4j.model.Model;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MetadataSchemaShaclCache {
+
+    private final MetadataSchemaVersionRepository versionRepository;
+
+    private final ShaclValidator shaclValidator;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Entry current;
+
+    public PreparedShaclValidator getValidator() {
+        final Entry entry = current;
+        if (entry != null && entry.version() == version.get()) {
+            return entry.validator();
+        }
+        return rebuild();
+    }
+
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+        else {
+            version.incrementAndGet();
+        }
+    }
+
+    private synchronized PreparedShaclValidator rebuild() {
+        // 1. Check if not rebuilt meanwhile
+        final long currentVersion = version.get();
+        final Entry entry = current;
+        if (entry != null && entry.version() == currentVersion) {
+            return entry.validator();
+        }
+
+        // 2. Merge definitions of latest schemas and prepare validator
+        final Model shacl = MetadataSchemaShaclUtils.mergeSchemaDefinitions(
+                versionRepository.findAllByState(MetadataSchemaState.LATEST)
+        );
+        current = new Entry(currentVersion, shaclValidator.prepare(shacl));
+        log.debug("SHACL shapes of latest metadata schemas prepared (version {})", currentVersion);
+
+        // 3. Dispose previous validator (in-flight validations finish with it)
+        if (entry != null) {
+            entry.validator().close();
+        }
+        return current.validator();
+    }
+
+    private record Entry(long version, PreparedShaclValidator validator) {
+    }
+}
@@ -22,13 +22,17 @@
  */
 package org.fairdatapoint.service.schema;
 
+import org.fairdatapoint.entity.schema.MetadataSchemaVersion;
 import org.fairdatapoint.util.RdfIOUtil;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.vocabulary.SHACL;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -47,6 +51,14 @@ public class MetadataSchemaShaclUtils {
                 .collect(Collectors.toSet());
     }
 
+    public static Model mergeSchemaDefinitions(Collection<MetadataSchemaVersion> schemas) {
+        final Model model = new LinkedHashModel();
+        schemas.stream()
+                .map(schema -> RdfIOUtil.read(schema.getDefinition(), ""))
+                .forEach(schemaModel -> model.addAll(new ArrayList<>(schemaModel)));
+        return model;
+    }
+
     private static boolean isRootNodeOfTargetClass(Model model, String iri) {
         final IRI resource = i(iri);
         for (Resource subject : model.filter(null, SHACL.TARGET_CLASS, resource).subjects()) {
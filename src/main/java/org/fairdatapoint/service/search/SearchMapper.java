@@ -92,6 +92,7 @@ public class SearchMapper {
                 .value(value.getValue())
                 .label(value.getLabel())
                 .preset(false)
+                .count(value.getCount())
                 .build();
     }
 
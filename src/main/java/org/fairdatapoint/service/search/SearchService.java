@@ -24,18 +24,21 @@ package org.fairdatapoint.service.search;
 
 import com.google.common.io.Resources;
 import lombok.RequiredArgsConstructor;
+import org.fairdatapoint.api.dto.label.LabelDTO;
 import org.fairdatapoint.api.dto.search.*;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
 import org.fairdatapoint.database.rdf.repository.generic.GenericMetadataRepository;
-import org.fairdatapoint.entity.search.SearchFilterCacheContainer;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
 import org.fairdatapoint.entity.search.SearchFilterType;
 import org.fairdatapoint.entity.search.SearchFilterValue;
 import org.fairdatapoint.entity.search.SearchResult;
 import org.fairdatapoint.entity.settings.SettingsSearchFilter;
+import org.fairdatapoint.service.label.LabelService;
 import org.fairdatapoint.service.metadata.state.MetadataStateService;
 import org.fairdatapoint.service.settings.SettingsService;
 import org.apache.commons.lang.text.StrSubstitutor;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -59,6 +62,8 @@ public class SearchService {
 
     private static final String QUERY_TEMPLATE_NAME = "queryTemplate.sparql";
 
+    private static final String LABEL_LANG = "en";
+
     private static final String QUERY_TEMPLATE = loadSparqlQueryTemplate();
 
     private final GenericMetadataRepository metadataRepository;
@@ -69,7 +74,9 @@ public class SearchService {
 
     private final SettingsService settingsService;
 
-    private final SearchFilterCache searchFilterCache;
+    private final MetadataFacetIndex metadataFacetIndex;
+
+    private final LabelService labelService;
 
     @Qualifier("persistentUrl")
     private final String persistentUrl;
@@ -107,56 +114,73 @@ public class SearchService {
                 .getOrDefaults()
                 .getSearchFilters()
                 .parallelStream()
-                .map(this::enrichItems)
+                .map(filter -> enrichItems(filter, metadataFacetIndex.getValues(filter.getPredicate())))
+                .toList();
+    }
+
+    public List<SearchFilterDTO> getSearchFacets(SearchQueryDTO reqDto) throws MetadataRepositoryException {
+        final List<IRI> uris = search(reqDto)
+                .stream()
+                .map(result -> i(result.getUri()))
+                .toList();
+        return settingsService
+                .getOrDefaults()
+                .getSearchFilters()
+                .parallelStream()
+                .map(filter -> enrichItems(filter, metadataFacetIndex.getValues(filter.getPredicate(), uris)))
                 .toList();
     }
 
     public List<SearchFilterDTO> resetSearchFilters() {
-        searchFilterCache.clearCache();
+        metadataFacetIndex.rebuild();
         return getSearchFilters();
     }
 
-    private SearchFilterDTO enrichItems(SettingsSearchFilter filter) {
+    private SearchFilterDTO enrichItems(SettingsSearchFilter filter, List<SearchFilterValue> facetValues) {
         final SearchFilterDTO result = searchMapper.toFilterDTO(filter);
-        final Set<String> values =
-                result
-                        .getValues()
-                        .stream()
-                        .map(SearchFilterItemDTO::getValue)
-                        .collect(Collectors.toSet());
+        final Map<String, Integer> counts = facetValues
+                .stream()
+                .collect(Collectors.toMap(SearchFilterValue::getValue, SearchFilterValue::getCount));
+        result.getValues().forEach(item -> item.setCount(counts.getOrDefault(item.getValue(), 0)));
         if (filter.getQueryRecords()) {
+            final Set<String> values =
+                    result
+                            .getValues()
+                            .stream()
+                            .map(SearchFilterItemDTO::getValue)
+                            .collect(Collectors.toSet());
             final List<SearchFilterItemDTO> xvalues = new ArrayList<>();
             xvalues.addAll(result.getValues());
             xvalues.addAll(
-                queryFilterItems(filter.getPredicate())
+                facetValues
                     .stream()
                     .filter(item -> !values.contains(item.getValue()))
                     .map(searchMapper::toFilterItemDTO)
                     .toList()
             );
             if (filter.getType().equals(SearchFilterType.IRI)) {
-                searchFilterCache.updateLabels(filter.getPredicate());
+                updateLabels(xvalues);
             }
             result.setValues(xvalues);
         }
         return result;
     }
 
-    private List<SearchFilterValue> queryFilterItems(String predicate) {
-        final SearchFilterCacheContainer cacheContainer =
-                searchFilterCache.getFilter(predicate);
-        if (cacheContainer != null) {
-            return cacheContainer.getValues();
-        }
-        try {
-            final List<SearchFilterValue> result =
-                    metadataRepository.findByFilterPredicate(i(predicate), RepositoryMode.MAIN);
-            searchFilterCache.setFilter(predicate, new SearchFilterCacheContainer(result));
-            return result;
-        }
-        catch (MetadataRepositoryException exception) {
-            throw new RuntimeException(exception);
+    private void updateLabels(List<SearchFilterItemDTO> items) {
+        final List<String> unlabeled = items
+                .stream()
+                .filter(item -> item.getLabel() == null)
+                .map(SearchFilterItemDTO::getValue)
+                .toList();
+        if (unlabeled.isEmpty()) {
+            return;
         }
+        final Map<String, LabelDTO> labels = labelService.getLabels(unlabeled, LABEL_LANG);
+        items.forEach(item -> {
+            if (item.getLabel() == null && labels.containsKey(item.getValue())) {
+                item.setLabel(labels.get(item.getValue()).getLabel());
+            }
+        });
     }
 
     private List<SearchResultDTO> processSearchResults(List<SearchResult> results) {
@@ -0,0 +1,104 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.security;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.fairdatapoint.config.CacheConfig.AUTHENTICATION_CACHE;
+
+/**
+ * Short-lived cache of resolved authentications keyed by a hash of the bearer token (JWT or API key).
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthenticationCache {
+
+    private final ConcurrentMapCacheManager cacheManager;
+
+    // Keys cached for each user, so that a change of the user evicts only their tokens
+    private final Map<UUID, Set<String>> keysByUser = new ConcurrentHashMap<>();
+
+    public Optional<Authentication> get(String token) {
+        final String key = toKey(token);
+        final CachedAuthentication entry = cache().get(key, CachedAuthentication.class);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt() != null && !entry.expiresAt().isAfter(Instant.now())) {
+            cache().evict(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.authentication());
+    }
+
+    public void put(String token, UUID userUuid, Authentication authentication, Instant expiresAt) {
+        final String key = toKey(token);
+        cache().put(key, new CachedAuthentication(authentication, expiresAt));
+        keysByUser.compute(userUuid, (uuid, keys) -> {
+            final Set<String> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            // Keys dropped by the bounded cache itself are pruned here
+            result.removeIf(cachedKey -> cache().get(cachedKey) == null);
+            result.add(key);
+            return result;
+        });
+    }
+
+    public void evict(String token) {
+        cache().evict(toKey(token));
+    }
+
+    public void evictUser(UUID userUuid) {
+        final Set<String> keys = keysByUser.remove(userUuid);
+        if (keys != null) {
+            keys.forEach(cache()::evict);
+        }
+    }
+
+    public void clear() {
+        keysByUser.clear();
+        cache().clear();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(AUTHENTICATION_CACHE);
+    }
+
+    private static String toKey(String token) {
+        return DigestUtils.sha256Hex(token);
+    }
+
+    private record CachedAuthentication(Authentication authentication, Instant expiresAt) {
+    }
+}
@@ -29,17 +29,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Optional;
 import java.util.UUID;
 
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
 
 @Service
 @RequiredArgsConstructor
 public class CurrentUserService {
 
+    private static final String CURRENT_USER_ATTRIBUTE = CurrentUserService.class.getName() + ".currentUser";
+
     private final UserAccountRepository userAccountRepository;
 
     public Optional<UUID> getCurrentUserUuid() {
@@ -64,6 +69,28 @@ public class CurrentUserService {
     }
 
     public Optional<UserAccount> getCurrentUser() {
-        return getCurrentUserUuid().flatMap(userAccountRepository::findByUuid);
+        final Optional<UUID> oUuid = getCurrentUserUuid();
+        if (oUuid.isEmpty()) {
+            return empty();
+        }
+        final UUID uuid = oUuid.get();
+
+        // Outside of web requests (async tasks, migrations) there is nothing to memoise in
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return userAccountRepository.findByUuid(uuid);
+        }
+
+        // Within a request, the user is loaded (with its API keys) only once
+        if (attributes.getAttribute(CURRENT_USER_ATTRIBUTE, SCOPE_REQUEST) instanceof CurrentUser current
+                && current.uuid().equals(uuid)) {
+            return Optional.ofNullable(current.user());
+        }
+        final Optional<UserAccount> user = userAccountRepository.findWithApiKeysByUuid(uuid);
+        attributes.setAttribute(CURRENT_USER_ATTRIBUTE, new CurrentUser(uuid, user.orElse(null)), SCOPE_REQUEST);
+        return user;
+    }
+
+    private record CurrentUser(UUID uuid, UserAccount user) {
     }
 }
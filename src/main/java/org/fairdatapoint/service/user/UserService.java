@@ -27,6 +27,7 @@ import org.fairdatapoint.api.dto.user.*;
 import org.fairdatapoint.database.db.repository.UserAccountRepository;
 import org.fairdatapoint.entity.user.UserAccount;
 import org.fairdatapoint.service.member.MemberService;
+import org.fairdatapoint.service.security.AuthenticationCache;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -50,6 +51,8 @@ public class UserService {
 
     private final MemberService memberService;
 
+    private final AuthenticationCache authenticationCache;
+
     public List<UserDTO> getUsers() {
         return
                 userAccountRepository
@@ -102,6 +105,7 @@ public class UserService {
         userValidator.validateEmail(uuid, reqDto.getEmail());
         final UserAccount updatedUser = userMapper.fromChangeDTO(reqDto, user.get());
         userAccountRepository.save(updatedUser);
+        authenticationCache.evictUser(updatedUser.getUuid());
         return of(userMapper.toDTO(updatedUser));
     }
 
@@ -114,6 +118,7 @@ public class UserService {
         userValidator.validateEmail(user.get().getUuid(), reqDto.getEmail());
         final UserAccount updatedUser = userMapper.fromProfileChangeDTO(reqDto, user.get());
         userAccountRepository.save(updatedUser);
+        authenticationCache.evictUser(updatedUser.getUuid());
         return of(userMapper.toDTO(updatedUser));
     }
 
@@ -125,6 +130,7 @@ public class UserService {
         }
         final UserAccount updatedUser = userMapper.fromPasswordDTO(reqDto, user.get());
         userAccountRepository.save(updatedUser);
+        authenticationCache.evictUser(updatedUser.getUuid());
         return of(userMapper.toDTO(updatedUser));
     }
 
@@ -136,6 +142,7 @@ public class UserService {
         }
         final UserAccount updatedUser = userMapper.fromPasswordDTO(reqDto, user.get());
         userAccountRepository.save(updatedUser);
+        authenticationCache.evictUser(updatedUser.getUuid());
         return of(userMapper.toDTO(updatedUser));
     }
 
@@ -147,6 +154,7 @@ public class UserService {
         }
         userAccountRepository.delete(user.get());
         memberService.deleteMembers(user.get());
+        authenticationCache.evictUser(uuid);
         return true;
     }
 }
@@ -30,6 +30,7 @@ import org.eclipse.rdf4j.rio.RDFFormat;
 import org.springframework.http.HttpHeaders;
 
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
 import java.util.UUID;
 
@@ -157,6 +158,15 @@ public class HttpUtil {
         }
     }
 
+    public static String getHost(String uri) {
+        try {
+            return ofNullable(URI.create(uri).getHost()).orElse(uri);
+        }
+        catch (IllegalArgumentException exception) {
+            return uri;
+        }
+    }
+
     public static String removeProtocol(String url) {
         if (url.startsWith(PROTO_HTTP)) {
             return url.substring(PROTO_HTTP.length());
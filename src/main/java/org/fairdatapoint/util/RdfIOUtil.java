@@ -24,6 +24,7 @@ package org.fairdatapoint.util;
 
 import org.fairdatapoint.entity.exception.ValidationException;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
@@ -36,9 +37,11 @@ import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 import org.eclipse.rdf4j.rio.*;
 import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -60,6 +63,11 @@ public class RdfIOUtil {
 
     private static final String MSG_EXC_HANDLER = "Unable to read RDF (handler exception)";
 
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<Namespace> DEFAULT_NAMESPACES =
+            List.of(DCTERMS.NS, DCAT.NS, FOAF.NS, XMLSchema.NS, LDP.NS);
+
     public static Model changeBaseUri(Model oldModel, String newBaseUri, List<String> rdfTypes) {
         // - get baseUri
         final Resource oldBaseUri = rdfTypes
@@ -130,11 +138,7 @@ public class RdfIOUtil {
     }
 
     public static String write(Model model, RDFFormat format) {
-        model.setNamespace(DCTERMS.NS);
-        model.setNamespace(DCAT.NS);
-        model.setNamespace(FOAF.NS);
-        model.setNamespace(XMLSchema.NS);
-        model.setNamespace(LDP.NS);
+        DEFAULT_NAMESPACES.forEach(model::setNamespace);
 
         try (StringWriter out = new StringWriter()) {
             Rio.write(model, out, format, getWriterConfig());
@@ -145,6 +149,18 @@ public class RdfIOUtil {
         }
     }
 
+    public static void write(Model model, RDFFormat format, OutputStream outputStream) throws IOException {
+        final BufferedOutputStream out = new BufferedOutputStream(outputStream, WRITE_BUFFER_SIZE);
+        final RDFWriter writer = Rio.createWriter(format, out);
+        writer.setWriterConfig(getWriterConfig());
+        writer.startRDF();
+        model.getNamespaces().forEach(ns -> writer.handleNamespace(ns.getPrefix(), ns.getName()));
+        DEFAULT_NAMESPACES.forEach(ns -> writer.handleNamespace(ns.getPrefix(), ns.getName()));
+        model.forEach(writer::handleStatement);
+        writer.endRDF();
+        out.flush();
+    }
+
     public static WriterConfig getWriterConfig() {
         final WriterConfig config = new WriterConfig();
         config.set(BasicWriterSettings.INLINE_BLANK_NODES, true);
@@ -0,0 +1,46 @@
+--
+-- The MIT License
+-- Copyright © 2016-2024 FAIR Data Team
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in
+-- all copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+-- THE SOFTWARE.
+
+CREATE TABLE IF NOT EXISTS index_event_queue
+(
+    uuid         UUID        NOT NULL,
+    event_uuid   UUID        NOT NULL,
+    attempts     INTEGER     NOT NULL DEFAULT 0,
+    available_at TIMESTAMPTZ NOT NULL,
+    locked_by    TEXT,
+    locked_until TIMESTAMPTZ,
+    last_error   TEXT,
+    dead_at      TIMESTAMPTZ,
+    created_at   TIMESTAMPTZ NOT NULL,
+    updated_at   TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (uuid),
+    CONSTRAINT uq__index_event_queue_event UNIQUE (event_uuid)
+);
+
+ALTER TABLE index_event_queue
+    ADD CONSTRAINT fk__index_event_queue_event FOREIGN KEY (event_uuid) REFERENCES index_event (uuid) ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS ix__index_event_queue_available
+    ON index_event_queue (available_at) WHERE dead_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS ix__index_event_triggered_by
+    ON index_event (triggered_by);
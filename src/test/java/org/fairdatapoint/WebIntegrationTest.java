@@ -23,6 +23,7 @@
 package org.fairdatapoint;
 
 import org.fairdatapoint.database.rdf.migration.development.metadata.AclMigration;
+import org.fairdatapoint.service.resource.ResourceDefinitionCache;
 import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -64,10 +65,14 @@ public abstract class WebIntegrationTest {
     @Autowired
     protected AclMigration aclMigration;
 
+    @Autowired
+    protected ResourceDefinitionCache resourceDefinitionCache;
+
     @BeforeEach
     public void setup() {
         flyway.clean();
         flyway.migrate();
+        resourceDefinitionCache.computeCache();
         aclMigration.runMigration();
     }
 }
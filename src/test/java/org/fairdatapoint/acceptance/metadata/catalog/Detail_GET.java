@@ -36,6 +36,10 @@ import java.net.URI;
 import static java.lang.String.format;
 import static org.fairdatapoint.acceptance.common.NotFoundTest.createUserNotFoundTestGetRDF;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 
@@ -64,6 +68,59 @@ public class Detail_GET extends WebIntegrationTest {
         assertThat(result.getStatusCode(), is(equalTo(HttpStatus.OK)));
     }
 
+    @Test
+    @DisplayName("HTTP 200: ETag varies by Accept")
+    public void res200_etag() {
+        // GIVEN:
+        RequestEntity<Void> turtleRequest = RequestEntity
+                .get(url("catalog-1"))
+                .header(HttpHeaders.ACCEPT, "text/turtle")
+                .build();
+        RequestEntity<Void> jsonLdRequest = RequestEntity
+                .get(url("catalog-1"))
+                .header(HttpHeaders.ACCEPT, "application/ld+json")
+                .build();
+        ParameterizedTypeReference<String> responseType = new ParameterizedTypeReference<>() {
+        };
+
+        // WHEN:
+        ResponseEntity<String> turtleResult = client.exchange(turtleRequest, responseType);
+        ResponseEntity<String> jsonLdResult = client.exchange(jsonLdRequest, responseType);
+
+        // THEN:
+        assertThat(turtleResult.getStatusCode(), is(equalTo(HttpStatus.OK)));
+        assertThat(turtleResult.getHeaders().getETag(), is(notNullValue()));
+        assertThat(turtleResult.getHeaders().getVary(), hasItem(HttpHeaders.ACCEPT));
+        assertThat(jsonLdResult.getHeaders().getETag(), is(not(equalTo(turtleResult.getHeaders().getETag()))));
+    }
+
+    @Test
+    @DisplayName("HTTP 304: If-None-Match matches ETag")
+    public void res304() {
+        // GIVEN:
+        RequestEntity<Void> request = RequestEntity
+                .get(url("catalog-1"))
+                .header(HttpHeaders.ACCEPT, "text/turtle")
+                .build();
+        ParameterizedTypeReference<String> responseType = new ParameterizedTypeReference<>() {
+        };
+        String etag = client.exchange(request, responseType).getHeaders().getETag();
+        RequestEntity<Void> conditionalRequest = RequestEntity
+                .get(url("catalog-1"))
+                .header(HttpHeaders.ACCEPT, "text/turtle")
+                .ifNoneMatch(etag)
+                .build();
+
+        // WHEN:
+        ResponseEntity<String> result = client.exchange(conditionalRequest, responseType);
+
+        // THEN:
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.NOT_MODIFIED)));
+        assertThat(result.getBody(), is(nullValue()));
+        assertThat(result.getHeaders().getETag(), is(equalTo(etag)));
+        assertThat(result.getHeaders().getVary(), hasItem(HttpHeaders.ACCEPT));
+    }
+
     @Test
     @DisplayName("HTTP 200: Draft (User is logged in)")
     public void res200_draft() {
@@ -45,6 +45,7 @@ import static org.fairdatapoint.acceptance.metadata.Common.createMetadataStateAl
 import static org.fairdatapoint.acceptance.metadata.Common.createMetadataStateChangeToDraft;
 import static org.fairdatapoint.util.ValueFactoryHelper.i;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 
@@ -66,6 +67,14 @@ public class List_State_PUT extends WebIntegrationTest {
         return new MetaStateChangeDTO(MetadataState.PUBLISHED);
     }
 
+    private String parentETag() {
+        RequestEntity<Void> request = RequestEntity
+                .get(URI.create("/"))
+                .header(HttpHeaders.ACCEPT, "text/turtle")
+                .build();
+        return client.exchange(request, String.class).getHeaders().getETag();
+    }
+
     @Test
     @DisplayName("HTTP 200")
     public void res200() throws MetadataRepositoryException {
@@ -89,6 +98,30 @@ public class List_State_PUT extends WebIntegrationTest {
         assertThat(result.getBody(), is(equalTo(reqDto())));
     }
 
+    @Test
+    @DisplayName("HTTP 200: Parent ETag changes")
+    public void res200_parentETag() throws MetadataRepositoryException {
+        // GIVEN:
+        RequestEntity<MetaStateChangeDTO> request = RequestEntity
+                .put(url("catalog-1"))
+                .header(HttpHeaders.AUTHORIZATION, ALBERT_TOKEN)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .body(reqDto());
+        ParameterizedTypeReference<MetaStateChangeDTO> responseType = new ParameterizedTypeReference<>() {
+        };
+
+        // AND: Prepare database (make it a draft)
+        repository.moveToDrafts(i(persistentUrl + "/catalog/catalog-1"));
+        String parentETag = parentETag();
+
+        // WHEN:
+        ResponseEntity<MetaStateChangeDTO> result = client.exchange(request, responseType);
+
+        // THEN:
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+        assertThat(parentETag(), is(not(equalTo(parentETag))));
+    }
+
     @Test
     @DisplayName("HTTP 400: Metadata is already published")
     public void res400_already_published() throws MetadataRepositoryException {
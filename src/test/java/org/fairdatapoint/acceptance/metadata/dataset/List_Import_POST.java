@@ -0,0 +1,141 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.acceptance.metadata.dataset;
+
+import org.fairdatapoint.WebIntegrationTest;
+import org.fairdatapoint.api.dto.error.ErrorDTO;
+import org.fairdatapoint.api.dto.metadata.MetaImportDTO;
+import org.fairdatapoint.util.RdfIOUtil;
+import org.fairdatapoint.utils.TestRdfMetadataFixtures;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+
+import static java.lang.String.format;
+import static org.fairdatapoint.acceptance.common.ForbiddenTest.createNoUserForbiddenTestPost;
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.s;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+
+@DisplayName("POST /dataset/import")
+public class List_Import_POST extends WebIntegrationTest {
+
+    @Autowired
+    private TestRdfMetadataFixtures testMetadataFixtures;
+
+    @Value("${bulk-import.max-records}")
+    private int maxRecords;
+
+    private URI url() {
+        return URI.create("/dataset/import");
+    }
+
+    private String reqDto() {
+        final Model dataset = testMetadataFixtures.c2_dataset3();
+        final Model quads = new LinkedHashModel();
+        for (Statement st : dataset) {
+            quads.add(s(st.getSubject(), st.getPredicate(), st.getObject(), i("urn:import:valid")));
+            if (!st.getPredicate().equals(RDF.TYPE)) {
+                quads.add(s(st.getSubject(), st.getPredicate(), st.getObject(), i("urn:import:invalid")));
+            }
+        }
+        return RdfIOUtil.write(quads, RDFFormat.TRIG);
+    }
+
+    @Test
+    @DisplayName("HTTP 200")
+    public void res200() {
+        // GIVEN:
+        RequestEntity<String> request = RequestEntity
+                .post(url())
+                .header(HttpHeaders.AUTHORIZATION, ALBERT_TOKEN)
+                .header(HttpHeaders.CONTENT_TYPE, "application/trig")
+                .body(reqDto());
+        ParameterizedTypeReference<MetaImportDTO> responseType = new ParameterizedTypeReference<>() {
+        };
+
+        // WHEN:
+        ResponseEntity<MetaImportDTO> result = client.exchange(request, responseType);
+
+        // THEN:
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.OK)));
+        assertThat(result.getBody().getImported(), is(equalTo(1)));
+        assertThat(result.getBody().getFailed(), is(equalTo(1)));
+        assertThat(result.getBody().getRecords().get(0).getSource(), is(equalTo("urn:import:valid")));
+        assertThat(result.getBody().getRecords().get(0).getUri(), is(notNullValue()));
+        assertThat(result.getBody().getRecords().get(1).getUri(), is(nullValue()));
+        assertThat(result.getBody().getRecords().get(1).getError(), is(notNullValue()));
+    }
+
+    @Test
+    @DisplayName("HTTP 400: Too many records")
+    public void res400_tooManyRecords() {
+        // GIVEN:
+        final Model quads = new LinkedHashModel();
+        for (int record = 0; record <= maxRecords; record++) {
+            for (Statement st : testMetadataFixtures.c2_dataset3()) {
+                quads.add(s(st.getSubject(), st.getPredicate(), st.getObject(), i("urn:import:" + record)));
+            }
+        }
+        RequestEntity<String> request = RequestEntity
+                .post(url())
+                .header(HttpHeaders.AUTHORIZATION, ALBERT_TOKEN)
+                .header(HttpHeaders.CONTENT_TYPE, "application/trig")
+                .body(RdfIOUtil.write(quads, RDFFormat.TRIG));
+        ParameterizedTypeReference<ErrorDTO> responseType = new ParameterizedTypeReference<>() {
+        };
+
+        // WHEN:
+        ResponseEntity<ErrorDTO> result = client.exchange(request, responseType);
+
+        // THEN:
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        assertThat(result.getBody().getMessage(),
+                startsWith(format("Bulk import is limited to %d records", maxRecords)));
+    }
+
+    @Test
+    @DisplayName("HTTP 403: Anonymous access")
+    public void res403_anonymous() {
+        createNoUserForbiddenTestPost(client, url(), reqDto());
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.fairdatapoint.config.properties.CacheProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class BoundedCacheManagerTest {
+
+    private static final String CACHE = "TEST_CACHE";
+
+    @Test
+    public void cachesAreBoundedBySpec() {
+        // GIVEN:
+        final CacheProperties properties = new CacheProperties();
+        properties.getSpecs().put(CACHE, new CacheProperties.CacheSpec(2L, null, null, null));
+        final BoundedCacheManager cacheManager = new BoundedCacheManager(properties);
+        cacheManager.setCacheNames(List.of(CACHE));
+
+        // WHEN:
+        final CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CACHE);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        final Cache<Object, Object> nativeCache = cache.getNativeCache();
+        nativeCache.cleanUp();
+
+        // THEN:
+        assertThat(nativeCache.estimatedSize(), is(equalTo(2L)));
+        assertThat(nativeCache.stats().evictionCount(), is(equalTo(8L)));
+    }
+
+    @Test
+    public void redeclaredCacheKeepsNativeCache() {
+        // GIVEN:
+        final BoundedCacheManager cacheManager = new BoundedCacheManager(new CacheProperties());
+        cacheManager.setCacheNames(List.of(CACHE));
+        final CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CACHE);
+        cache.put("key", null);
+        assertThat(cache.get("key").get(), is(nullValue()));
+
+        // WHEN:
+        cacheManager.setCacheNames(List.of(CACHE));
+
+        // THEN: same native cache, but emptied
+        final CaffeineCache redeclared = (CaffeineCache) cacheManager.getCache(CACHE);
+        assertThat(redeclared.getNativeCache() == cache.getNativeCache(), is(true));
+        assertThat(redeclared.get("key"), is(nullValue()));
+    }
+
+    @Test
+    public void staleEntriesAreReloaded() {
+        // GIVEN:
+        final CacheProperties properties = new CacheProperties();
+        properties.getSpecs().put(CACHE, new CacheProperties.CacheSpec(null, null, null, Duration.ofNanos(1)));
+        final BoundedCacheManager cacheManager = new BoundedCacheManager(properties);
+        cacheManager.setCacheNames(List.of(CACHE));
+        final CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CACHE);
+        final AtomicInteger loads = new AtomicInteger();
+
+        // WHEN:
+        assertThat(cache.get("key", loads::incrementAndGet), is(equalTo(1)));
+        cache.get("key", loads::incrementAndGet);
+
+        // THEN: refresh runs asynchronously
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (loads.get() < 2 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        assertThat(loads.get(), is(equalTo(2)));
+    }
+}
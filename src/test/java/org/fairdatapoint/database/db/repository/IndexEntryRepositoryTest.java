@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.db.repository;
+
+import org.fairdatapoint.BaseIntegrationTest;
+import org.fairdatapoint.entity.index.entry.IndexEntry;
+import org.fairdatapoint.entity.index.entry.IndexEntryPermit;
+import org.fairdatapoint.entity.index.entry.IndexEntryState;
+import org.fairdatapoint.service.index.entry.IndexEntryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class IndexEntryRepositoryTest extends BaseIntegrationTest {
+
+    @Autowired
+    private IndexEntryRepository indexEntryRepository;
+
+    @Autowired
+    private IndexEntryService indexEntryService;
+
+    @BeforeEach
+    public void setup() {
+        indexEntryRepository.deleteAll();
+    }
+
+    @Test
+    public void countByStateSplitsValidAtThreshold() {
+        // GIVEN: timestamp columns keep microseconds only
+        final Instant threshold = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        indexEntryRepository.saveAll(List.of(
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, threshold.plus(Duration.ofMinutes(1))),
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, threshold.minus(Duration.ofDays(1))),
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, threshold),
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, null),
+                entry(IndexEntryState.VALID, IndexEntryPermit.REJECTED, threshold.plus(Duration.ofMinutes(1))),
+                entry(IndexEntryState.UNKNOWN, IndexEntryPermit.ACCEPTED, null),
+                entry(IndexEntryState.INVALID, IndexEntryPermit.ACCEPTED, threshold.plus(Duration.ofMinutes(1))),
+                entry(IndexEntryState.INVALID, IndexEntryPermit.PENDING, null)
+        ));
+
+        // WHEN:
+        final Map<IndexEntryState, IndexEntryRepository.StateCounts> counts = indexEntryRepository
+                .countByStateAndPermitIn(threshold, List.of(IndexEntryPermit.ACCEPTED, IndexEntryPermit.PENDING))
+                .stream()
+                .collect(Collectors.toMap(IndexEntryRepository.StateCounts::getState, Function.identity()));
+
+        // THEN: entry at the threshold or never retrieved is neither recent nor stale
+        assertThat(counts.keySet(), is(equalTo(
+                Set.of(IndexEntryState.VALID, IndexEntryState.UNKNOWN, IndexEntryState.INVALID))));
+        assertThat(counts.get(IndexEntryState.VALID).getTotal(), is(equalTo(4L)));
+        assertThat(counts.get(IndexEntryState.VALID).getRecent(), is(equalTo(1L)));
+        assertThat(counts.get(IndexEntryState.VALID).getStale(), is(equalTo(1L)));
+        assertThat(counts.get(IndexEntryState.UNKNOWN).getTotal(), is(equalTo(1L)));
+        assertThat(counts.get(IndexEntryState.INVALID).getTotal(), is(equalTo(2L)));
+        assertThat(counts.get(IndexEntryState.INVALID).getRecent(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void entriesInfoSumsAllStatesAndFillsEmptyBuckets() {
+        // GIVEN:
+        final Instant now = Instant.now();
+        indexEntryRepository.saveAll(List.of(
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, now.minus(Duration.ofMinutes(1))),
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, now.minus(Duration.ofDays(666))),
+                entry(IndexEntryState.VALID, IndexEntryPermit.ACCEPTED, null),
+                entry(IndexEntryState.INVALID, IndexEntryPermit.ACCEPTED, null),
+                entry(IndexEntryState.INVALID, IndexEntryPermit.ACCEPTED, null),
+                entry(IndexEntryState.UNKNOWN, IndexEntryPermit.REJECTED, null)
+        ));
+
+        // WHEN: anonymous user counts accepted entries only
+        final Map<String, Long> entriesCount = indexEntryService.getEntriesInfo("").getEntriesCount();
+
+        // THEN:
+        assertThat(entriesCount, is(equalTo(Map.of(
+                "ALL", 5L,
+                "ACTIVE", 1L,
+                "INACTIVE", 1L,
+                "UNKNOWN", 0L,
+                "UNREACHABLE", 0L,
+                "INVALID", 2L
+        ))));
+    }
+
+    @Test
+    public void entriesInfoIsZeroFilledWithoutEntries() {
+        // WHEN:
+        final Map<String, Long> entriesCount = indexEntryService.getEntriesInfo("").getEntriesCount();
+
+        // THEN:
+        assertThat(entriesCount, is(equalTo(Map.of(
+                "ALL", 0L,
+                "ACTIVE", 0L,
+                "INACTIVE", 0L,
+                "UNKNOWN", 0L,
+                "UNREACHABLE", 0L,
+                "INVALID", 0L
+        ))));
+    }
+
+    private IndexEntry entry(IndexEntryState state, IndexEntryPermit permit, Instant lastRetrievalAt) {
+        final UUID uuid = UUID.randomUUID();
+        final IndexEntry entry = new IndexEntry();
+        entry.setUuid(uuid);
+        entry.setClientUrl("http://example.com/" + uuid);
+        entry.setCreatedAt(Instant.now());
+        entry.setUpdatedAt(Instant.now());
+        entry.setState(state);
+        entry.setPermit(permit);
+        entry.setLastRetrievalAt(lastRetrievalAt);
+        return entry;
+    }
+}
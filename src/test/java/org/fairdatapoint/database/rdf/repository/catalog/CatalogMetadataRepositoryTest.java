@@ -22,85 +22,129 @@
  */
 package org.fairdatapoint.database.rdf.repository.catalog;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.fairdatapoint.database.rdf.repository.common.SparqlQueryRegistry;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
+import org.fairdatapoint.database.rdf.repository.search.MetadataSearchIndex;
 import org.eclipse.rdf4j.model.IRI;
-import org.eclipse.rdf4j.query.TupleQuery;
-import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.model.vocabulary.DCAT;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.Spy;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
-import java.util.Collections;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import static org.fairdatapoint.config.CacheConfig.CATALOG_THEMES_CACHE;
 import static org.fairdatapoint.util.ValueFactoryHelper.i;
-import static org.mockito.Mockito.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.mock;
 
-@ExtendWith(MockitoExtension.class)
 public class CatalogMetadataRepositoryTest {
 
-    private final IRI catalogUri = i("http://localhost/textmining");
+    private static final String THEMES_QUERY = "getDatasetThemesForCatalogs.sparql";
 
-    @Mock
-    private Cache cache;
+    private final IRI catalogUri = i("http://localhost/textmining");
 
-    @Mock
-    private Repository repository;
+    private final IRI otherCatalogUri = i("http://localhost/genomics");
 
-    @Mock
-    private RepositoryConnection repositoryConnection;
+    private final IRI emptyCatalogUri = i("http://localhost/empty");
 
-    @Mock
-    private TupleQuery tupleQuery;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
-    @Mock
-    private TupleQueryResult tupleQueryResult;
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
 
-    @Mock
-    private ConcurrentMapCacheManager cacheManager;
+    private Repository repository;
 
-    @Spy
-    @InjectMocks
     private CatalogMetadataRepositoryImpl catalogMetadataRepository;
 
+    @BeforeEach
+    public void setup() throws IOException {
+        repository = new SailRepository(new MemoryStore());
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(catalogUri, DCAT.HAS_DATASET, i("http://localhost/dataset/1"), catalogUri);
+            conn.add(catalogUri, DCAT.HAS_DATASET, i("http://localhost/dataset/2"), catalogUri);
+            conn.add(otherCatalogUri, DCAT.HAS_DATASET, i("http://localhost/dataset/3"), otherCatalogUri);
+            conn.add(i("http://localhost/dataset/1"), DCAT.THEME, i("http://localhost/theme/1"));
+            conn.add(i("http://localhost/dataset/2"), DCAT.THEME, i("http://localhost/theme/2"));
+            conn.add(i("http://localhost/dataset/3"), DCAT.THEME, i("http://localhost/theme/3"));
+        }
+        final SparqlQueryRegistry queryRegistry = new SparqlQueryRegistry(meterRegistry);
+        queryRegistry.init();
+        catalogMetadataRepository = new CatalogMetadataRepositoryImpl(
+                cacheManager, repository, new SailRepository(new MemoryStore()), queryRegistry,
+                mock(MetadataSearchIndex.class), mock(MetadataFacetIndex.class)
+        );
+        catalogMetadataRepository.init();
+    }
+
+    @AfterEach
+    public void teardown() {
+        repository.shutDown();
+    }
+
     @Test
     @DisplayName("Themes for catalog are in cache (no query to triple store)")
     public void themesInCache() throws MetadataRepositoryException {
         // GIVEN:
-        when(cacheManager.getCache(CATALOG_THEMES_CACHE)).thenReturn(cache);
-        when(cache.get(catalogUri.toString(), List.class)).thenReturn(Collections.emptyList());
+        cacheManager.getCache(CATALOG_THEMES_CACHE).put(catalogUri.toString(), List.of());
 
         // WHEN:
-        catalogMetadataRepository.getDatasetThemesForCatalog(catalogUri, RepositoryMode.MAIN);
+        final List<IRI> themes = catalogMetadataRepository.getDatasetThemesForCatalog(catalogUri, RepositoryMode.MAIN);
 
         // THEN:
-        verify(catalogMetadataRepository, never()).runSparqlQuery(any(), any(), any(), eq(RepositoryMode.MAIN));
+        assertThat(themes, is(empty()));
+        assertThat(queryCount(), is(equalTo(0L)));
     }
 
     @Test
     @DisplayName("Themes for catalog are not in cache (we have to query to triple store)")
     public void themesNotInCache() throws MetadataRepositoryException {
+        // WHEN:
+        final List<IRI> themes = catalogMetadataRepository.getDatasetThemesForCatalog(catalogUri, RepositoryMode.MAIN);
+
+        // THEN:
+        assertThat(themes, containsInAnyOrder(i("http://localhost/theme/1"), i("http://localhost/theme/2")));
+        assertThat(queryCount(), is(equalTo(1L)));
+        assertThat(cacheManager.getCache(CATALOG_THEMES_CACHE).get(catalogUri.toString(), List.class), is(themes));
+    }
+
+    @Test
+    @DisplayName("Themes for catalogs missing in cache are loaded with a single query")
+    public void themesForCatalogsInSingleQuery() throws MetadataRepositoryException {
         // GIVEN:
-        when(cacheManager.getCache(CATALOG_THEMES_CACHE)).thenReturn(cache);
-        when(repository.getConnection()).thenReturn(repositoryConnection);
-        when(repositoryConnection.prepareTupleQuery(any())).thenReturn(tupleQuery);
-        when(tupleQuery.evaluate()).thenReturn(tupleQueryResult);
+        cacheManager.getCache(CATALOG_THEMES_CACHE).put(otherCatalogUri.toString(), List.of());
 
         // WHEN:
-        catalogMetadataRepository.getDatasetThemesForCatalog(catalogUri, RepositoryMode.MAIN);
+        final Map<IRI, List<IRI>> themes = catalogMetadataRepository.getDatasetThemesForCatalogs(
+                List.of(catalogUri, otherCatalogUri, emptyCatalogUri), RepositoryMode.MAIN
+        );
 
         // THEN:
-        verify(catalogMetadataRepository, times(1)).runSparqlQuery(any(), any(), any(), eq(RepositoryMode.MAIN));
+        assertThat(themes.get(catalogUri),
+                containsInAnyOrder(i("http://localhost/theme/1"), i("http://localhost/theme/2")));
+        assertThat(themes.get(otherCatalogUri), is(empty()));
+        assertThat(themes.get(emptyCatalogUri), is(empty()));
+        assertThat(queryCount(), is(equalTo(1L)));
     }
 
+    private long queryCount() {
+        return meterRegistry.find("fdp.sparql.query").tag("query", THEMES_QUERY).timers()
+                .stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
 }
@@ -0,0 +1,267 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.database.rdf.repository.search.MetadataFacetIndex;
+import org.fairdatapoint.database.rdf.repository.search.MetadataSearchIndex;
+import org.fairdatapoint.entity.metadata.MetadataChildrenPage;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.LDP;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.fairdatapoint.util.ValueFactoryHelper.s;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AbstractMetadataRepositoryTest {
+
+    private static final String CHILD_PREFIX = "http://localhost/catalog/";
+
+    private static final int PAGE_SIZE = 2;
+
+    private final IRI first = i("http://localhost/catalog/1");
+
+    private final IRI second = i("http://localhost/catalog/2");
+
+    private final IRI titledA = i("http://localhost/catalog/a");
+
+    private final IRI titledB = i("http://localhost/catalog/b");
+
+    private final IRI untitled = i("http://localhost/catalog/untitled");
+
+    private final IRI draftC = i("http://localhost/catalog/c");
+
+    private final MetadataSearchIndex searchIndex = mock(MetadataSearchIndex.class);
+
+    private final MetadataFacetIndex facetIndex = mock(MetadataFacetIndex.class);
+
+    private Repository mainRepository;
+
+    private Repository draftsRepository;
+
+    private AbstractMetadataRepository metadataRepository;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        mainRepository = new SailRepository(new MemoryStore());
+        draftsRepository = new SailRepository(new MemoryStore());
+        final SparqlQueryRegistry queryRegistry = new SparqlQueryRegistry(new SimpleMeterRegistry());
+        queryRegistry.init();
+        metadataRepository = new AbstractMetadataRepository(
+                mainRepository, draftsRepository, queryRegistry, searchIndex, facetIndex
+        ) {
+        };
+    }
+
+    @AfterEach
+    public void teardown() {
+        mainRepository.shutDown();
+        draftsRepository.shutDown();
+    }
+
+    @Test
+    public void afterCommitActionsRunAfterCommit() throws MetadataRepositoryException {
+        // GIVEN:
+        final List<Integer> seen = new ArrayList<>();
+
+        // WHEN:
+        metadataRepository.inTransaction(RepositoryMode.MAIN, () -> {
+            metadataRepository.save(statements(first), first, RepositoryMode.MAIN);
+            metadataRepository.afterCommit(() -> seen.add(find(first)));
+            return null;
+        });
+
+        // THEN: action ran once and reads the committed data
+        assertThat(seen, is(equalTo(List.of(1))));
+        verify(searchIndex, times(1)).update(List.of(first));
+        verify(facetIndex, times(1)).update(List.of(first));
+    }
+
+    @Test
+    public void rollbackDiscardsAfterCommitActions() {
+        // GIVEN:
+        final AtomicBoolean ran = new AtomicBoolean();
+
+        // WHEN:
+        assertThrows(MetadataRepositoryException.class, () -> {
+            metadataRepository.inTransaction(RepositoryMode.MAIN, () -> {
+                metadataRepository.save(statements(first), first, RepositoryMode.MAIN);
+                metadataRepository.afterCommit(() -> ran.set(true));
+                throw new MetadataRepositoryException("failure");
+            });
+        });
+
+        // THEN:
+        assertThat(ran.get(), is(false));
+        assertThat(find(first), is(equalTo(0)));
+        verify(searchIndex, never()).update(any());
+    }
+
+    @Test
+    public void nestedTransactionJoinsOuterCommit() throws MetadataRepositoryException {
+        // GIVEN:
+        final AtomicInteger runs = new AtomicInteger();
+
+        // WHEN:
+        metadataRepository.inTransaction(RepositoryMode.MAIN, () -> {
+            metadataRepository.inTransaction(RepositoryMode.MAIN, () -> {
+                metadataRepository.save(statements(first), first, RepositoryMode.MAIN);
+                metadataRepository.afterCommit(runs::incrementAndGet);
+                return null;
+            });
+
+            // THEN: nested call neither committed nor ran its actions
+            assertThat(countCommitted(first), is(equalTo(0L)));
+            assertThat(runs.get(), is(equalTo(0)));
+            metadataRepository.save(statements(second), second, RepositoryMode.MAIN);
+            return null;
+        });
+
+        // AND: both graphs committed and indexed together once
+        assertThat(countCommitted(first), is(equalTo(1L)));
+        assertThat(countCommitted(second), is(equalTo(1L)));
+        assertThat(runs.get(), is(equalTo(1)));
+        verify(searchIndex, times(1)).update(List.of(first, second));
+    }
+
+    @Test
+    public void actionRegisteredByActionRunsImmediately() throws MetadataRepositoryException {
+        // GIVEN:
+        final AtomicBoolean ran = new AtomicBoolean();
+
+        // WHEN:
+        metadataRepository.inTransaction(RepositoryMode.MAIN, () -> {
+            metadataRepository.afterCommit(() -> metadataRepository.afterCommit(() -> ran.set(true)));
+            return null;
+        });
+
+        // THEN:
+        assertThat(ran.get(), is(true));
+    }
+
+    @Test
+    public void findChildrenPageSortsByTitleAndCuts() throws MetadataRepositoryException {
+        // GIVEN:
+        final IRI parent = storeChildren();
+
+        // WHEN:
+        final MetadataChildrenPage firstPage = findChildrenPage(parent, RepositoryMode.MAIN, 0);
+        final MetadataChildrenPage secondPage = findChildrenPage(parent, RepositoryMode.MAIN, 1);
+        final MetadataChildrenPage outOfRange = findChildrenPage(parent, RepositoryMode.MAIN, 5);
+
+        // THEN: untitled child first, then by title; foreign prefix and draft child excluded
+        assertThat(firstPage.getChildren(), is(equalTo(List.of(untitled, titledA))));
+        assertThat(firstPage.getTotalCount(), is(equalTo(3L)));
+        assertThat(secondPage.getChildren(), is(equalTo(List.of(titledB))));
+        assertThat(secondPage.getTotalCount(), is(equalTo(3L)));
+        assertThat(outOfRange.getChildren(), is(equalTo(List.of())));
+        assertThat(outOfRange.getTotalCount(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void findChildrenPageMergesCombinedRepositories() throws MetadataRepositoryException {
+        // GIVEN:
+        final IRI parent = storeChildren();
+
+        // WHEN:
+        final MetadataChildrenPage firstPage = findChildrenPage(parent, RepositoryMode.COMBINED, 0);
+        final MetadataChildrenPage secondPage = findChildrenPage(parent, RepositoryMode.COMBINED, 1);
+        final MetadataChildrenPage outOfRange = findChildrenPage(parent, RepositoryMode.COMBINED, 2);
+
+        // THEN: draft child is ordered among the main children and counted once
+        assertThat(firstPage.getChildren(), is(equalTo(List.of(untitled, titledA))));
+        assertThat(firstPage.getTotalCount(), is(equalTo(4L)));
+        assertThat(secondPage.getChildren(), is(equalTo(List.of(titledB, draftC))));
+        assertThat(secondPage.getTotalCount(), is(equalTo(4L)));
+        assertThat(outOfRange.getChildren(), is(equalTo(List.of())));
+        assertThat(outOfRange.getTotalCount(), is(equalTo(4L)));
+    }
+
+    private IRI storeChildren() throws MetadataRepositoryException {
+        final IRI parent = i("http://localhost");
+        final IRI foreign = i("http://example.org/catalog/foreign");
+        metadataRepository.save(List.of(
+                s(parent, LDP.CONTAINS, titledB),
+                s(parent, LDP.CONTAINS, titledA),
+                s(parent, LDP.CONTAINS, untitled),
+                s(parent, LDP.CONTAINS, foreign)
+        ), parent, RepositoryMode.MAIN);
+        metadataRepository.save(child(titledB, parent, "B"), titledB, RepositoryMode.MAIN);
+        metadataRepository.save(child(titledA, parent, "A"), titledA, RepositoryMode.MAIN);
+        metadataRepository.save(List.of(s(untitled, DCTERMS.IS_PART_OF, parent)), untitled, RepositoryMode.MAIN);
+        metadataRepository.save(child(foreign, parent, "Foreign"), foreign, RepositoryMode.MAIN);
+        metadataRepository.save(child(draftC, parent, "C"), draftC, RepositoryMode.DRAFTS);
+        return parent;
+    }
+
+    private List<Statement> child(IRI uri, IRI parent, String title) {
+        return List.of(s(uri, DCTERMS.IS_PART_OF, parent), s(uri, DCTERMS.TITLE, l(title)));
+    }
+
+    private MetadataChildrenPage findChildrenPage(IRI parent, RepositoryMode mode, int page)
+            throws MetadataRepositoryException {
+        return metadataRepository.findChildrenPage(parent, LDP.CONTAINS, CHILD_PREFIX, mode, page, PAGE_SIZE);
+    }
+
+    private List<Statement> statements(IRI uri) {
+        return List.of(s(uri, DCTERMS.TITLE, l("Catalog")));
+    }
+
+    private int find(IRI uri) {
+        try {
+            return metadataRepository.find(uri, RepositoryMode.MAIN).size();
+        }
+        catch (MetadataRepositoryException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private long countCommitted(IRI uri) {
+        try (RepositoryConnection conn = mainRepository.getConnection()) {
+            return conn.size(uri);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.search;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.DCAT;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.fairdatapoint.database.db.repository.SettingsSearchFilterRepository;
+import org.fairdatapoint.entity.search.SearchFilterValue;
+import org.fairdatapoint.entity.settings.SettingsSearchFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MetadataFacetIndexTest {
+
+    private final IRI dataset1 = i("http://localhost/dataset/1");
+
+    private final IRI dataset2 = i("http://localhost/dataset/2");
+
+    private final IRI health = i("http://example.com/theme/health");
+
+    private final IRI genomics = i("http://example.com/theme/genomics");
+
+    @Mock
+    private SettingsSearchFilterRepository settingsSearchFilterRepository;
+
+    private Repository repository;
+
+    private MetadataFacetIndex facetIndex;
+
+    @BeforeEach
+    public void setup() {
+        repository = new SailRepository(new MemoryStore());
+        repository.init();
+        facetIndex = new MetadataFacetIndex(repository, settingsSearchFilterRepository);
+
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(dataset1, DCAT.THEME, health, dataset1);
+            conn.add(dataset1, DCAT.THEME, genomics, dataset1);
+            conn.add(dataset2, DCAT.THEME, health, dataset2);
+            conn.add(health, RDFS.LABEL, l("Health"), health);
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        repository.shutDown();
+    }
+
+    @Test
+    public void rebuildCountsConfiguredPredicates() {
+        // GIVEN:
+        when(settingsSearchFilterRepository.findAll()).thenReturn(List.of(themeFilter()));
+
+        // WHEN:
+        facetIndex.rebuild();
+
+        // THEN:
+        final List<SearchFilterValue> values = facetIndex.getValues(DCAT.THEME.stringValue());
+        assertThat(values.size(), is(equalTo(2)));
+        assertThat(values.get(0).getValue(), is(equalTo(health.stringValue())));
+        assertThat(values.get(0).getLabel(), is(equalTo("Health")));
+        assertThat(values.get(0).getCount(), is(equalTo(2)));
+        assertThat(values.get(1).getValue(), is(equalTo(genomics.stringValue())));
+        assertThat(values.get(1).getCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void updateReplacesGraphContribution() {
+        // GIVEN:
+        when(settingsSearchFilterRepository.findAll()).thenReturn(List.of(themeFilter()));
+        facetIndex.rebuild();
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.clear(dataset1);
+        }
+
+        // WHEN:
+        facetIndex.update(List.of(dataset1));
+
+        // THEN:
+        final List<SearchFilterValue> values = facetIndex.getValues(DCAT.THEME.stringValue());
+        assertThat(values.size(), is(equalTo(1)));
+        assertThat(values.get(0).getValue(), is(equalTo(health.stringValue())));
+        assertThat(values.get(0).getCount(), is(equalTo(1)));
+    }
+
+    @Test
+    public void getValuesCountsWithinGraphs() {
+        // GIVEN: predicate is not configured, indexed on first use
+        when(settingsSearchFilterRepository.findAll()).thenReturn(List.of());
+        facetIndex.rebuild();
+
+        // WHEN:
+        final List<SearchFilterValue> values = facetIndex.getValues(DCAT.THEME.stringValue(), List.of(dataset2));
+
+        // THEN:
+        assertThat(values.size(), is(equalTo(1)));
+        assertThat(values.get(0).getValue(), is(equalTo(health.stringValue())));
+        assertThat(values.get(0).getCount(), is(equalTo(1)));
+    }
+
+    private SettingsSearchFilter themeFilter() {
+        final SettingsSearchFilter filter = new SettingsSearchFilter();
+        filter.setPredicate(DCAT.THEME.stringValue());
+        return filter;
+    }
+}
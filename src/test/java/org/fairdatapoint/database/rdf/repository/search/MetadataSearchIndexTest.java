@@ -0,0 +1,147 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.database.rdf.repository.search;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.DCAT;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.fairdatapoint.config.properties.RepositoryConnectionProperties;
+import org.fairdatapoint.config.properties.RepositoryProperties;
+import org.fairdatapoint.entity.search.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class MetadataSearchIndexTest {
+
+    private final IRI catalog = i("http://localhost/catalog/1");
+
+    private final IRI dataset = i("http://localhost/dataset/1");
+
+    private Repository repository;
+
+    private MetadataSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        repository = new SailRepository(new MemoryStore());
+        repository.init();
+        final RepositoryConnectionProperties main = new RepositoryConnectionProperties();
+        main.setType(RepositoryConnectionProperties.TYPE_IN_MEMORY);
+        final RepositoryProperties properties = new RepositoryProperties();
+        properties.setMain(main);
+        searchIndex = new MetadataSearchIndex(repository, properties);
+        searchIndex.init();
+
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.add(catalog, RDF.TYPE, DCAT.CATALOG, catalog);
+            conn.add(catalog, DCTERMS.TITLE, l("Catalog of Rare Diseases"), catalog);
+            conn.add(catalog, DCTERMS.DESCRIPTION, l("Registries and biobanks"), catalog);
+            conn.add(dataset, RDF.TYPE, DCAT.DATASET, dataset);
+            conn.add(dataset, DCTERMS.TITLE, l("Patient registries"), dataset);
+            conn.add(dataset, DCTERMS.DESCRIPTION, repository.getValueFactory()
+                    .createLiteral("Collected samples of rare diseases", "en"), dataset);
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        searchIndex.close();
+        repository.shutDown();
+    }
+
+    @Test
+    public void rebuildIndexesExistingGraphs() {
+        // WHEN:
+        searchIndex.rebuild();
+
+        // THEN:
+        final List<SearchResult> results = searchIndex.search("biobanks");
+        assertThat(results.size(), is(equalTo(1)));
+        assertThat(results.get(0).getUri(), is(equalTo(catalog.stringValue())));
+        assertThat(results.get(0).getType(), is(equalTo(DCAT.CATALOG.stringValue())));
+        assertThat(results.get(0).getTitle(), is(equalTo("Catalog of Rare Diseases")));
+        assertThat(results.get(0).getRelation().getPredicate(), is(equalTo(DCTERMS.DESCRIPTION.stringValue())));
+    }
+
+    @Test
+    public void searchRanksPrefixAndPhraseQueries() {
+        // GIVEN:
+        searchIndex.rebuild();
+
+        // WHEN:
+        final List<SearchResult> prefix = searchIndex.search("regist*");
+        final List<SearchResult> phrase = searchIndex.search("\"rare diseases\"");
+        final List<SearchResult> noPhrase = searchIndex.search("\"diseases rare\"");
+
+        // THEN:
+        assertThat(prefix.stream().map(SearchResult::getUri).distinct().count(), is(equalTo(2L)));
+        assertThat(phrase.stream().map(SearchResult::getUri).distinct().count(), is(equalTo(2L)));
+        assertThat(noPhrase.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void searchUsesLanguageAnalyzer() {
+        // GIVEN:
+        searchIndex.rebuild();
+
+        // WHEN: English stemming matches "collected" and "samples"
+        final List<SearchResult> results = searchIndex.search("collecting sample");
+
+        // THEN:
+        assertThat(results.size(), is(equalTo(1)));
+        assertThat(results.get(0).getUri(), is(equalTo(dataset.stringValue())));
+    }
+
+    @Test
+    public void updateReplacesGraphDocuments() {
+        // GIVEN:
+        searchIndex.rebuild();
+        try (RepositoryConnection conn = repository.getConnection()) {
+            conn.remove(dataset, DCTERMS.TITLE, null, dataset);
+            conn.add(dataset, DCTERMS.TITLE, l("Cohort study"), dataset);
+            conn.clear(catalog);
+        }
+
+        // WHEN:
+        searchIndex.update(List.of(dataset, catalog));
+
+        // THEN:
+        assertThat(searchIndex.search("cohort").size(), is(equalTo(1)));
+        assertThat(searchIndex.search("patient").size(), is(equalTo(0)));
+        assertThat(searchIndex.search("biobanks").size(), is(equalTo(0)));
+    }
+}
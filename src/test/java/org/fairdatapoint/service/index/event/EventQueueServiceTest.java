@@ -0,0 +1,150 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.event;
+
+import org.fairdatapoint.config.properties.EventQueueProperties;
+import org.fairdatapoint.config.properties.InstanceProperties;
+import org.fairdatapoint.config.properties.RetrievalProperties;
+import org.fairdatapoint.database.db.repository.IndexEventQueueRepository;
+import org.fairdatapoint.entity.index.entry.IndexEntry;
+import org.fairdatapoint.entity.index.event.IndexEvent;
+import org.fairdatapoint.entity.index.event.IndexEventQueueItem;
+import org.fairdatapoint.entity.index.event.payload.MetadataRetrieval;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EventQueueServiceTest {
+
+    private final IndexEventQueueRepository queueRepository = mock(IndexEventQueueRepository.class);
+
+    private final EventService eventService = mock(EventService.class);
+
+    private final InstanceProperties instanceProperties = mock(InstanceProperties.class);
+
+    private final EventQueueProperties queueProperties = new EventQueueProperties();
+
+    private final ThreadPoolTaskExecutor workers = eventQueueExecutor();
+
+    private EventQueueService queueService;
+
+    @BeforeEach
+    public void setup() {
+        when(instanceProperties.isIndex()).thenReturn(true);
+        queueService = new EventQueueService(
+                queueRepository, eventService, instanceProperties, new RetrievalProperties(), queueProperties, workers
+        );
+        queueService.init();
+    }
+
+    @AfterEach
+    public void teardown() {
+        workers.shutdown();
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyUpToMaximum() {
+        assertThat(EventQueueService.backoff(1, queueProperties), is(equalTo(Duration.ofSeconds(30))));
+        assertThat(EventQueueService.backoff(3, queueProperties), is(equalTo(Duration.ofMinutes(2))));
+        assertThat(EventQueueService.backoff(100, queueProperties), is(equalTo(Duration.ofHours(1))));
+    }
+
+    @Test
+    public void processedItemIsRemovedFromQueue() {
+        // GIVEN:
+        final IndexEventQueueItem item = claimedItem(1);
+
+        // WHEN:
+        queueService.poll();
+
+        // THEN:
+        verify(eventService, timeout(1000)).processQueuedEvent(item.getEvent());
+        verify(queueRepository, timeout(1000)).delete(item);
+        verify(queueRepository, never()).save(any());
+    }
+
+    @Test
+    public void failedItemIsRescheduledWithBackoff() {
+        // GIVEN:
+        final IndexEventQueueItem item = claimedItem(1);
+        doThrow(new IllegalStateException("database unavailable")).when(eventService).processQueuedEvent(any());
+
+        // WHEN:
+        queueService.poll();
+
+        // THEN:
+        verify(queueRepository, timeout(1000)).save(item);
+        assertThat(item.getAvailableAt().isAfter(Instant.now()), is(true));
+        assertThat(item.getLockedBy(), is(nullValue()));
+        assertThat(item.getLastError(), is(equalTo("database unavailable")));
+        assertThat(item.isDead(), is(false));
+        verify(eventService, never()).abandonQueuedEvent(any(), any());
+    }
+
+    @Test
+    public void itemIsDeadLetteredAfterMaxAttempts() {
+        // GIVEN:
+        final IndexEventQueueItem item = claimedItem(queueProperties.getMaxAttempts());
+        doThrow(new IllegalStateException("database unavailable")).when(eventService).processQueuedEvent(any());
+
+        // WHEN:
+        queueService.poll();
+
+        // THEN:
+        verify(queueRepository, timeout(1000)).save(item);
+        assertThat(item.isDead(), is(true));
+        verify(eventService).abandonQueuedEvent(item.getEvent(), "database unavailable");
+    }
+
+    private IndexEventQueueItem claimedItem(int attempts) {
+        final IndexEntry entry = new IndexEntry();
+        entry.setClientUrl("https://example.com/fdp");
+        final IndexEvent event = new IndexEvent(1, null, entry, new MetadataRetrieval());
+        event.setUuid(UUID.randomUUID());
+        final IndexEventQueueItem item = new IndexEventQueueItem(event);
+        item.setUuid(UUID.randomUUID());
+        item.setAttempts(attempts);
+        item.setLockedBy("node");
+        when(queueRepository.claim(anyString(), anyInt(), any())).thenReturn(1);
+        when(queueRepository.findAllByLockedBy(anyString())).thenReturn(List.of(item));
+        return item;
+    }
+
+    private static ThreadPoolTaskExecutor eventQueueExecutor() {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(new RetrievalProperties().getConcurrency());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.event;
+
+import org.fairdatapoint.entity.index.event.payload.RetrievalProgress;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class MetadataRetrievalProgressTest {
+
+    @Test
+    public void estimatesFinishOnlyAfterFirstProcessedEntry() {
+        // GIVEN:
+        final MetadataRetrievalProgress progress = new MetadataRetrievalProgress(4);
+
+        // THEN:
+        assertThat(progress.getEstimatedFinishAt().isPresent(), is(false));
+
+        // WHEN:
+        progress.getProcessed().incrementAndGet();
+        progress.getFailed().incrementAndGet();
+        final RetrievalProgress payload = progress.toPayload();
+
+        // THEN:
+        assertThat(progress.isRunning(), is(true));
+        assertThat(payload.getTotal(), is(equalTo(4L)));
+        assertThat(payload.getProcessed(), is(equalTo(1L)));
+        assertThat(payload.getFailed(), is(equalTo(1L)));
+        assertThat(payload.getEstimatedFinishAt(), is(notNullValue()));
+        assertThat(payload.getFinishedAt(), is(nullValue()));
+    }
+
+    @Test
+    public void finishedProgressReportsFinishTime() {
+        // GIVEN:
+        final MetadataRetrievalProgress progress = new MetadataRetrievalProgress(0);
+
+        // WHEN:
+        progress.finish();
+        final RetrievalProgress payload = progress.toPayload();
+
+        // THEN:
+        assertThat(progress.isRunning(), is(false));
+        assertThat(payload.getFinishedAt(), is(notNullValue()));
+        assertThat(payload.getEstimatedFinishAt(), is(equalTo(payload.getFinishedAt())));
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.event;
+
+import org.fairdatapoint.config.properties.InstanceProperties;
+import org.fairdatapoint.database.db.repository.PingRateLimitRepository;
+import org.fairdatapoint.entity.index.settings.SettingsIndexPing;
+import org.fairdatapoint.service.index.settings.IndexSettingsService;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PingRateLimiterTest {
+
+    private static final String REMOTE_ADDR = "192.0.2.1";
+
+    private final PingRateLimitRepository rateLimitRepository = mock(PingRateLimitRepository.class);
+
+    private final PingRateLimiter rateLimiter = new PingRateLimiter(
+            rateLimitRepository, mock(IndexSettingsService.class), mock(InstanceProperties.class)
+    );
+
+    private final SettingsIndexPing settings = SettingsIndexPing.getDefault();
+
+    @Test
+    public void estimateWeighsPreviousWindowByRemainingTime() {
+        assertThat(PingRateLimiter.estimate(10, 2, 0.25), is(closeTo(9.5, 0.001)));
+        assertThat(PingRateLimiter.estimate(10, 2, 1.0), is(closeTo(2.0, 0.001)));
+    }
+
+    @Test
+    public void acceptsPingsWithinLimit() {
+        // GIVEN:
+        stubHits(0, settings.getRateLimitHits());
+
+        // THEN:
+        assertThat(rateLimiter.tryAcquire(REMOTE_ADDR, settings), is(true));
+        assertThat(rateLimiter.getBlock(REMOTE_ADDR).isPresent(), is(false));
+    }
+
+    @Test
+    public void blocksLocallyOnceLimitIsReached() {
+        // GIVEN:
+        stubHits(0, settings.getRateLimitHits() + 1);
+
+        // WHEN:
+        final boolean acquired = rateLimiter.tryAcquire(REMOTE_ADDR, settings);
+
+        // THEN:
+        assertThat(acquired, is(false));
+        assertThat(rateLimiter.getBlock(REMOTE_ADDR).isPresent(), is(true));
+        assertThat(rateLimiter.getBlock("192.0.2.2").isPresent(), is(false));
+        verify(rateLimitRepository, times(1)).hit(eq(REMOTE_ADDR), any(), any());
+    }
+
+    private void stubHits(int previous, int current) {
+        final PingRateLimitRepository.Hits hits = mock(PingRateLimitRepository.Hits.class);
+        when(hits.getPrevious()).thenReturn(previous);
+        when(hits.getCurrent()).thenReturn(current);
+        when(rateLimitRepository.hit(any(), any(), any())).thenReturn(hits);
+    }
+}
@@ -22,13 +22,21 @@
  */
 package org.fairdatapoint.service.index.harvester;
 
+import org.fairdatapoint.config.properties.HarvesterProperties;
+import org.fairdatapoint.database.db.repository.HarvestedNodeRepository;
 import org.fairdatapoint.database.rdf.migration.development.metadata.data.RdfMetadataFixtures;
 import org.fairdatapoint.database.rdf.migration.development.metadata.factory.MetadataFactoryImpl;
 import org.fairdatapoint.database.rdf.repository.RepositoryMode;
 import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
 import org.fairdatapoint.database.rdf.repository.generic.GenericMetadataRepository;
+import org.fairdatapoint.entity.index.harvest.HarvestedNode;
+import org.fairdatapoint.entity.metadata.MetadataState;
+import org.fairdatapoint.service.metadata.state.MetadataStateIndex;
 import org.fairdatapoint.vocabulary.FDP;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -40,14 +48,24 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.fairdatapoint.entity.metadata.MetadataGetter.getUri;
 import static org.fairdatapoint.util.RdfIOUtil.write;
 import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.fairdatapoint.util.ValueFactoryHelper.s;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -60,6 +78,18 @@ public class HarvesterServiceTest {
     @Spy
     private GenericMetadataRepository genericMetadataRepository;
 
+    @Mock
+    private HarvestedNodeRepository harvestedNodeRepository;
+
+    @Mock
+    private MetadataStateIndex metadataStateIndex;
+
+    @Spy
+    private HarvesterProperties harvesterProperties = new HarvesterProperties();
+
+    @Spy
+    private ThreadPoolTaskExecutor executor = harvesterExecutor();
+
     @InjectMocks
     private HarvesterService harvesterService;
 
@@ -84,6 +114,11 @@ public class HarvesterServiceTest {
         repository.add(i(repositoryUrl), FDP.METADATACATALOG, i(catalogUrl));
     }
 
+    @AfterEach
+    public void teardown() {
+        executor.shutdown();
+    }
+
     @Test
     public void harvestSucceed() throws MetadataRepositoryException {
         // GIVEN: Mock webserver
@@ -94,7 +129,17 @@ public class HarvesterServiceTest {
         harvesterService.harvest(repositoryUrl);
 
         // THEN:
-        verify(genericMetadataRepository, times(2)).save(anyList(), eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        Model harvested = new LinkedHashModel(repository);
+        harvested.addAll(catalog);
+        verify(genericMetadataRepository, times(1))
+                .save(argThat(statements -> statements.size() == harvested.size()),
+                        eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        verify(genericMetadataRepository, never()).remove(anyList(), any(), any());
+        verify(metadataStateIndex).put(i(repositoryUrl), MetadataState.PUBLISHED);
+        HarvestProgress progress = harvesterService.getProgress(repositoryUrl).get();
+        assertThat(progress.isRunning(), is(equalTo(false)));
+        assertThat(progress.getFetched().get(), is(equalTo(2L)));
+        assertThat(progress.getFailed().get(), is(equalTo(0L)));
     }
 
     @Test
@@ -107,7 +152,77 @@ public class HarvesterServiceTest {
         harvesterService.harvest(repositoryUrl);
 
         // THEN:
-        verify(genericMetadataRepository, times(1)).save(anyList(), eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        verify(genericMetadataRepository, times(1))
+                .save(argThat(statements -> statements.size() == repository.size()),
+                        eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        HarvestProgress progress = harvesterService.getProgress(repositoryUrl).get();
+        assertThat(progress.getFetched().get(), is(equalTo(1L)));
+        assertThat(progress.getFailed().get(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void reharvestSkipsNotModifiedNodes() throws MetadataRepositoryException {
+        // GIVEN: Previously harvested data with validators
+        Model previous = new LinkedHashModel(repository);
+        previous.addAll(catalog);
+        doAnswer(invocation -> previous.stream().map(st -> s(st.getSubject(), st.getPredicate(), st.getObject(),
+                i(repositoryUrl))))
+                .when(genericMetadataRepository).findStream(eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        when(harvestedNodeRepository.findAllByClientUrl(repositoryUrl)).thenReturn(List.of(
+                HarvestedNode.builder().clientUrl(repositoryUrl).uri(repositoryUrl).etag("\"r1\"").build(),
+                HarvestedNode.builder().clientUrl(repositoryUrl).uri(catalogUrl).etag("\"c1\"").build()
+        ));
+
+        // AND: Repository title changed, catalog not modified
+        Model changedRepository = new LinkedHashModel(repository);
+        changedRepository.remove(i(repositoryUrl), DCTERMS.TITLE, null);
+        changedRepository.add(i(repositoryUrl), DCTERMS.TITLE, l("Changed title"));
+        mockEndpoint(repositoryUrl, changedRepository);
+        mockEndpoint304(catalogUrl, "\"c1\"");
+
+        // WHEN:
+        harvesterService.harvest(repositoryUrl);
+
+        // THEN:
+        verify(genericMetadataRepository, times(1)).save(
+                eq(List.of(s(i(repositoryUrl), DCTERMS.TITLE, l("Changed title")))),
+                eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        verify(genericMetadataRepository, times(1)).remove(
+                eq(new ArrayList<>(repository.filter(i(repositoryUrl), DCTERMS.TITLE, null))),
+                eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+        HarvestProgress progress = harvesterService.getProgress(repositoryUrl).get();
+        assertThat(progress.getFetched().get(), is(equalTo(1L)));
+        assertThat(progress.getNotModified().get(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void reharvestKeepsStatementsOfFailedNodes() throws MetadataRepositoryException {
+        // GIVEN: Previously harvested data
+        Model previous = new LinkedHashModel(repository);
+        previous.addAll(catalog);
+        doAnswer(invocation -> previous.stream().map(st -> s(st.getSubject(), st.getPredicate(), st.getObject(),
+                i(repositoryUrl))))
+                .when(genericMetadataRepository).findStream(eq(i(repositoryUrl)), eq(RepositoryMode.MAIN));
+
+        // AND: Repository unchanged, catalog temporarily unavailable
+        mockEndpoint(repositoryUrl, repository);
+        mockEndpoint404(catalogUrl);
+
+        // WHEN:
+        harvesterService.harvest(repositoryUrl);
+
+        // THEN:
+        verify(genericMetadataRepository, never()).remove(anyList(), any(), any());
+        HarvestProgress progress = harvesterService.getProgress(repositoryUrl).get();
+        assertThat(progress.getFetched().get(), is(equalTo(1L)));
+        assertThat(progress.getFailed().get(), is(equalTo(1L)));
+    }
+
+    private static ThreadPoolTaskExecutor harvesterExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(new HarvesterProperties().getConcurrency());
+        executor.initialize();
+        return executor;
     }
 
     private void mockEndpoint(String url, Model body) {
@@ -121,6 +236,19 @@ public class HarvesterServiceTest {
                 .thenReturn(responseBody);
     }
 
+    private void mockEndpoint304(String url, String etag) {
+        // Create response
+        MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+        headers.set("ETag", etag);
+        ResponseEntity<String> responseBody = new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+
+        // Mock (only when the conditional request is made)
+        when(restTemplate.exchange(eq(url), eq(HttpMethod.GET),
+                argThat((HttpEntity<?> entity) -> entity.getHeaders().getIfNoneMatch().contains(etag)),
+                eq(String.class)))
+                .thenReturn(responseBody);
+    }
+
     private void mockEndpoint404(String url) {
         // Create response
         ResponseEntity<String> responseBody = new ResponseEntity<>("", HttpStatus.NOT_FOUND);
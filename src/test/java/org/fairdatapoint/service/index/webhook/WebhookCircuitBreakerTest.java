@@ -0,0 +1,70 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.webhook;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WebhookCircuitBreakerTest {
+
+    @Test
+    public void opensAfterThresholdAndProbesOnceWhenOpenPeriodIsOver() {
+        // GIVEN:
+        final WebhookCircuitBreaker breaker = new WebhookCircuitBreaker(2, Duration.ZERO);
+
+        // WHEN:
+        breaker.onFailure();
+
+        // THEN:
+        assertThat(breaker.isOpen(), is(false));
+
+        // WHEN:
+        breaker.onFailure();
+
+        // THEN: a single probe is allowed
+        assertThat(breaker.isOpen(), is(true));
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.tryAcquire(), is(false));
+
+        // WHEN:
+        breaker.onSuccess();
+
+        // THEN:
+        assertThat(breaker.isOpen(), is(false));
+        assertThat(breaker.tryAcquire(), is(true));
+    }
+
+    @Test
+    public void failedProbeReopensCircuit() {
+        // GIVEN:
+        final WebhookCircuitBreaker breaker = new WebhookCircuitBreaker(1, Duration.ofHours(1));
+        breaker.onFailure();
+
+        // THEN:
+        assertThat(breaker.tryAcquire(), is(false));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.index.webhook;
+
+import org.fairdatapoint.config.properties.InstanceProperties;
+import org.fairdatapoint.database.db.repository.IndexWebhookRepository;
+import org.fairdatapoint.entity.index.entry.IndexEntry;
+import org.fairdatapoint.entity.index.event.IndexEvent;
+import org.fairdatapoint.entity.index.event.payload.MetadataRetrieval;
+import org.fairdatapoint.entity.index.webhook.IndexWebhook;
+import org.fairdatapoint.entity.index.webhook.IndexWebhookEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WebhookSubscriptionIndexTest {
+
+    private static final String ENTRY_URL = "https://example.com/fdp";
+
+    private final IndexWebhookRepository webhookRepository = mock(IndexWebhookRepository.class);
+
+    private final InstanceProperties instanceProperties = mock(InstanceProperties.class);
+
+    private final WebhookSubscriptionIndex subscriptionIndex =
+            new WebhookSubscriptionIndex(webhookRepository, instanceProperties);
+
+    private final IndexWebhook allHook = webhook(true, true, List.of(), List.of(), true);
+
+    private final IndexWebhook entryHook =
+            webhook(false, false, List.of(IndexWebhookEvent.ENTRY_VALID), List.of(ENTRY_URL), true);
+
+    private final IndexWebhook otherEntryHook =
+            webhook(false, false, List.of(IndexWebhookEvent.ENTRY_VALID), List.of("https://other.org"), true);
+
+    private final IndexWebhook disabledHook = webhook(true, true, List.of(), List.of(), false);
+
+    @BeforeEach
+    public void setup() {
+        when(instanceProperties.isIndex()).thenReturn(true);
+        when(webhookRepository.findAll()).thenReturn(List.of(allHook, entryHook, otherEntryHook, disabledHook));
+        subscriptionIndex.refresh();
+    }
+
+    @Test
+    public void matchesByEventAndEntry() {
+        // WHEN:
+        final List<IndexWebhook> result = subscriptionIndex.match(IndexWebhookEvent.ENTRY_VALID, retrieval(ENTRY_URL));
+
+        // THEN:
+        assertThat(result, containsInAnyOrder(allHook, entryHook));
+    }
+
+    @Test
+    public void matchesOnlyAllEventsWebhooksForOtherEvents() {
+        // WHEN:
+        final List<IndexWebhook> result =
+                subscriptionIndex.match(IndexWebhookEvent.ENTRY_INVALID, retrieval(ENTRY_URL));
+
+        // THEN:
+        assertThat(result, contains(allHook));
+    }
+
+    @Test
+    public void matchesEveryEntryWhenEventHasNoEntry() {
+        // GIVEN:
+        final IndexEvent event = new IndexEvent(1, null, null, new MetadataRetrieval());
+
+        // WHEN:
+        final List<IndexWebhook> result = subscriptionIndex.match(IndexWebhookEvent.ENTRY_VALID, event);
+
+        // THEN:
+        assertThat(result, containsInAnyOrder(allHook, entryHook, otherEntryHook));
+    }
+
+    private static IndexEvent retrieval(String clientUrl) {
+        final IndexEntry entry = new IndexEntry();
+        entry.setClientUrl(clientUrl);
+        return new IndexEvent(1, null, entry, new MetadataRetrieval());
+    }
+
+    private static IndexWebhook webhook(
+            boolean allEvents, boolean allEntries, List<IndexWebhookEvent> events, List<String> entries,
+            boolean enabled
+    ) {
+        final IndexWebhook webhook = new IndexWebhook();
+        webhook.setUuid(UUID.randomUUID());
+        webhook.setPayloadUrl("https://hooks.example.com/" + webhook.getUuid());
+        webhook.setSecret("secret");
+        webhook.setAllEvents(allEvents);
+        webhook.setAllEntries(allEntries);
+        webhook.setEvents(events);
+        webhook.setEntries(entries);
+        webhook.setEnabled(enabled);
+        return webhook;
+    }
+}
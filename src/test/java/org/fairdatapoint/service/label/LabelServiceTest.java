@@ -0,0 +1,152 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.label;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.fairdatapoint.api.dto.label.LabelDTO;
+import org.fairdatapoint.config.properties.LabelProperties;
+import org.fairdatapoint.database.db.repository.ResourceLabelRepository;
+import org.fairdatapoint.entity.label.ResourceLabel;
+import org.fairdatateam.rdf.resolver.api.ResourceResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.fairdatapoint.config.CacheConfig.LABEL_CACHE;
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LabelServiceTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private final String iri = "http://example.com/theme/health";
+
+    @Mock
+    private ResourceResolver resolver;
+
+    @Mock
+    private ResourceLabelRepository resourceLabelRepository;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private LabelService labelService;
+
+    @BeforeEach
+    public void setup() {
+        final LabelProperties labelProperties = new LabelProperties();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(labelProperties.getConcurrency());
+        executor.setQueueCapacity(labelProperties.getQueueCapacity());
+        executor.initialize();
+        labelService = new LabelService(
+                resolver,
+                resourceLabelRepository,
+                labelProperties,
+                new ConcurrentMapCacheManager(LABEL_CACHE),
+                executor
+        );
+    }
+
+    @AfterEach
+    public void teardown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void getLabelsServesStoredLabels() {
+        // GIVEN:
+        final ResourceLabel stored = ResourceLabel.builder()
+                .iri(iri)
+                .lang("en")
+                .label("Health")
+                .labelLang("en")
+                .resolvedAt(Instant.now())
+                .build();
+        when(resourceLabelRepository.findAllByLangAndIriIn(eq("en"), any())).thenReturn(List.of(stored));
+
+        // WHEN:
+        final Map<String, LabelDTO> labels = labelService.getLabels(List.of(iri), "en");
+
+        // THEN:
+        assertThat(labels.get(iri), is(equalTo(new LabelDTO("Health", "en"))));
+        verifyNoInteractions(resolver);
+    }
+
+    @Test
+    public void getLabelsResolvesUnknownInBackground() {
+        // GIVEN:
+        final IRI subject = i(iri);
+        final Model model = new LinkedHashModel();
+        model.add(subject, RDFS.LABEL, l("Health"));
+        when(resourceLabelRepository.findAllByLangAndIriIn(eq("en"), any())).thenReturn(List.of());
+        when(resolver.resolveResource(iri)).thenReturn(Optional.of(model));
+
+        // WHEN:
+        final Map<String, LabelDTO> labels = labelService.getLabels(List.of(iri), "en");
+
+        // THEN: nothing known yet, label is stored once resolved
+        assertThat(labels.isEmpty(), is(equalTo(true)));
+        verify(resourceLabelRepository, timeout(TIMEOUT_MS))
+                .store(eq(iri), eq("en"), eq("Health"), eq(""), any());
+    }
+
+    @Test
+    public void getLabelCachesFailures() {
+        // GIVEN:
+        when(resourceLabelRepository.findAllByLangAndIriIn(eq("en"), any())).thenReturn(List.of());
+        when(resolver.resolveResource(anyString())).thenReturn(Optional.empty());
+
+        // WHEN:
+        final Optional<LabelDTO> first = labelService.getLabel(iri, "en");
+        final Optional<LabelDTO> second = labelService.getLabel(iri, "en");
+
+        // THEN:
+        assertThat(first.isPresent(), is(equalTo(false)));
+        assertThat(second.isPresent(), is(equalTo(false)));
+        verify(resolver, times(1)).resolveResource(iri);
+        verify(resourceLabelRepository).store(eq(iri), eq("en"), isNull(), isNull(), any());
+    }
+}
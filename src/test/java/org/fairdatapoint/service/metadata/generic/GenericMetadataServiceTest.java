@@ -28,6 +28,7 @@ import org.fairdatapoint.entity.exception.ResourceNotFoundException;
 import org.fairdatapoint.entity.exception.ValidationException;
 import org.fairdatapoint.entity.resource.ResourceDefinition;
 import org.fairdatapoint.service.metadata.common.MetadataService;
+import org.fairdatapoint.service.metadata.touch.MetadataTouchService;
 import org.fairdatapoint.util.KnownUUIDs;
 import org.fairdatapoint.utils.AuthHelper;
 import org.fairdatapoint.utils.TestRdfMetadataFixtures;
@@ -68,6 +69,9 @@ public class GenericMetadataServiceTest extends WebIntegrationTest {
     @Autowired
     private ResourceDefinitionRepository resourceDefinitionRepository;
 
+    @Autowired
+    private MetadataTouchService metadataTouchService;
+
     @BeforeEach
     public void before() {
         authHelper.authenticateAsAdmin();
@@ -211,4 +215,27 @@ public class GenericMetadataServiceTest extends WebIntegrationTest {
         assertFalse(repositoryModified.isBefore(distributionModified), "FDP modified is not after Dataset modified");
     }
 
+    @Test
+    public void updateParentFlushed() throws Exception {
+        // GIVEN:
+        ResourceDefinition metadataRd = resourceDefinitionRepository.findByUuid(KnownUUIDs.RD_DISTRIBUTION_UUID).get();
+        Model catalog = testMetadataFixtures.catalog1();
+        Model dataset = testMetadataFixtures.c1_dataset1();
+        Model distribution = testMetadataFixtures.c1_d1_distribution1();
+        genericMetadataService.store(distribution, getUri(distribution), metadataRd);
+
+        // WHEN:
+        metadataTouchService.flush();
+
+        // THEN:
+        assertTrue(metadataTouchService.getPending(getUri(dataset)).isEmpty(), "Dataset touch is still pending");
+        assertTrue(metadataTouchService.getPending(getUri(catalog)).isEmpty(), "Catalog touch is still pending");
+        OffsetDateTime distributionModified = getModified(genericMetadataService.retrieve(getUri(distribution)));
+        OffsetDateTime datasetModified = getModified(genericMetadataService.retrieve(getUri(dataset)));
+        OffsetDateTime catalogModified = getModified(catalogMetadataService.retrieve(getUri(catalog)));
+        assertFalse(datasetModified.isBefore(distributionModified), "Dataset modified is not after Distribution " +
+                "modified");
+        assertFalse(catalogModified.isBefore(distributionModified), "Catalog modified is not after Dataset modified");
+    }
+
 }
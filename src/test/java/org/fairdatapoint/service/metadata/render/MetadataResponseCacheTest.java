@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.render;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fairdatapoint.config.properties.CacheProperties;
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.Test;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class MetadataResponseCacheTest {
+
+    private final IRI first = i("http://example.com/catalog/1");
+
+    private final IRI second = i("http://example.com/catalog/2");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void evictsLeastRecentlyUsedWhenOverLimit() {
+        // GIVEN: cache for two single-statement responses
+        final MetadataResponseCache cache = createCache(600);
+        cache.put(first, RepositoryMode.MAIN, createModel(first), cache.getStamp());
+        cache.put(second, RepositoryMode.MAIN, createModel(second), cache.getStamp());
+
+        // WHEN: first response gets rendered
+        cache.get(first, RepositoryMode.MAIN).get().putRendering(RDFFormat.TURTLE, new byte[100]);
+
+        // THEN: second (least recently used) response is evicted
+        assertThat(cache.get(first, RepositoryMode.MAIN).isPresent(), is(true));
+        assertThat(cache.get(second, RepositoryMode.MAIN).isPresent(), is(false));
+        assertThat(meterRegistry.get("fdp.metadata.response.cache.size").gauge().value(), is(equalTo(356.0)));
+        assertThat(meterRegistry.get("fdp.metadata.response.cache.evictions").functionCounter().count(),
+                is(equalTo(1.0)));
+    }
+
+    @Test
+    public void skipsResponsesBuiltBeforeInvalidation() {
+        // GIVEN: response built while the metadata gets changed
+        final MetadataResponseCache cache = createCache(1000);
+        final long stamp = cache.getStamp();
+        cache.evict(first);
+
+        // WHEN:
+        cache.put(first, RepositoryMode.MAIN, createModel(first), stamp);
+
+        // THEN:
+        assertThat(cache.get(first, RepositoryMode.MAIN).isPresent(), is(false));
+        assertThat(meterRegistry.get("fdp.metadata.response.cache.requests").tag("result", "miss")
+                .functionCounter().count(), is(equalTo(1.0)));
+    }
+
+    @Test
+    public void evictRemovesAllModes() {
+        // GIVEN:
+        final MetadataResponseCache cache = createCache(1000);
+        cache.put(first, RepositoryMode.MAIN, createModel(first), cache.getStamp());
+        cache.put(first, RepositoryMode.COMBINED, createModel(first), cache.getStamp());
+
+        // WHEN:
+        cache.evict(first);
+
+        // THEN:
+        assertThat(cache.get(first, RepositoryMode.MAIN).isPresent(), is(false));
+        assertThat(cache.get(first, RepositoryMode.COMBINED).isPresent(), is(false));
+        assertThat(meterRegistry.get("fdp.metadata.response.cache.size").gauge().value(), is(equalTo(0.0)));
+    }
+
+    private MetadataResponseCache createCache(long maxBytes) {
+        final CacheProperties properties = new CacheProperties();
+        properties.getResponses().setMaxBytes(maxBytes);
+        return new MetadataResponseCache(properties, meterRegistry);
+    }
+
+    private RenderedModel createModel(IRI uri) {
+        final RenderedModel model = new RenderedModel();
+        model.add(uri, DCTERMS.TITLE, l("Catalog"));
+        return model;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.metadata.state;
+
+import org.fairdatapoint.database.rdf.repository.RepositoryMode;
+import org.fairdatapoint.database.rdf.repository.common.MetadataRepository;
+import org.fairdatapoint.database.rdf.repository.exception.MetadataRepositoryException;
+import org.fairdatapoint.entity.metadata.MetadataState;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MetadataStateIndexTest {
+
+    private final IRI published = i("http://localhost/catalog/published");
+
+    private final IRI draft = i("http://localhost/catalog/draft");
+
+    private final IRI created = i("http://localhost/catalog/created");
+
+    @Mock
+    private MetadataRepository metadataRepository;
+
+    @InjectMocks
+    private MetadataStateIndex metadataStateIndex;
+
+    @Test
+    public void rebuildIndexesBothRepositories() throws MetadataRepositoryException {
+        // GIVEN: draft graph is present in both repositories
+        resources(RepositoryMode.MAIN, published, draft);
+        resources(RepositoryMode.DRAFTS, draft);
+
+        // WHEN:
+        metadataStateIndex.rebuild();
+
+        // THEN:
+        assertThat(metadataStateIndex.isBuilt(), is(true));
+        assertThat(metadataStateIndex.get(published), is(equalTo(Optional.of(MetadataState.PUBLISHED))));
+        assertThat(metadataStateIndex.get(draft), is(equalTo(Optional.of(MetadataState.DRAFT))));
+    }
+
+    @Test
+    public void changesDuringRebuildAreReplayed() throws MetadataRepositoryException {
+        // GIVEN: metadata is created and deleted while the repositories are being read
+        when(metadataRepository.findResources(RepositoryMode.MAIN)).thenAnswer(invocation -> {
+            metadataStateIndex.put(created, MetadataState.DRAFT);
+            metadataStateIndex.remove(published);
+            return List.<Resource>of(published);
+        });
+        resources(RepositoryMode.DRAFTS);
+
+        // WHEN:
+        metadataStateIndex.rebuild();
+
+        // THEN: journal wins over the snapshot that was read
+        assertThat(metadataStateIndex.get(created), is(equalTo(Optional.of(MetadataState.DRAFT))));
+        assertThat(metadataStateIndex.get(published), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void failedRebuildLeavesIndexUnbuilt() throws MetadataRepositoryException {
+        // GIVEN: index was built before
+        resources(RepositoryMode.MAIN, published);
+        resources(RepositoryMode.DRAFTS);
+        metadataStateIndex.rebuild();
+
+        // AND: next rebuild fails
+        when(metadataRepository.findResources(RepositoryMode.DRAFTS))
+                .thenThrow(new MetadataRepositoryException("failure"));
+
+        // WHEN:
+        metadataStateIndex.rebuild();
+        metadataStateIndex.put(created, MetadataState.DRAFT);
+
+        // THEN: stale entries are not served and later changes are not journaled
+        assertThat(metadataStateIndex.isBuilt(), is(false));
+        assertThat(metadataStateIndex.get(published), is(equalTo(Optional.empty())));
+        assertThat(metadataStateIndex.get(created), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void findModeUsesIndex() throws MetadataRepositoryException {
+        // GIVEN:
+        resources(RepositoryMode.MAIN, published);
+        resources(RepositoryMode.DRAFTS, draft);
+        metadataStateIndex.rebuild();
+
+        // WHEN + THEN:
+        assertThat(metadataStateIndex.findMode(published), is(equalTo(Optional.of(RepositoryMode.MAIN))));
+        assertThat(metadataStateIndex.findMode(draft), is(equalTo(Optional.of(RepositoryMode.DRAFTS))));
+        verify(metadataRepository, never()).exists(any(), any());
+    }
+
+    @Test
+    public void findModeFallsBackToRepository() throws MetadataRepositoryException {
+        // GIVEN: index is not built
+        when(metadataRepository.exists(published, RepositoryMode.MAIN)).thenReturn(true);
+        when(metadataRepository.exists(draft, RepositoryMode.MAIN)).thenReturn(false);
+        when(metadataRepository.exists(draft, RepositoryMode.DRAFTS)).thenReturn(true);
+        when(metadataRepository.exists(created, RepositoryMode.MAIN)).thenReturn(false);
+        when(metadataRepository.exists(created, RepositoryMode.DRAFTS)).thenReturn(false);
+
+        // WHEN + THEN:
+        assertThat(metadataStateIndex.findMode(published), is(equalTo(Optional.of(RepositoryMode.MAIN))));
+        assertThat(metadataStateIndex.findMode(draft), is(equalTo(Optional.of(RepositoryMode.DRAFTS))));
+        assertThat(metadataStateIndex.findMode(created), is(equalTo(Optional.empty())));
+        verify(metadataRepository, never()).exists(published, RepositoryMode.DRAFTS);
+    }
+
+    private void resources(RepositoryMode mode, Resource... contexts) throws MetadataRepositoryException {
+        when(metadataRepository.findResources(mode)).thenReturn(List.of(contexts));
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.rdf;
+
+import org.fairdatapoint.entity.exception.RdfValidationException;
+import org.fairdatapoint.util.RdfIOUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+
+import static org.fairdatapoint.util.ValueFactoryHelper.i;
+import static org.fairdatapoint.util.ValueFactoryHelper.l;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PreparedShaclValidatorTest {
+
+    private static final String SHAPES = """
+            @prefix sh: <http://www.w3.org/ns/shacl#> .
+            @prefix ex: <http://example.com/> .
+            ex:Shape a sh:NodeShape ;
+                sh:targetClass ex:Catalog ;
+                sh:property [ sh:path ex:title ; sh:minCount 1 ] .
+            """;
+
+    private final IRI uri = i("http://example.com/catalog/1");
+
+    private final ShaclValidator shaclValidator = new ShaclValidator();
+
+    @Test
+    public void reusesValidatorWithoutKeepingData() {
+        try (PreparedShaclValidator validator = shaclValidator.prepare(RdfIOUtil.read(SHAPES, ""))) {
+            // GIVEN: valid and invalid metadata
+            final Model valid = createMetadata(true);
+            final Model invalid = createMetadata(false);
+
+            // WHEN/THEN: results do not depend on previous validations
+            validator.validate(valid, uri.stringValue());
+            assertThrows(RdfValidationException.class, () -> validator.validate(invalid, uri.stringValue()));
+            validator.validate(valid, uri.stringValue());
+            assertThrows(RdfValidationException.class, () -> validator.validate(invalid, uri.stringValue()));
+        }
+    }
+
+    private Model createMetadata(boolean withTitle) {
+        final Model metadata = new LinkedHashModel();
+        metadata.add(uri, RDF.TYPE, i("http://example.com/Catalog"));
+        if (withTitle) {
+            metadata.add(uri, i("http://example.com/title"), l("Catalog"));
+        }
+        return metadata;
+    }
+}
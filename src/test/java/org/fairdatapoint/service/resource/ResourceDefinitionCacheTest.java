@@ -76,6 +76,11 @@ public class ResourceDefinitionCacheTest extends BaseIntegrationTest {
         assertThat(resourceDefinitionCache.getByUuid(rdDataset.getUuid()).getName(), is(equalTo(rdDataset.getName())));
         assertThat(resourceDefinitionCache.getByUuid(rdDistribution.getUuid()).getName(), is(equalTo(rdDistribution.getName())));
 
+        // AND: caches by URL prefix (with initialised children)
+        assertThat(resourceDefinitionCache.getByUrlPrefix(rdRepository.getUrlPrefix()).get().getUuid(), is(equalTo(rdRepository.getUuid())));
+        assertThat(resourceDefinitionCache.getByUrlPrefix(rdCatalog.getUrlPrefix()).get().getChildren().size(), is(equalTo(1)));
+        assertThat(resourceDefinitionCache.getByUrlPrefix("unknown").isPresent(), is(false));
+
         // AND: caches parents
         assertThat(resourceDefinitionCache.getParentsByUuid(rdRepository.getUuid()).isEmpty(), is(true));
         assertThat(resourceDefinitionCache.getParentsByUuid(rdCatalog.getUuid()).size(), is(equalTo(1)));
@@ -0,0 +1,133 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.security;
+
+import org.fairdatapoint.config.cache.BoundedCacheManager;
+import org.fairdatapoint.config.properties.CacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.fairdatapoint.config.CacheConfig.AUTHENTICATION_CACHE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class AuthenticationCacheTest {
+
+    private static final String TOKEN = "token";
+
+    private static final String API_KEY = "api-key";
+
+    private static final String OTHER_TOKEN = "other-token";
+
+    private static final UUID USER = UUID.fromString("95589e50-d261-492b-8852-9324e9a66a42");
+
+    private static final UUID OTHER_USER = UUID.fromString("7e64818d-6276-46fb-8bb1-732e6e09f7e9");
+
+    private static final long EXPIRATION_SECONDS = 60;
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("user", "");
+
+    private AuthenticationCache authenticationCache;
+
+    @BeforeEach
+    public void setup() {
+        final BoundedCacheManager cacheManager = new BoundedCacheManager(new CacheProperties());
+        cacheManager.setCacheNames(List.of(AUTHENTICATION_CACHE));
+        authenticationCache = new AuthenticationCache(cacheManager);
+    }
+
+    @Test
+    public void returnsCachedAuthentication() {
+        // GIVEN:
+        authenticationCache.put(TOKEN, USER, authentication, Instant.now().plusSeconds(EXPIRATION_SECONDS));
+
+        // WHEN:
+        final Optional<Authentication> result = authenticationCache.get(TOKEN);
+
+        // THEN:
+        assertThat(result, is(equalTo(Optional.of(authentication))));
+        assertThat(authenticationCache.get("other"), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void expiredTokenIsNotReturned() {
+        // GIVEN:
+        authenticationCache.put(TOKEN, USER, authentication, Instant.now().minusSeconds(1));
+
+        // WHEN:
+        final Optional<Authentication> result = authenticationCache.get(TOKEN);
+
+        // THEN:
+        assertThat(result, is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void evictedTokenIsNotReturned() {
+        // GIVEN:
+        authenticationCache.put(TOKEN, USER, authentication, null);
+
+        // WHEN:
+        authenticationCache.evict(TOKEN);
+
+        // THEN:
+        assertThat(authenticationCache.get(TOKEN), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void evictedUserKeepsOtherUsers() {
+        // GIVEN: user is signed in with a token and an API key
+        authenticationCache.put(TOKEN, USER, authentication, Instant.now().plusSeconds(EXPIRATION_SECONDS));
+        authenticationCache.put(API_KEY, USER, authentication, null);
+        authenticationCache.put(OTHER_TOKEN, OTHER_USER, authentication, null);
+
+        // WHEN:
+        authenticationCache.evictUser(USER);
+
+        // THEN:
+        assertThat(authenticationCache.get(TOKEN), is(equalTo(Optional.empty())));
+        assertThat(authenticationCache.get(API_KEY), is(equalTo(Optional.empty())));
+        assertThat(authenticationCache.get(OTHER_TOKEN), is(equalTo(Optional.of(authentication))));
+    }
+
+    @Test
+    public void tokenCachedAfterEvictionIsEvictedAgain() {
+        // GIVEN:
+        authenticationCache.put(TOKEN, USER, authentication, null);
+        authenticationCache.evictUser(USER);
+        authenticationCache.put(API_KEY, USER, authentication, null);
+
+        // WHEN:
+        authenticationCache.evictUser(USER);
+
+        // THEN:
+        assertThat(authenticationCache.get(API_KEY), is(equalTo(Optional.empty())));
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * The MIT License
+ * Copyright © 2016-2024 FAIR Data Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fairdatapoint.service.user;
+
+import org.fairdatapoint.database.db.repository.UserAccountRepository;
+import org.fairdatapoint.entity.user.UserAccount;
+import org.fairdatapoint.entity.user.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrentUserServiceTest {
+
+    private static final int CALLS = 3;
+
+    private final UUID userUuid = UUID.randomUUID();
+
+    private final UserAccount user = new UserAccount(userUuid, "Albert", "Einstein", "albert@example.com", "",
+            UserRole.USER);
+
+    @Mock
+    private UserAccountRepository userAccountRepository;
+
+    @InjectMocks
+    private CurrentUserService currentUserService;
+
+    @BeforeEach
+    public void setup() {
+        final User principal = new User(userUuid.toString(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, "", List.of())
+        );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void userIsLoadedOncePerRequest() {
+        // GIVEN:
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userAccountRepository.findWithApiKeysByUuid(userUuid)).thenReturn(Optional.of(user));
+
+        // WHEN:
+        for (int i = 0; i < CALLS; i++) {
+            assertThat(currentUserService.getCurrentUser(), is(equalTo(Optional.of(user))));
+        }
+
+        // THEN:
+        verify(userAccountRepository, times(1)).findWithApiKeysByUuid(userUuid);
+    }
+
+    @Test
+    public void userIsLoadedOnEachCallOutsideOfRequest() {
+        // GIVEN:
+        when(userAccountRepository.findByUuid(userUuid)).thenReturn(Optional.of(user));
+
+        // WHEN:
+        for (int i = 0; i < CALLS; i++) {
+            assertThat(currentUserService.getCurrentUser(), is(equalTo(Optional.of(user))));
+        }
+
+        // THEN:
+        verify(userAccountRepository, times(CALLS)).findByUuid(userUuid);
+    }
+}